@@ -0,0 +1,76 @@
+package org.example.features;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD {@link ColumnKernels} on the incubating Vector API. Only compiled with the
+ * {@code vector-api} Maven profile; loaded reflectively by {@link ColumnKernels#get()}.
+ * Doubles are processed at the platform's preferred width and narrowed to a float vector
+ * with the same lane count, which rounds exactly like the scalar {@code (float)} cast.
+ */
+final class VectorColumnKernels extends ColumnKernels {
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Float> FLOATS =
+            VectorSpecies.of(float.class, VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2));
+
+    @Override
+    public void toFloat(double[] values, float[] out, int length) {
+        int i = 0;
+        for (int upper = DOUBLES.loopBound(length); i < upper; i += DOUBLES.length()) {
+            narrow(DoubleVector.fromArray(DOUBLES, values, i)).intoArray(out, i);
+        }
+        for (; i < length; i++) {
+            out[i] = (float) values[i];
+        }
+    }
+
+    @Override
+    public void divide(double[] numerator, double[] denominator, double epsilon,
+                       float[] out, boolean[] exceeds, double threshold, int length) {
+        DoubleVector eps = DoubleVector.broadcast(DOUBLES, epsilon);
+        int i = 0;
+        for (int upper = DOUBLES.loopBound(length); i < upper; i += DOUBLES.length()) {
+            DoubleVector quotient = DoubleVector.fromArray(DOUBLES, numerator, i)
+                    .div(DoubleVector.fromArray(DOUBLES, denominator, i).add(eps));
+            narrow(quotient).intoArray(out, i);
+            if (exceeds != null) {
+                quotient.compare(VectorOperators.GT, threshold).intoArray(exceeds, i);
+            }
+        }
+        for (; i < length; i++) {
+            double quotient = numerator[i] / (denominator[i] + epsilon);
+            out[i] = (float) quotient;
+            if (exceeds != null) {
+                exceeds[i] = quotient > threshold;
+            }
+        }
+    }
+
+    @Override
+    public void addOrSubtract(double[] base, double[] delta, boolean[] add, float[] out, int length) {
+        int i = 0;
+        for (int upper = DOUBLES.loopBound(length); i < upper; i += DOUBLES.length()) {
+            DoubleVector b = DoubleVector.fromArray(DOUBLES, base, i);
+            DoubleVector d = DoubleVector.fromArray(DOUBLES, delta, i);
+            VectorMask<Double> inflow = VectorMask.fromArray(DOUBLES, add, i);
+            narrow(b.sub(d).blend(b.add(d), inflow)).intoArray(out, i);
+        }
+        for (; i < length; i++) {
+            out[i] = add[i] ? (float) (base[i] + delta[i]) : (float) (base[i] - delta[i]);
+        }
+    }
+
+    private static FloatVector narrow(DoubleVector values) {
+        return (FloatVector) values.convertShape(VectorOperators.D2F, FLOATS, 0);
+    }
+
+    @Override
+    public String toString() {
+        return DOUBLES.length() + " x double";
+    }
+}
@@ -2,16 +2,38 @@ package org.example;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.example.bulk.BacktestOptions;
+import org.example.bulk.BacktestReport;
+import org.example.bulk.BulkScorer;
+import org.example.bulk.BulkScoringOptions;
+import org.example.bulk.BulkScoringSummary;
+import org.example.bulk.RuleBacktester;
 import org.example.definition.*;
 import org.example.rules.FinalRuleOutput;
+import org.example.server.ScoringServer;
+import org.example.server.ScoringServerOptions;
 
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 
 public class InteractiveTester {
 
     public static void main(String[] args) {
+        if (args.length > 0 && "--batch".equals(args[0])) {
+            System.exit(runBatch(args));
+        }
+        if (args.length > 0 && "--backtest".equals(args[0])) {
+            System.exit(runBacktest(args));
+        }
+        if (args.length > 0 && "--serve".equals(args[0])) {
+            System.exit(runServer(args));
+        }
         System.out.println("--- Fraud SDK Interactive Tester ---");
 
         FraudDetectionSDK sdk = null;
@@ -93,4 +115,180 @@ public class InteractiveTester {
             FraudSdkManager.shutdown();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Non-interactive mode for re-screening whole files:
+     * {@code --batch <credentials.json> <input.ndjson|csv> <output.ndjson|csv> [--domain NAME] [--in-flight N] [--columnar-batch N] [--keep col1,col2]}
+     * The formats are picked from the file extensions; {@code --keep} copies input columns
+     * (e.g. fraud labels) through to the output; {@code --columnar-batch 1} turns off columnar
+     * preprocessing.
+     */
+    private static int runBatch(String[] args) {
+        if (args.length < 4) {
+            System.out.println("Usage: --batch <credentials.json> <input.ndjson|csv> <output.ndjson|csv> [--domain NAME] [--in-flight N] [--columnar-batch N] [--keep col1,col2]");
+            return 2;
+        }
+        String domain = null;
+        BulkScoringOptions options = new BulkScoringOptions();
+        for (int i = 4; i < args.length; i++) {
+            if (i + 1 >= args.length) {
+                System.out.println("❌ ERROR: Missing value for " + args[i]);
+                return 2;
+            }
+            switch (args[i]) {
+                case "--domain": domain = args[++i]; break;
+                case "--in-flight": options.setMaxInFlight(Integer.parseInt(args[++i])); break;
+                case "--columnar-batch": options.setColumnarBatchSize(Integer.parseInt(args[++i])); break;
+                case "--keep": options.setPassThroughColumns(Arrays.asList(args[++i].split(","))); break;
+                default:
+                    System.out.println("❌ ERROR: Unknown option " + args[i]);
+                    return 2;
+            }
+        }
+
+        try {
+            FraudDetectionSDK sdk = FraudSdkManager.initialize(args[1]);
+            if (domain == null) {
+                Set<String> configuredDomains = sdk.getDomainConfigurations().keySet();
+                if (configuredDomains.isEmpty()) {
+                    System.out.println("❌ ERROR: The fetched configuration has no domains. Exiting.");
+                    return 1;
+                }
+                domain = configuredDomains.iterator().next();
+            }
+            System.out.println("✅ SDK Initialized. Bulk scoring domain '" + domain + "': " + args[2] + " -> " + args[3]);
+
+            BulkScoringSummary summary = new BulkScorer(sdk, domain, options).run(Paths.get(args[2]), Paths.get(args[3]));
+
+            System.out.println("\n--- BULK SCORING SUMMARY ---");
+            System.out.println("  -> Records:      " + summary.getRecords() + " (invalid: " + summary.getInvalidRecords() + ", failed: " + summary.getFailedRecords() + ")");
+            System.out.printf("  -> Elapsed:      %.2f s%n", summary.getElapsedSeconds());
+            System.out.printf("  -> Throughput:   %.0f tx/s%n", summary.getRecordsPerSecond());
+            System.out.printf("  -> Latency (ms): p50=%.2f p95=%.2f p99=%.2f max=%.2f%n",
+                    summary.getP50Millis(), summary.getP95Millis(), summary.getP99Millis(), summary.getMaxMillis());
+            System.out.println("  -> Decisions:    " + summary.getDecisionCounts());
+            System.out.println("----------------------------");
+            return 0;
+        } catch (Exception e) {
+            System.out.println("❌ ERROR: Bulk scoring failed.");
+            System.out.println("   Details: " + e.getMessage());
+            return 1;
+        } finally {
+            FraudSdkManager.shutdown();
+        }
+    }
+
+    /**
+     * Rule backtest mode:
+     * {@code --backtest <credentials.json> <history.csv|ndjson> <candidate-rules.json> [--domain NAME] [--score-column C] [--label-column C] [--threads N]}
+     * replays historical transactions with their stored ML scores against the candidate rules
+     * (a JSON array of rule definitions) and the live ones, and prints how they compare.
+     */
+    private static int runBacktest(String[] args) {
+        if (args.length < 4) {
+            System.out.println("Usage: --backtest <credentials.json> <history.csv|ndjson> <candidate-rules.json> [--domain NAME] [--score-column C] [--score-missing true|false] [--label-column C] [--threads N]");
+            return 2;
+        }
+        String domain = null;
+        BacktestOptions options = new BacktestOptions();
+        for (int i = 4; i < args.length; i++) {
+            if (i + 1 >= args.length) {
+                System.out.println("❌ ERROR: Missing value for " + args[i]);
+                return 2;
+            }
+            switch (args[i]) {
+                case "--domain": domain = args[++i]; break;
+                case "--score-column": options.setScoreColumn(args[++i]); break;
+                case "--score-missing": options.setScoreMissing(Boolean.parseBoolean(args[++i])); break;
+                case "--label-column": options.setLabelColumn(args[++i]); break;
+                case "--threads": options.setThreads(Integer.parseInt(args[++i])); break;
+                default:
+                    System.out.println("❌ ERROR: Unknown option " + args[i]);
+                    return 2;
+            }
+        }
+
+        try {
+            List<RuleDefinition> candidateRules = new ObjectMapper().readValue(Paths.get(args[3]).toFile(),
+                    new TypeReference<List<RuleDefinition>>() {});
+            FraudDetectionSDK sdk = FraudSdkManager.initialize(args[1]);
+            if (domain == null) {
+                Set<String> configuredDomains = sdk.getDomainConfigurations().keySet();
+                if (configuredDomains.isEmpty()) {
+                    System.out.println("❌ ERROR: The fetched configuration has no domains. Exiting.");
+                    return 1;
+                }
+                domain = configuredDomains.iterator().next();
+            }
+            System.out.println("✅ SDK Initialized. Backtesting " + candidateRules.size() + " rules on domain '" + domain + "' with " + args[2]);
+
+            BacktestReport report = new RuleBacktester(sdk, domain, options).run(Paths.get(args[2]), candidateRules);
+
+            System.out.println("\n--- RULE BACKTEST ---");
+            System.out.println("  -> Records:        " + report.getRecords() + " (replayed: " + report.getReplayedRecords() + ", invalid: " + report.getInvalidRecords()
+                    + ", scored now: " + report.getScoredRecords() + ", unscored: " + report.getUnscoredRecords() + ", failed: " + report.getFailedRecords() + ")");
+            System.out.printf("  -> Elapsed:        %.2f s (%.0f tx/s)%n", report.getElapsedSeconds(), report.getRecordsPerSecond());
+            System.out.println("  -> Live decisions: " + report.getLiveDecisionCounts());
+            System.out.println("  -> New decisions:  " + report.getCandidateDecisionCounts());
+            System.out.println("  -> Changes:        " + report.getDecisionChanges());
+            System.out.println("  -> Rule hits:      " + report.getCandidateRuleHits());
+            System.out.println("  -> Live quality:   " + report.getLive());
+            System.out.println("  -> New quality:    " + report.getCandidate());
+            System.out.println("---------------------");
+            return 0;
+        } catch (Exception e) {
+            System.out.println("❌ ERROR: Backtest failed.");
+            System.out.println("   Details: " + e.getMessage());
+            return 1;
+        } finally {
+            FraudSdkManager.shutdown();
+        }
+    }
+
+    /**
+     * Sidecar mode: {@code --serve <credentials.json> [--host HOST] [--port N] [--workers N]}
+     * keeps one SDK warm and serves it over HTTP until the process is stopped.
+     */
+    private static int runServer(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: --serve <credentials.json> [--host HOST] [--port N] [--workers N]");
+            return 2;
+        }
+        ScoringServerOptions options = new ScoringServerOptions();
+        for (int i = 2; i < args.length; i++) {
+            if (i + 1 >= args.length) {
+                System.out.println("❌ ERROR: Missing value for " + args[i]);
+                return 2;
+            }
+            switch (args[i]) {
+                case "--host": options.setHost(args[++i]); break;
+                case "--port": options.setPort(Integer.parseInt(args[++i])); break;
+                case "--workers": options.setWorkerThreads(Integer.parseInt(args[++i])); break;
+                default:
+                    System.out.println("❌ ERROR: Unknown option " + args[i]);
+                    return 2;
+            }
+        }
+
+        try {
+            FraudDetectionSDK sdk = FraudSdkManager.initialize(args[1]);
+            ScoringServer server = new ScoringServer(sdk, options);
+            CountDownLatch stopped = new CountDownLatch(1);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.stop(5);
+                FraudSdkManager.shutdown();
+                stopped.countDown();
+            }));
+            server.start();
+            System.out.println("✅ Scoring server listening on http://" + options.getHost() + ":" + server.getPort()
+                    + " for domains " + sdk.getDomainConfigurations().keySet());
+            stopped.await();
+            return 0;
+        } catch (Exception e) {
+            System.out.println("❌ ERROR: Failed to start the scoring server.");
+            System.out.println("   Details: " + e.getMessage());
+            FraudSdkManager.shutdown();
+            return 1;
+        }
+    }
+}
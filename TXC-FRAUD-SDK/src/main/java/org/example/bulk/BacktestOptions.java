@@ -0,0 +1,43 @@
+package org.example.bulk;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Settings for {@link RuleBacktester}. A row's ML score is read from {@code scoreColumn}. Rows
+ * without one (the training CSVs have none) are scored through the domain's vectorizer and
+ * scorer when {@code scoreMissing} is set, and otherwise counted but not replayed. When
+ * {@code labelColumn} is present, a transaction counts as caught when its decision is one of
+ * {@code flaggedDecisions}.
+ */
+public class BacktestOptions {
+    private String scoreColumn = "mlScore";
+    private boolean scoreMissing = true;    // score rows without a stored score instead of skipping them
+    private String labelColumn = "is_fraud";
+    private List<String> flaggedDecisions = new ArrayList<>(Arrays.asList("DENY", "REVIEW"));
+    private int batchSize = 2048;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private RecordFormat inputFormat;   // null = infer from the file extension
+
+    public BacktestOptions() {
+    }
+
+    // Getters
+    public String getScoreColumn() { return scoreColumn; }
+    public boolean isScoreMissing() { return scoreMissing; }
+    public String getLabelColumn() { return labelColumn; }
+    public List<String> getFlaggedDecisions() { return flaggedDecisions; }
+    public int getBatchSize() { return batchSize; }
+    public int getThreads() { return threads; }
+    public RecordFormat getInputFormat() { return inputFormat; }
+
+    // Setters
+    public void setScoreColumn(String scoreColumn) { this.scoreColumn = scoreColumn; }
+    public void setScoreMissing(boolean scoreMissing) { this.scoreMissing = scoreMissing; }
+    public void setLabelColumn(String labelColumn) { this.labelColumn = labelColumn; }
+    public void setFlaggedDecisions(List<String> flaggedDecisions) { this.flaggedDecisions = flaggedDecisions; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+    public void setThreads(int threads) { this.threads = threads; }
+    public void setInputFormat(RecordFormat inputFormat) { this.inputFormat = inputFormat; }
+}
@@ -0,0 +1,117 @@
+package org.example.bulk;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Outcome of one {@link RuleBacktester} run: how often each rule fired, how the decision mix
+ * of the candidate rules differs from the live ones, and, for labelled rows, how well each
+ * rule set separates fraud from legitimate traffic.
+ */
+public class BacktestReport {
+    private final long records;
+    private final long invalidRecords;
+    private final long unscoredRecords;
+    private final long scoredRecords;
+    private final long failedRecords;
+    private final long replayedRecords;
+    private final Map<String, Long> liveDecisionCounts;
+    private final Map<String, Long> candidateDecisionCounts;
+    private final Map<String, Long> decisionChanges;
+    private final Map<String, Long> liveRuleHits;
+    private final Map<String, Long> candidateRuleHits;
+    private final Confusion live;
+    private final Confusion candidate;
+    private final long elapsedNanos;
+
+    BacktestReport(long records, long invalidRecords, long unscoredRecords, long scoredRecords, long failedRecords, long replayedRecords,
+                   Map<String, Long> liveDecisionCounts, Map<String, Long> candidateDecisionCounts,
+                   Map<String, Long> decisionChanges, Map<String, Long> liveRuleHits, Map<String, Long> candidateRuleHits,
+                   Confusion live, Confusion candidate, long elapsedNanos) {
+        this.records = records;
+        this.invalidRecords = invalidRecords;
+        this.unscoredRecords = unscoredRecords;
+        this.scoredRecords = scoredRecords;
+        this.failedRecords = failedRecords;
+        this.replayedRecords = replayedRecords;
+        this.liveDecisionCounts = Collections.unmodifiableMap(new TreeMap<>(liveDecisionCounts));
+        this.candidateDecisionCounts = Collections.unmodifiableMap(new TreeMap<>(candidateDecisionCounts));
+        this.decisionChanges = Collections.unmodifiableMap(new TreeMap<>(decisionChanges));
+        this.liveRuleHits = Collections.unmodifiableMap(new LinkedHashMap<>(liveRuleHits));
+        this.candidateRuleHits = Collections.unmodifiableMap(new LinkedHashMap<>(candidateRuleHits));
+        this.live = live;
+        this.candidate = candidate;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getRecords() { return records; }
+    public long getInvalidRecords() { return invalidRecords; }
+    /** Rows without an ML score, stored or computed during the backtest; they are not replayed. */
+    public long getUnscoredRecords() { return unscoredRecords; }
+    /** Rows without a stored ML score that were scored by the domain's scorer during the backtest. */
+    public long getScoredRecords() { return scoredRecords; }
+    /** Rows that could not be preprocessed or evaluated, e.g. without a client context. */
+    public long getFailedRecords() { return failedRecords; }
+    public long getReplayedRecords() { return replayedRecords; }
+    public Map<String, Long> getLiveDecisionCounts() { return liveDecisionCounts; }
+    public Map<String, Long> getCandidateDecisionCounts() { return candidateDecisionCounts; }
+    /** Rows whose decision differs, keyed {@code "LIVE -> CANDIDATE"}, e.g. {@code "ALLOW -> DENY"}. */
+    public Map<String, Long> getDecisionChanges() { return decisionChanges; }
+    /** Matches per live rule, in priority order, including rules that never matched. */
+    public Map<String, Long> getLiveRuleHits() { return liveRuleHits; }
+    /** Matches per candidate rule, in priority order, including rules that never matched. */
+    public Map<String, Long> getCandidateRuleHits() { return candidateRuleHits; }
+    public Confusion getLive() { return live; }
+    public Confusion getCandidate() { return candidate; }
+    public double getElapsedSeconds() { return elapsedNanos / 1_000_000_000.0; }
+    public double getRecordsPerSecond() { return elapsedNanos == 0 ? 0.0 : replayedRecords / getElapsedSeconds(); }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "records=%d (replayed=%d, invalid=%d, unscored=%d, scored=%d, failed=%d) in %.2fs = %.0f tx/s | decisions live=%s candidate=%s changes=%s | live %s | candidate %s",
+                records, replayedRecords, invalidRecords, unscoredRecords, scoredRecords, failedRecords, getElapsedSeconds(), getRecordsPerSecond(),
+                liveDecisionCounts, candidateDecisionCounts, decisionChanges, live, candidate);
+    }
+
+    /** Flagged-versus-label counts for one rule set over the labelled rows. */
+    public static class Confusion {
+        private final long truePositives;
+        private final long falsePositives;
+        private final long falseNegatives;
+        private final long trueNegatives;
+
+        Confusion(long truePositives, long falsePositives, long falseNegatives, long trueNegatives) {
+            this.truePositives = truePositives;
+            this.falsePositives = falsePositives;
+            this.falseNegatives = falseNegatives;
+            this.trueNegatives = trueNegatives;
+        }
+
+        public long getTruePositives() { return truePositives; }
+        public long getFalsePositives() { return falsePositives; }
+        public long getFalseNegatives() { return falseNegatives; }
+        public long getTrueNegatives() { return trueNegatives; }
+        public long getLabelledRecords() { return truePositives + falsePositives + falseNegatives + trueNegatives; }
+
+        /** Share of flagged rows that are fraud; {@code NaN} when nothing was flagged. */
+        public double getPrecision() {
+            long flagged = truePositives + falsePositives;
+            return flagged == 0 ? Double.NaN : (double) truePositives / flagged;
+        }
+
+        /** Share of fraud rows that were flagged; {@code NaN} when there is no fraud in the labels. */
+        public double getRecall() {
+            long fraud = truePositives + falseNegatives;
+            return fraud == 0 ? Double.NaN : (double) truePositives / fraud;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("labelled=%d precision=%.4f recall=%.4f (tp=%d fp=%d fn=%d tn=%d)",
+                    getLabelledRecords(), getPrecision(), getRecall(), truePositives, falsePositives, falseNegatives, trueNegatives);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package org.example.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.definition.DomainInput;
+import org.example.definition.FraudDetectionSDK;
+import org.example.execution.ScoringPipeline;
+import org.example.metrics.LatencyHistogram;
+import org.example.rules.FinalRuleOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Re-scores a whole file of transactions for one domain. Records are read on the calling
+ * thread and fed to the domain's {@link ScoringPipeline} in batches of {@code columnarBatchSize},
+ * which the pipeline preprocesses and vectorizes as columns, so parsing, vectorisation, scorer
+ * calls and rules all overlap. At most {@code maxInFlight} records are outstanding; the oldest
+ * is written as soon as it completes, so output is in input order and memory use does not
+ * depend on file size.
+ */
+public class BulkScorer {
+    private static final Logger logger = LoggerFactory.getLogger(BulkScorer.class);
+    private static final long PROGRESS_INTERVAL = 100_000;
+
+    private static final class Pending {
+        final InputRecord record;
+        final CompletableFuture<FinalRuleOutput> result;
+
+        Pending(InputRecord record, CompletableFuture<FinalRuleOutput> result) {
+            this.record = record;
+            this.result = result;
+        }
+    }
+
+    private final FraudDetectionSDK sdk;
+    private final String domainName;
+    private final BulkScoringOptions options;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    public BulkScorer(FraudDetectionSDK sdk, String domainName, BulkScoringOptions options) {
+        this.sdk = sdk;
+        this.domainName = domainName;
+        this.options = (options != null) ? options : new BulkScoringOptions();
+    }
+
+    public BulkScoringSummary run(Path inputPath, Path outputPath) throws IOException, InterruptedException {
+        RecordFormat inputFormat = (options.getInputFormat() != null) ? options.getInputFormat() : RecordFormat.fromPath(inputPath);
+        RecordFormat outputFormat = (options.getOutputFormat() != null) ? options.getOutputFormat() : RecordFormat.fromPath(outputPath);
+        Class<?> inputClass = sdk.getDomainInputClass(domainName);
+        int maxInFlight = Math.max(1, options.getMaxInFlight());
+        int batchSize = Math.max(1, Math.min(options.getColumnarBatchSize(), maxInFlight));
+
+        LatencyHistogram latency = new LatencyHistogram();
+        Map<String, Long> decisionCounts = new HashMap<>();
+        long[] totals = new long[3]; // records, invalid, failed
+        ArrayDeque<Pending> window = new ArrayDeque<>(maxInFlight);
+        List<Pending> batch = new ArrayList<>(batchSize);
+
+        logger.info("Domain [{}]: Bulk scoring {} ({}) -> {} ({}), {} in flight.",
+                domainName, inputPath, inputFormat, outputPath, outputFormat, maxInFlight);
+        long start = System.nanoTime();
+        try (TransactionRecordReader reader = new TransactionRecordReader(inputPath, inputFormat, mapper, inputClass, options.getPassThroughColumns());
+             DecisionWriter writer = new DecisionWriter(outputPath, outputFormat, mapper, options.getPassThroughColumns());
+             ScoringPipeline pipeline = sdk.openPipeline(domainName, options.getPipelineOptions())) {
+
+            if (inputFormat == RecordFormat.CSV) {
+                logger.info("Domain [{}]: CSV columns mapped to {}: {}", domainName, inputClass.getSimpleName(), reader.getMappedColumns());
+            }
+
+            InputRecord record;
+            while ((record = reader.next()) != null) {
+                if (window.size() >= maxInFlight) {
+                    // The head may be waiting in the batch being collected.
+                    submit(pipeline, batch, latency);
+                    writeHead(window.poll(), writer, decisionCounts, totals);
+                }
+                Pending pending = new Pending(record, new CompletableFuture<>());
+                window.add(pending);
+                if (record.isFailed()) {
+                    pending.result.complete(null);
+                } else {
+                    batch.add(pending);
+                    if (batch.size() >= batchSize) {
+                        submit(pipeline, batch, latency);
+                    }
+                }
+                if (++totals[0] % PROGRESS_INTERVAL == 0) {
+                    logger.info("Domain [{}]: {} records read, stage queues {}.", domainName, totals[0], pipeline.getStageQueueDepths());
+                }
+            }
+            submit(pipeline, batch, latency);
+            while (!window.isEmpty()) {
+                writeHead(window.poll(), writer, decisionCounts, totals);
+            }
+        }
+
+        BulkScoringSummary summary = new BulkScoringSummary(totals[0], totals[1], totals[2], decisionCounts,
+                System.nanoTime() - start, latency);
+        logger.info("Domain [{}]: Bulk scoring finished: {}", domainName, summary);
+        return summary;
+    }
+
+    private void submit(ScoringPipeline pipeline, List<Pending> batch, LatencyHistogram latency) throws InterruptedException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<DomainInput> inputs = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            inputs.add(pending.record.getInput());
+        }
+        long submitted = System.nanoTime();
+        try {
+            List<CompletableFuture<FinalRuleOutput>> results = pipeline.submitBatch(inputs, null);
+            for (int i = 0; i < batch.size(); i++) {
+                CompletableFuture<FinalRuleOutput> target = batch.get(i).result;
+                results.get(i).whenComplete((output, error) -> {
+                    latency.recordNanos(System.nanoTime() - submitted);
+                    if (error != null) {
+                        target.completeExceptionally(error);
+                    } else {
+                        target.complete(output);
+                    }
+                });
+            }
+        } catch (RuntimeException e) {
+            batch.forEach(pending -> pending.result.completeExceptionally(e));
+        }
+        batch.clear();
+    }
+
+    private void writeHead(Pending pending, DecisionWriter writer, Map<String, Long> decisionCounts, long[] totals)
+            throws IOException, InterruptedException {
+        if (pending.record.isFailed()) {
+            totals[1]++;
+            writer.write(pending.record, null, "INVALID_INPUT: " + pending.record.getError());
+            decisionCounts.merge("ERROR", 1L, Long::sum);
+            return;
+        }
+        try {
+            FinalRuleOutput output = pending.result.get();
+            writer.write(pending.record, output, null);
+            decisionCounts.merge(String.valueOf(output.getDecision()), 1L, Long::sum);
+        } catch (ExecutionException e) {
+            Throwable cause = (e.getCause() instanceof CompletionException && e.getCause().getCause() != null)
+                    ? e.getCause().getCause() : e.getCause();
+            logger.debug("Domain [{}]: Line {} failed to score.", domainName, pending.record.getLineNumber(), cause);
+            totals[2]++;
+            writer.write(pending.record, null, "SCORING_FAILED: " + cause.getMessage());
+            decisionCounts.merge("ERROR", 1L, Long::sum);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.bulk;
+
+import org.example.execution.PipelineOptions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for {@link BulkScorer}. {@code maxInFlight} caps how many records are read
+ * ahead of the writer, which is what keeps memory flat on arbitrarily large files.
+ * Records are handed to the pipeline {@code columnarBatchSize} at a time so they are
+ * preprocessed and vectorized as columns; 1 scores them row by row.
+ */
+public class BulkScoringOptions {
+    private int maxInFlight = 4096;
+    private int columnarBatchSize = 256;
+    private RecordFormat inputFormat;   // null = infer from the file extension
+    private RecordFormat outputFormat;  // null = infer from the file extension
+    private List<String> passThroughColumns = new ArrayList<>();
+    private PipelineOptions pipelineOptions = new PipelineOptions();
+
+    public BulkScoringOptions() {
+    }
+
+    // Getters
+    public int getMaxInFlight() { return maxInFlight; }
+    public int getColumnarBatchSize() { return columnarBatchSize; }
+    public RecordFormat getInputFormat() { return inputFormat; }
+    public RecordFormat getOutputFormat() { return outputFormat; }
+    public List<String> getPassThroughColumns() { return passThroughColumns; }
+    public PipelineOptions getPipelineOptions() { return pipelineOptions; }
+
+    // Setters
+    public void setMaxInFlight(int maxInFlight) { this.maxInFlight = maxInFlight; }
+    public void setColumnarBatchSize(int columnarBatchSize) { this.columnarBatchSize = columnarBatchSize; }
+    public void setInputFormat(RecordFormat inputFormat) { this.inputFormat = inputFormat; }
+    public void setOutputFormat(RecordFormat outputFormat) { this.outputFormat = outputFormat; }
+    public void setPassThroughColumns(List<String> passThroughColumns) { this.passThroughColumns = passThroughColumns; }
+    public void setPipelineOptions(PipelineOptions pipelineOptions) { this.pipelineOptions = pipelineOptions; }
+}
@@ -0,0 +1,55 @@
+package org.example.bulk;
+
+import org.example.metrics.LatencyHistogram;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/** Totals, throughput and per-transaction latency for one {@link BulkScorer} run. */
+public class BulkScoringSummary {
+    private final long records;
+    private final long invalidRecords;
+    private final long failedRecords;
+    private final Map<String, Long> decisionCounts;
+    private final long elapsedNanos;
+    private final double p50Millis;
+    private final double p95Millis;
+    private final double p99Millis;
+    private final double maxMillis;
+    private final double meanMillis;
+
+    BulkScoringSummary(long records, long invalidRecords, long failedRecords, Map<String, Long> decisionCounts,
+                       long elapsedNanos, LatencyHistogram latency) {
+        this.records = records;
+        this.invalidRecords = invalidRecords;
+        this.failedRecords = failedRecords;
+        this.decisionCounts = Collections.unmodifiableMap(new TreeMap<>(decisionCounts));
+        this.elapsedNanos = elapsedNanos;
+        this.p50Millis = latency.getPercentileNanos(50) / 1_000_000.0;
+        this.p95Millis = latency.getPercentileNanos(95) / 1_000_000.0;
+        this.p99Millis = latency.getPercentileNanos(99) / 1_000_000.0;
+        this.maxMillis = latency.getMaxNanos() / 1_000_000.0;
+        this.meanMillis = latency.getMeanNanos() / 1_000_000.0;
+    }
+
+    public long getRecords() { return records; }
+    public long getInvalidRecords() { return invalidRecords; }
+    public long getFailedRecords() { return failedRecords; }
+    public Map<String, Long> getDecisionCounts() { return decisionCounts; }
+    public double getElapsedSeconds() { return elapsedNanos / 1_000_000_000.0; }
+    public double getRecordsPerSecond() { return elapsedNanos == 0 ? 0.0 : records / getElapsedSeconds(); }
+    public double getP50Millis() { return p50Millis; }
+    public double getP95Millis() { return p95Millis; }
+    public double getP99Millis() { return p99Millis; }
+    public double getMaxMillis() { return maxMillis; }
+    public double getMeanMillis() { return meanMillis; }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "records=%d (invalid=%d, failed=%d) in %.2fs = %.0f tx/s | latency ms p50=%.2f p95=%.2f p99=%.2f max=%.2f mean=%.2f | decisions=%s",
+                records, invalidRecords, failedRecords, getElapsedSeconds(), getRecordsPerSecond(),
+                p50Millis, p95Millis, p99Millis, maxMillis, meanMillis, decisionCounts);
+    }
+}
@@ -0,0 +1,140 @@
+package org.example.bulk;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps CSV columns onto the JSON shape of a domain input class. Headers are matched
+ * ignoring case and underscores, so the training exports ({@code transaction_amount},
+ * {@code balance_before}) and the JSON names ({@code transactionAmount},
+ * {@code clientContext.balance_before}) both resolve. Top-level properties win over
+ * nested ones; columns that match nothing are returned to the caller as extras.
+ */
+class CsvColumnMapper {
+
+    private static final class Target {
+        final String[] path;
+        final JavaType type;
+
+        Target(String[] path, JavaType type) {
+            this.path = path;
+            this.type = type;
+        }
+    }
+
+    private final Target[] targets;
+    private final String[] headers;
+
+    CsvColumnMapper(ObjectMapper mapper, Class<?> inputClass, String[] headers) {
+        Map<String, Target> byName = new HashMap<>();
+        collect(mapper, mapper.constructType(inputClass), new ArrayList<>(), byName, 0);
+        this.headers = headers;
+        this.targets = new Target[headers.length];
+        for (int i = 0; i < headers.length; i++) {
+            targets[i] = byName.get(normalize(headers[i]));
+        }
+    }
+
+    /** Columns that will be copied into the input object, in header order. */
+    List<String> getMappedColumns() {
+        List<String> mapped = new ArrayList<>();
+        for (int i = 0; i < headers.length; i++) {
+            if (targets[i] != null) mapped.add(headers[i]);
+        }
+        return mapped;
+    }
+
+    /**
+     * Builds the JSON tree for one row. Empty cells are left out so the POJO keeps its default.
+     * @param extras receives every cell whose column is not part of the input class.
+     */
+    ObjectNode toTree(String[] cells, Map<String, String> extras) {
+        ObjectNode root = JsonNodeFactory.instance.objectNode();
+        for (int i = 0; i < headers.length; i++) {
+            String cell = (i < cells.length) ? cells[i] : "";
+            Target target = targets[i];
+            if (target == null) {
+                if (extras != null) extras.put(headers[i], cell);
+                continue;
+            }
+            if (cell.isEmpty()) continue;
+
+            ObjectNode parent = root;
+            for (int p = 0; p < target.path.length - 1; p++) {
+                parent = parent.has(target.path[p]) ? (ObjectNode) parent.get(target.path[p]) : parent.putObject(target.path[p]);
+            }
+            put(parent, target.path[target.path.length - 1], target.type, cell);
+        }
+        return root;
+    }
+
+    private static void put(ObjectNode parent, String field, JavaType type, String cell) {
+        Class<?> raw = type.getRawClass();
+        if (raw == boolean.class || raw == Boolean.class) {
+            // pandas writes True/False, some exports write 1/0.
+            parent.put(field, "true".equalsIgnoreCase(cell) || "1".equals(cell) || "yes".equalsIgnoreCase(cell));
+            return;
+        }
+        if (raw == int.class || raw == Integer.class || raw == long.class || raw == Long.class) {
+            try {
+                parent.put(field, (long) Double.parseDouble(cell));
+                return;
+            } catch (NumberFormatException ignored) {
+                // Fall through and let Jackson report the bad value.
+            }
+        } else if (raw == double.class || raw == Double.class || raw == float.class || raw == Float.class) {
+            try {
+                parent.put(field, Double.parseDouble(cell));
+                return;
+            } catch (NumberFormatException ignored) {
+                // Fall through and let Jackson report the bad value.
+            }
+        }
+        parent.put(field, cell);
+    }
+
+    private static void collect(ObjectMapper mapper, JavaType type, List<String> prefix, Map<String, Target> byName, int depth) {
+        BeanDescription description = mapper.getDeserializationConfig().introspect(type);
+        // Register this level's properties before recursing, so top-level names take precedence.
+        Map<BeanPropertyDefinition, List<String>> nested = new LinkedHashMap<>();
+        for (BeanPropertyDefinition property : description.findProperties()) {
+            if (!property.couldDeserialize()) continue;
+            List<String> path = new ArrayList<>(prefix);
+            path.add(property.getName());
+            JavaType propertyType = property.getPrimaryType();
+            if (depth < 2 && isBean(propertyType)) {
+                nested.put(property, path);
+                continue;
+            }
+            Target target = new Target(path.toArray(new String[0]), propertyType);
+            byName.putIfAbsent(normalize(property.getName()), target);
+            byName.putIfAbsent(normalize(String.join(".", path)), target);
+        }
+        nested.forEach((property, path) -> collect(mapper, property.getPrimaryType(), path, byName, depth + 1));
+    }
+
+    private static boolean isBean(JavaType type) {
+        Class<?> raw = type.getRawClass();
+        return !type.isPrimitive() && !type.isContainerType() && !type.isEnumType()
+                && !raw.getName().startsWith("java.") && raw != Object.class;
+    }
+
+    private static String normalize(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c != '_' && c != '-' && c != ' ') sb.append(Character.toLowerCase(c));
+        }
+        return sb.toString();
+    }
+}
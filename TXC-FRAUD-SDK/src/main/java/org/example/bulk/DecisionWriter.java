@@ -0,0 +1,115 @@
+package org.example.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.example.rules.FinalRuleOutput;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes one decision per input record as NDJSON or CSV. Every row carries the input's
+ * line number and user id so results can be joined back to the source file, followed by
+ * any pass-through columns requested by the caller.
+ */
+public class DecisionWriter implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final BufferedWriter writer;
+    private final RecordFormat format;
+    private final ObjectMapper mapper;
+    private final ObjectWriter jsonWriter;
+    private final List<String> passThroughColumns;
+
+    public DecisionWriter(Path path, RecordFormat format, ObjectMapper mapper, List<String> passThroughColumns) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(path), StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.format = format;
+        this.mapper = mapper;
+        this.jsonWriter = mapper.writer();
+        this.passThroughColumns = passThroughColumns;
+
+        if (format == RecordFormat.CSV) {
+            StringBuilder header = new StringBuilder("line,userId,decision,originalMlScore,finalAdjustedScore,executionMode,reasonCodes,flags,triggeredRuleIds,error");
+            for (String column : passThroughColumns) {
+                header.append(',').append(escapeCsv(column));
+            }
+            writer.write(header.toString());
+            writer.newLine();
+        }
+    }
+
+    /**
+     * @param output the decision, or {@code null} when the record could not be scored.
+     * @param error  why the record has no decision; ignored when {@code output} is present.
+     */
+    public void write(InputRecord record, FinalRuleOutput output, String error) throws IOException {
+        String userId = (record.getInput() != null) ? record.getInput().getUserId() : null;
+        String decision = (output != null) ? output.getDecision() : "ERROR";
+        if (format == RecordFormat.CSV) {
+            StringBuilder row = new StringBuilder(256);
+            row.append(record.getLineNumber()).append(',')
+               .append(escapeCsv(userId)).append(',')
+               .append(escapeCsv(decision)).append(',');
+            if (output != null) {
+                row.append(output.getOriginalMlScore()).append(',')
+                   .append(output.getFinalAdjustedScore()).append(',')
+                   .append(escapeCsv(output.getExecutionMode())).append(',')
+                   .append(escapeCsv(String.join("|", output.getReasonCodes()))).append(',')
+                   .append(escapeCsv(String.join("|", output.getFlags()))).append(',')
+                   .append(escapeCsv(String.join("|", output.getTriggeredRuleIds()))).append(',');
+            } else {
+                row.append(",,,,,,");
+            }
+            row.append(escapeCsv(output == null ? error : null));
+            for (String column : passThroughColumns) {
+                row.append(',').append(escapeCsv(record.getExtras().get(column)));
+            }
+            writer.write(row.toString());
+        } else {
+            ObjectNode node = mapper.createObjectNode();
+            node.put("line", record.getLineNumber());
+            node.put("userId", userId);
+            node.put("decision", decision);
+            if (output != null) {
+                node.put("originalMlScore", output.getOriginalMlScore());
+                node.put("finalAdjustedScore", output.getFinalAdjustedScore());
+                node.put("executionMode", output.getExecutionMode());
+                addArray(node.putArray("reasonCodes"), output.getReasonCodes());
+                addArray(node.putArray("flags"), output.getFlags());
+                addArray(node.putArray("triggeredRuleIds"), output.getTriggeredRuleIds());
+            } else {
+                node.put("error", error);
+            }
+            for (String column : passThroughColumns) {
+                node.put(column, record.getExtras().get(column));
+            }
+            writer.write(jsonWriter.writeValueAsString(node));
+        }
+        writer.newLine();
+    }
+
+    private static void addArray(ArrayNode array, List<String> values) {
+        values.forEach(array::add);
+    }
+
+    private static String escapeCsv(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.bulk;
+
+import org.example.definition.DomainInput;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * One transaction read from a bulk file: either a deserialised input or the reason it
+ * could not be read, plus any columns that are not part of the domain's input class
+ * (labels, stored scores, ...), keyed by their original column name.
+ */
+public class InputRecord {
+    private final long lineNumber;
+    private final DomainInput input;
+    private final String error;
+    private final Map<String, String> extras;
+
+    private InputRecord(long lineNumber, DomainInput input, String error, Map<String, String> extras) {
+        this.lineNumber = lineNumber;
+        this.input = input;
+        this.error = error;
+        this.extras = (extras != null) ? extras : Collections.emptyMap();
+    }
+
+    public static InputRecord parsed(long lineNumber, DomainInput input, Map<String, String> extras) {
+        return new InputRecord(lineNumber, input, null, extras);
+    }
+
+    /** @param error Why the record could not be read; never stored as {@code null}, so the record stays failed. */
+    public static InputRecord failed(long lineNumber, String error) {
+        return new InputRecord(lineNumber, null, (error != null) ? error : "Unreadable record", null);
+    }
+
+    public long getLineNumber() { return lineNumber; }
+    public DomainInput getInput() { return input; }
+    public String getError() { return error; }
+    public boolean isFailed() { return error != null; }
+    public Map<String, String> getExtras() { return extras; }
+}
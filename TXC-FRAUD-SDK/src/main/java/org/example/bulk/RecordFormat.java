@@ -0,0 +1,15 @@
+package org.example.bulk;
+
+import java.nio.file.Path;
+
+/** File formats accepted and produced by the bulk tools. */
+public enum RecordFormat {
+    NDJSON,
+    CSV;
+
+    /** Picks the format from the file extension: {@code .csv} is CSV, anything else is NDJSON. */
+    public static RecordFormat fromPath(Path path) {
+        String fileName = path.getFileName().toString().toLowerCase();
+        return fileName.endsWith(".csv") ? CSV : NDJSON;
+    }
+}
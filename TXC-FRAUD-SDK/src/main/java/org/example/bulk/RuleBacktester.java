@@ -0,0 +1,344 @@
+package org.example.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.definition.DomainInput;
+import org.example.definition.FraudDetectionSDK;
+import org.example.definition.RuleDefinition;
+import org.example.rules.FinalRuleOutput;
+import org.example.rules.RuleNetwork;
+import org.example.rules.TransactionRuleContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replays a historical dataset (the CSV files the training pipelines use, or exported NDJSON)
+ * against a candidate rule set and the domain's live rules. A row's stored ML score is used as
+ * is; rows without one are scored through the domain's vectorizer and scorer, unless
+ * {@link BacktestOptions#isScoreMissing} is off. Rows are read on the calling thread and replayed in
+ * batches on {@code threads} workers, each batch preprocessed as columns and evaluated by
+ * both rule networks with {@link RuleNetwork#executeBatch}, so a backtest of millions of rows
+ * takes seconds to minutes. At most two batches per worker are outstanding, so memory use
+ * does not depend on file size.
+ * <p>
+ * Per-user state features (velocity, graph, duplicates) are not rebuilt from the history;
+ * rules that depend on them see them as missing.
+ */
+public class RuleBacktester {
+    private static final Logger logger = LoggerFactory.getLogger(RuleBacktester.class);
+    private static final long PROGRESS_INTERVAL = 1_000_000;
+
+    private final FraudDetectionSDK sdk;
+    private final String domainName;
+    private final BacktestOptions options;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final AtomicBoolean scoringFailureLogged = new AtomicBoolean();
+
+    public RuleBacktester(FraudDetectionSDK sdk, String domainName, BacktestOptions options) {
+        this.sdk = sdk;
+        this.domainName = domainName;
+        this.options = (options != null) ? options : new BacktestOptions();
+    }
+
+    public BacktestReport run(Path inputPath, List<RuleDefinition> candidateRules) throws IOException, InterruptedException {
+        RecordFormat inputFormat = (options.getInputFormat() != null) ? options.getInputFormat() : RecordFormat.fromPath(inputPath);
+        RuleNetwork live = sdk.getRuleNetwork(domainName);
+        RuleNetwork candidate = sdk.compileRules(domainName, candidateRules);
+        int threads = Math.max(1, options.getThreads());
+        int batchSize = Math.max(1, options.getBatchSize());
+
+        Set<String> flaggedDecisions = new HashSet<>();
+        options.getFlaggedDecisions().forEach(decision -> flaggedDecisions.add(decision.toUpperCase(Locale.ROOT)));
+        Tally total = new Tally(live.getRuleIds(), candidate.getRuleIds());
+        long[] reading = new long[3]; // records, invalid, unscored
+
+        logger.info("Domain [{}]: Backtesting {} candidate rules against {} live rules on {} ({}), {} threads.",
+                domainName, candidate.getRuleCount(), live.getRuleCount(), inputPath, inputFormat, threads);
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "fraud-sdk-backtest-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Semaphore slots = new Semaphore(threads * 2);
+        long start = System.nanoTime();
+        try (TransactionRecordReader reader = new TransactionRecordReader(inputPath, inputFormat, mapper,
+                sdk.getDomainInputClass(domainName), Arrays.asList(options.getScoreColumn(), options.getLabelColumn()))) {
+            Batch batch = new Batch(batchSize);
+            InputRecord record;
+            while ((record = reader.next()) != null) {
+                if (++reading[0] % PROGRESS_INTERVAL == 0) {
+                    logger.info("Domain [{}]: Backtest read {} records.", domainName, reading[0]);
+                }
+                if (record.isFailed()) {
+                    reading[1]++;
+                    continue;
+                }
+                double score = parseScore(record.getExtras().get(options.getScoreColumn()));
+                if (Double.isNaN(score) && !options.isScoreMissing()) {
+                    reading[2]++;
+                    continue;
+                }
+                batch.add(record.getInput(), score, parseLabel(record.getExtras().get(options.getLabelColumn())));
+                if (batch.size() == batchSize) {
+                    submit(workers, slots, batch, live, candidate, flaggedDecisions, total);
+                    batch = new Batch(batchSize);
+                }
+            }
+            submit(workers, slots, batch, live, candidate, flaggedDecisions, total);
+        } finally {
+            workers.shutdown();
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+
+        BacktestReport report;
+        synchronized (total) {
+            report = new BacktestReport(reading[0], reading[1], reading[2] + total.unscored, total.scored, total.failed, total.replayed,
+                    total.liveDecisions, total.candidateDecisions, total.decisionChanges, total.liveRuleHits,
+                    total.candidateRuleHits, total.live.toConfusion(), total.candidate.toConfusion(), System.nanoTime() - start);
+        }
+        logger.info("Domain [{}]: Backtest finished: {}", domainName, report);
+        return report;
+    }
+
+    private void submit(ExecutorService workers, Semaphore slots, Batch batch, RuleNetwork live, RuleNetwork candidate,
+                        Set<String> flaggedDecisions, Tally total) throws InterruptedException {
+        if (batch.size() == 0) {
+            return;
+        }
+        slots.acquire();
+        workers.execute(() -> {
+            try {
+                Tally partial = replay(batch, live, candidate, flaggedDecisions);
+                synchronized (total) {
+                    total.merge(partial);
+                }
+            } catch (InterruptedException | RuntimeException e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                logger.warn("Domain [{}]: Backtest batch of {} records failed.", domainName, batch.size(), e);
+                synchronized (total) {
+                    total.failed += batch.size();
+                }
+            } finally {
+                slots.release();
+            }
+        });
+    }
+
+    private Tally replay(Batch rows, RuleNetwork live, RuleNetwork candidate, Set<String> flaggedDecisions)
+            throws InterruptedException {
+        Tally partial = new Tally(null, null);
+        Batch batch = scoreMissing(rows, partial);
+        if (batch.size() == 0) {
+            return partial;
+        }
+        List<TransactionRuleContext> contexts;
+        byte[] labels = batch.labels;
+        try {
+            contexts = sdk.buildRuleContexts(domainName, batch.inputs, batch.scores);
+        } catch (RuntimeException e) {
+            // One malformed row (e.g. without a client context) fails the columnar pass; retry row by row so only it is lost.
+            logger.debug("Domain [{}]: Backtest batch of {} could not be preprocessed as columns; replaying it row by row.",
+                    domainName, batch.size(), e);
+            contexts = new ArrayList<>(batch.size());
+            labels = new byte[batch.size()];
+            for (int i = 0; i < batch.size(); i++) {
+                try {
+                    contexts.add(sdk.buildRuleContexts(domainName, batch.inputs.subList(i, i + 1), new double[]{batch.scores[i]}).get(0));
+                    labels[contexts.size() - 1] = batch.labels[i];
+                } catch (RuntimeException rowError) {
+                    partial.failed++;
+                }
+            }
+            if (contexts.isEmpty()) {
+                return partial;
+            }
+        }
+        List<FinalRuleOutput> liveOutputs = live.executeBatch(contexts);
+        List<FinalRuleOutput> candidateOutputs = candidate.executeBatch(contexts);
+
+        for (int i = 0; i < contexts.size(); i++) {
+            FinalRuleOutput liveOutput = liveOutputs.get(i);
+            FinalRuleOutput candidateOutput = candidateOutputs.get(i);
+            String liveDecision = String.valueOf(liveOutput.getDecision());
+            String candidateDecision = String.valueOf(candidateOutput.getDecision());
+            partial.replayed++;
+            partial.liveDecisions.merge(liveDecision, 1L, Long::sum);
+            partial.candidateDecisions.merge(candidateDecision, 1L, Long::sum);
+            if (!liveDecision.equals(candidateDecision)) {
+                partial.decisionChanges.merge(liveDecision + " -> " + candidateDecision, 1L, Long::sum);
+            }
+            liveOutput.getTriggeredRuleIds().forEach(ruleId -> partial.liveRuleHits.merge(ruleId, 1L, Long::sum));
+            candidateOutput.getTriggeredRuleIds().forEach(ruleId -> partial.candidateRuleHits.merge(ruleId, 1L, Long::sum));
+            if (labels[i] >= 0) {
+                boolean fraud = labels[i] == 1;
+                partial.live.add(flaggedDecisions.contains(liveDecision.toUpperCase(Locale.ROOT)), fraud);
+                partial.candidate.add(flaggedDecisions.contains(candidateDecision.toUpperCase(Locale.ROOT)), fraud);
+            }
+        }
+        return partial;
+    }
+
+    /**
+     * Scores the rows of {@code batch} that have no stored score.
+     * @return The rows that have a score; rows the scorer could not score are counted as unscored.
+     */
+    private Batch scoreMissing(Batch batch, Tally partial) throws InterruptedException {
+        List<DomainInput> missing = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            if (Double.isNaN(batch.scores[i])) {
+                missing.add(batch.inputs.get(i));
+            }
+        }
+        if (missing.isEmpty()) {
+            return batch;
+        }
+        double[] computed = sdk.computeMlScores(domainName, missing);
+        Batch scored = new Batch(batch.size());
+        for (int i = 0, m = 0; i < batch.size(); i++) {
+            double score = batch.scores[i];
+            if (Double.isNaN(score)) {
+                score = computed[m++];
+                if (Double.isNaN(score)) {
+                    partial.unscored++;
+                    continue;
+                }
+                partial.scored++;
+            }
+            scored.add(batch.inputs.get(i), score, batch.labels[i]);
+        }
+        if (partial.unscored > 0 && scoringFailureLogged.compareAndSet(false, true)) {
+            logger.warn("Domain [{}]: {} of {} rows without a stored score could not be scored and are not replayed. "
+                    + "Further failures are only counted.", domainName, partial.unscored, missing.size());
+        }
+        return scored;
+    }
+
+    /** @return the score, or {@code NaN} if the column is missing or not a number */
+    private static double parseScore(String value) {
+        if (value == null || value.isBlank()) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /** @return 1 for fraud, 0 for legitimate, -1 when the row is unlabelled */
+    private static byte parseLabel(String value) {
+        if (value == null) {
+            return -1;
+        }
+        switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "1": case "1.0": case "true": case "yes": case "fraud":
+                return 1;
+            case "0": case "0.0": case "false": case "no": case "legit":
+                return 0;
+            default:
+                return -1;
+        }
+    }
+
+    private static final class Batch {
+        final List<DomainInput> inputs;
+        final double[] scores;
+        final byte[] labels;
+
+        Batch(int capacity) {
+            this.inputs = new ArrayList<>(capacity);
+            this.scores = new double[capacity];
+            this.labels = new byte[capacity];
+        }
+
+        void add(DomainInput input, double score, byte label) {
+            scores[inputs.size()] = score;
+            labels[inputs.size()] = label;
+            inputs.add(input);
+        }
+
+        int size() {
+            return inputs.size();
+        }
+    }
+
+    /** Counters for some or all replayed rows; partial tallies are merged into the run's total. */
+    private static final class Tally {
+        long replayed;
+        long failed;
+        long scored;
+        long unscored;
+        final Map<String, Long> liveDecisions = new HashMap<>();
+        final Map<String, Long> candidateDecisions = new HashMap<>();
+        final Map<String, Long> decisionChanges = new HashMap<>();
+        final Map<String, Long> liveRuleHits = new LinkedHashMap<>();
+        final Map<String, Long> candidateRuleHits = new LinkedHashMap<>();
+        final ConfusionCounts live = new ConfusionCounts();
+        final ConfusionCounts candidate = new ConfusionCounts();
+
+        /** Rule IDs are listed up front, in priority order, so rules that never fire still show up. */
+        Tally(List<String> liveRuleIds, List<String> candidateRuleIds) {
+            if (liveRuleIds != null) liveRuleIds.forEach(ruleId -> liveRuleHits.put(ruleId, 0L));
+            if (candidateRuleIds != null) candidateRuleIds.forEach(ruleId -> candidateRuleHits.put(ruleId, 0L));
+        }
+
+        void merge(Tally other) {
+            replayed += other.replayed;
+            failed += other.failed;
+            scored += other.scored;
+            unscored += other.unscored;
+            other.liveDecisions.forEach((k, v) -> liveDecisions.merge(k, v, Long::sum));
+            other.candidateDecisions.forEach((k, v) -> candidateDecisions.merge(k, v, Long::sum));
+            other.decisionChanges.forEach((k, v) -> decisionChanges.merge(k, v, Long::sum));
+            other.liveRuleHits.forEach((k, v) -> liveRuleHits.merge(k, v, Long::sum));
+            other.candidateRuleHits.forEach((k, v) -> candidateRuleHits.merge(k, v, Long::sum));
+            live.merge(other.live);
+            candidate.merge(other.candidate);
+        }
+    }
+
+    private static final class ConfusionCounts {
+        long truePositives;
+        long falsePositives;
+        long falseNegatives;
+        long trueNegatives;
+
+        void add(boolean flagged, boolean fraud) {
+            if (flagged && fraud) truePositives++;
+            else if (flagged) falsePositives++;
+            else if (fraud) falseNegatives++;
+            else trueNegatives++;
+        }
+
+        void merge(ConfusionCounts other) {
+            truePositives += other.truePositives;
+            falsePositives += other.falsePositives;
+            falseNegatives += other.falseNegatives;
+            trueNegatives += other.trueNegatives;
+        }
+
+        BacktestReport.Confusion toConfusion() {
+            return new BacktestReport.Confusion(truePositives, falsePositives, falseNegatives, trueNegatives);
+        }
+    }
+}
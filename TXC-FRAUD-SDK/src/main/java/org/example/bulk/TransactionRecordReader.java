@@ -0,0 +1,168 @@
+package org.example.bulk;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.example.definition.DomainInput;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streams transactions from an NDJSON or CSV file, one record at a time, through a large
+ * read buffer. Deserialisation goes through a single {@link ObjectReader} bound to the
+ * domain's input class, so no per-record type resolution or mapper setup takes place.
+ * A malformed line yields a failed {@link InputRecord} instead of aborting the file.
+ */
+public class TransactionRecordReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final BufferedReader reader;
+    private final RecordFormat format;
+    private final ObjectReader inputReader;
+    private final Set<String> extraFields;
+    private final CsvColumnMapper columnMapper;
+    private long lineNumber = 0;
+
+    /**
+     * @param extraFields NDJSON fields to copy into {@link InputRecord#getExtras()} (e.g. labels).
+     *                    For CSV every column outside the input class is copied automatically.
+     */
+    public TransactionRecordReader(Path path, RecordFormat format, ObjectMapper mapper,
+                                   Class<?> inputClass, Collection<String> extraFields) throws IOException {
+        if (!DomainInput.class.isAssignableFrom(inputClass)) {
+            throw new IllegalArgumentException(inputClass.getName() + " is not a DomainInput type.");
+        }
+        this.reader = new BufferedReader(new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.format = format;
+        this.inputReader = mapper.readerFor(inputClass).without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.extraFields = (extraFields != null) ? new LinkedHashSet<>(extraFields) : Collections.emptySet();
+
+        if (format == RecordFormat.CSV) {
+            String headerLine = readLogicalLine();
+            if (headerLine == null) {
+                throw new IOException("CSV file " + path + " is empty; a header row is required.");
+            }
+            if (!headerLine.isEmpty() && headerLine.charAt(0) == '\uFEFF') {
+                headerLine = headerLine.substring(1);
+            }
+            List<String> headers = splitCsv(headerLine);
+            this.columnMapper = new CsvColumnMapper(mapper, inputClass, headers.toArray(new String[0]));
+        } else {
+            this.columnMapper = null;
+        }
+    }
+
+    /** Columns of a CSV file that feed the input object; empty for NDJSON. */
+    public List<String> getMappedColumns() {
+        return (columnMapper != null) ? columnMapper.getMappedColumns() : Collections.emptyList();
+    }
+
+    /** @return the next record, or {@code null} at end of file. Blank lines are skipped. */
+    public InputRecord next() throws IOException {
+        String line;
+        do {
+            line = readLogicalLine();
+            if (line == null) return null;
+        } while (line.trim().isEmpty());
+
+        long recordLine = lineNumber;
+        try {
+            if (format == RecordFormat.CSV) {
+                Map<String, String> extras = new LinkedHashMap<>();
+                ObjectNode tree = columnMapper.toTree(splitCsv(line).toArray(new String[0]), extras);
+                return InputRecord.parsed(recordLine, inputReader.readValue(tree), extras);
+            }
+            if (extraFields.isEmpty()) {
+                return InputRecord.parsed(recordLine, inputReader.readValue(line), null);
+            }
+            JsonNode tree = inputReader.readTree(line);
+            Map<String, String> extras = new LinkedHashMap<>();
+            for (String field : extraFields) {
+                JsonNode value = tree.get(field);
+                if (value != null && !value.isNull()) {
+                    extras.put(field, value.isValueNode() ? value.asText() : value.toString());
+                }
+            }
+            return InputRecord.parsed(recordLine, inputReader.readValue(tree), extras);
+        } catch (IOException | RuntimeException e) {
+            // Some parser failures (e.g. an NPE in a mapper) carry no message.
+            return InputRecord.failed(recordLine, (e.getMessage() != null) ? e.getMessage() : String.valueOf(e));
+        }
+    }
+
+    // For CSV a quoted cell may contain line breaks, so keep reading until the quotes balance.
+    private String readLogicalLine() throws IOException {
+        String line = reader.readLine();
+        if (line == null) return null;
+        lineNumber++;
+        if (format != RecordFormat.CSV || !hasOpenQuote(line)) return line;
+
+        StringBuilder sb = new StringBuilder(line);
+        String continuation;
+        while (hasOpenQuote(sb) && (continuation = reader.readLine()) != null) {
+            lineNumber++;
+            sb.append('\n').append(continuation);
+        }
+        return sb.toString();
+    }
+
+    private static boolean hasOpenQuote(CharSequence text) {
+        boolean open = false;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') open = !open;
+        }
+        return open;
+    }
+
+    /** RFC 4180 splitting: commas inside quotes are data and {@code ""} is an escaped quote. */
+    public static List<String> splitCsv(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        cell.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString().trim());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString().trim());
+        return cells;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
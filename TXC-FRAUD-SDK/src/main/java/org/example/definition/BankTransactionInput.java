@@ -9,6 +9,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
  */
 public class BankTransactionInput implements DomainInput {
     // --- Core Transaction Details ---
+    private String transactionId; // optional, stable across client retries
     private String userId;
     private double transactionAmount;
     private String transactionType;
@@ -21,16 +22,18 @@ public class BankTransactionInput implements DomainInput {
     private ClientContext clientContext;
 
     // --- Getters & Setters ---
+    public String getTransactionId() { return transactionId; }
+    public void setTransactionId(String transactionId) { this.transactionId = transactionId; }
     public String getUserId() { return userId; }
     public void setUserId(String userId) { this.userId = userId; }
     public double getTransactionAmount() { return transactionAmount; }
     public void setTransactionAmount(double transactionAmount) { this.transactionAmount = transactionAmount; }
     public String getTransactionType() { return transactionType; }
-    public void setTransactionType(String transactionType) { this.transactionType = transactionType; }
+    public void setTransactionType(String transactionType) { this.transactionType = CategoricalValues.intern(transactionType); }
     public String getTimestamp() { return timestamp; }
     public void setTimestamp(String timestamp) { this.timestamp = timestamp; }
     public String getCurrency() { return currency; } // Getter for new field
-    public void setCurrency(String currency) { this.currency = currency; } // Setter for new field
+    public void setCurrency(String currency) { this.currency = CategoricalValues.intern(currency); } // Setter for new field
     public ClientContext getClientContext() { return clientContext; }
     public void setClientContext(ClientContext clientContext) { this.clientContext = clientContext; }
 
@@ -50,14 +53,15 @@ public class BankTransactionInput implements DomainInput {
         @JsonProperty("is_night")
         private boolean isNight;
 
+        // Boxed so an omitted value can be told apart from zero and filled by the SDK.
         @JsonProperty("velocity_txn_count_1h")
-        private int velocityTxnCount1h;
+        private Integer velocityTxnCount1h;
 
         @JsonProperty("avg_txn_amt_for_user")
-        private double avgTxnAmtForUser;
+        private Double avgTxnAmtForUser;
 
         @JsonProperty("time_since_last_txn_seconds")
-        private long timeSinceLastTxnSeconds;
+        private Long timeSinceLastTxnSeconds;
 
         // --- ADDED TO MATCH UI ---
         @JsonProperty("account_age_days")
@@ -82,12 +86,15 @@ public class BankTransactionInput implements DomainInput {
         public void setForeignLocation(boolean foreignLocation) { this.isForeignLocation = foreignLocation; }
         public boolean isNight() { return isNight; }
         public void setNight(boolean night) { this.isNight = night; }
-        public int getVelocityTxnCount1h() { return velocityTxnCount1h; }
-        public void setVelocityTxnCount1h(int velocityTxnCount1h) { this.velocityTxnCount1h = velocityTxnCount1h; }
-        public double getAvgTxnAmtForUser() { return avgTxnAmtForUser; }
-        public void setAvgTxnAmtForUser(double avgTxnAmtForUser) { this.avgTxnAmtForUser = avgTxnAmtForUser; }
-        public long getTimeSinceLastTxnSeconds() { return timeSinceLastTxnSeconds; }
-        public void setTimeSinceLastTxnSeconds(long timeSinceLastTxnSeconds) { this.timeSinceLastTxnSeconds = timeSinceLastTxnSeconds; }
+        public int getVelocityTxnCount1h() { return velocityTxnCount1h != null ? velocityTxnCount1h : 0; }
+        public void setVelocityTxnCount1h(Integer velocityTxnCount1h) { this.velocityTxnCount1h = velocityTxnCount1h; }
+        public boolean hasVelocityTxnCount1h() { return velocityTxnCount1h != null; }
+        public double getAvgTxnAmtForUser() { return avgTxnAmtForUser != null ? avgTxnAmtForUser : 0.0; }
+        public void setAvgTxnAmtForUser(Double avgTxnAmtForUser) { this.avgTxnAmtForUser = avgTxnAmtForUser; }
+        public boolean hasAvgTxnAmtForUser() { return avgTxnAmtForUser != null; }
+        public long getTimeSinceLastTxnSeconds() { return timeSinceLastTxnSeconds != null ? timeSinceLastTxnSeconds : 0L; }
+        public void setTimeSinceLastTxnSeconds(Long timeSinceLastTxnSeconds) { this.timeSinceLastTxnSeconds = timeSinceLastTxnSeconds; }
+        public boolean hasTimeSinceLastTxnSeconds() { return timeSinceLastTxnSeconds != null; }
         public int getAccountAgeDays() { return accountAgeDays; } // Getter for new field
         public void setAccountAgeDays(int accountAgeDays) { this.accountAgeDays = accountAgeDays; } // Setter for new field
         public boolean isNewBeneficiary() { return isNewBeneficiary; } // Getter for new field
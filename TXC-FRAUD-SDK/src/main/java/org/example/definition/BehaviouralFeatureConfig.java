@@ -0,0 +1,43 @@
+package org.example.definition;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Per-domain settings for the in-SDK behavioural feature engine, which derives
+ * {@code velocity_txn_count_1h}, {@code avg_txn_amt_for_user} and
+ * {@code time_since_last_txn_seconds} from the transactions it has seen, for clients
+ * that do not send them.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BehaviouralFeatureConfig {
+    private boolean enabled = false;
+    private int maxUsers = 1_000_000;           // LRU bound across all shards
+    private long userTtlSeconds = 30L * 24 * 3600; // a user idle longer than this starts from scratch
+    private long velocityWindowSeconds = 3600;
+    private int shards = 64;
+    private boolean useEventTime = true;        // use the transaction's timestamp when it has one, else the wall clock
+    // time_since_last_txn_seconds for a user's first transaction (or first after the TTL), as the domain's
+    // training DAG fills it: null means the domain default, 0 for bank and mobile_money, -1 for ecommerce
+    private Long firstTransactionSecondsSinceLast;
+
+    public BehaviouralFeatureConfig() {
+    }
+
+    // Getters
+    public boolean isEnabled() { return enabled; }
+    public int getMaxUsers() { return maxUsers; }
+    public long getUserTtlSeconds() { return userTtlSeconds; }
+    public long getVelocityWindowSeconds() { return velocityWindowSeconds; }
+    public int getShards() { return shards; }
+    public boolean isUseEventTime() { return useEventTime; }
+    public Long getFirstTransactionSecondsSinceLast() { return firstTransactionSecondsSinceLast; }
+
+    // Setters
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public void setMaxUsers(int maxUsers) { this.maxUsers = maxUsers; }
+    public void setUserTtlSeconds(long userTtlSeconds) { this.userTtlSeconds = userTtlSeconds; }
+    public void setVelocityWindowSeconds(long velocityWindowSeconds) { this.velocityWindowSeconds = velocityWindowSeconds; }
+    public void setShards(int shards) { this.shards = shards; }
+    public void setUseEventTime(boolean useEventTime) { this.useEventTime = useEventTime; }
+    public void setFirstTransactionSecondsSinceLast(Long firstTransactionSecondsSinceLast) { this.firstTransactionSecondsSinceLast = firstTransactionSecondsSinceLast; }
+}
@@ -0,0 +1,26 @@
+package org.example.definition;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary of canonical instances for low-cardinality string fields (currencies, countries,
+ * transaction types...). Input setters run values through {@link #intern} as Jackson
+ * deserializes them, so the thousands of transactions held in pipelines and batch windows
+ * share one {@code String} per value, and cache lookups keyed by these values compare by
+ * reference. The dictionary stops growing at {@code MAX_VALUES}; later values pass through as-is.
+ */
+public final class CategoricalValues {
+    private static final int MAX_VALUES = 65_536;
+    private static final ConcurrentHashMap<String, String> DICTIONARY = new ConcurrentHashMap<>();
+
+    private CategoricalValues() {}
+
+    public static String intern(String value) {
+        if (value == null) return null;
+        String canonical = DICTIONARY.get(value);
+        if (canonical != null) return canonical;
+        if (DICTIONARY.size() >= MAX_VALUES) return value;
+        canonical = DICTIONARY.putIfAbsent(value, value);
+        return (canonical != null) ? canonical : value;
+    }
+}
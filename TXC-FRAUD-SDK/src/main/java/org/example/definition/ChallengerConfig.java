@@ -0,0 +1,38 @@
+package org.example.definition;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Per-domain champion/challenger scoring. When enabled, a second vectorizer version is loaded
+ * from the same registered model by stage/alias, and a sample of the transactions scored by
+ * the champion is scored again with it in the background, through the domain's live rules, to
+ * measure how far its scores and decisions would move. Responses always come from the champion.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ChallengerConfig {
+    private boolean enabled = false;
+    private String modelAlias;                // stage or alias of the challenger version, e.g. "challenger"
+    private String scorerApiEndpointPath;     // challenger scorer behind the gateway; null reuses the champion's
+    private double sampleRate = 0.05;         // share of scored transactions also sent to the challenger
+    private int threads = 2;
+    private int queueCapacity = 1_000;        // pending challenger scorings before new ones are dropped
+
+    public ChallengerConfig() {
+    }
+
+    // Getters
+    public boolean isEnabled() { return enabled; }
+    public String getModelAlias() { return modelAlias; }
+    public String getScorerApiEndpointPath() { return scorerApiEndpointPath; }
+    public double getSampleRate() { return sampleRate; }
+    public int getThreads() { return threads; }
+    public int getQueueCapacity() { return queueCapacity; }
+
+    // Setters
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public void setModelAlias(String modelAlias) { this.modelAlias = modelAlias; }
+    public void setScorerApiEndpointPath(String scorerApiEndpointPath) { this.scorerApiEndpointPath = scorerApiEndpointPath; }
+    public void setSampleRate(double sampleRate) { this.sampleRate = sampleRate; }
+    public void setThreads(int threads) { this.threads = threads; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+}
@@ -0,0 +1,31 @@
+package org.example.definition;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Per-domain idempotency cache. When enabled, a transaction that carries a
+ * {@code transactionId} already decided within {@code ttlSeconds} gets the stored decision
+ * back instead of being scored again, and concurrent calls for the same ID share one scoring.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class DecisionCacheConfig {
+    private boolean enabled = false;
+    private int maxEntries = 100_000;  // across all segments
+    private long ttlSeconds = 900;     // should cover the gateway's full retry schedule
+    private int segments = 16;
+
+    public DecisionCacheConfig() {
+    }
+
+    // Getters
+    public boolean isEnabled() { return enabled; }
+    public int getMaxEntries() { return maxEntries; }
+    public long getTtlSeconds() { return ttlSeconds; }
+    public int getSegments() { return segments; }
+
+    // Setters
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public void setMaxEntries(int maxEntries) { this.maxEntries = maxEntries; }
+    public void setTtlSeconds(long ttlSeconds) { this.ttlSeconds = ttlSeconds; }
+    public void setSegments(int segments) { this.segments = segments; }
+}
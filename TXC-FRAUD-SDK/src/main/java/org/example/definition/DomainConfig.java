@@ -10,6 +10,25 @@ public class DomainConfig {
     private String onnxFileSubPathWithinModelDir;
     private String scorerApiEndpointPath;
 
+    // --- Bulkhead sizing (0 means "use the SDK default") ---
+    private int cpuThreads;
+    private int cpuQueueCapacity;
+    private int ioThreads;
+    private int ioQueueCapacity;
+    private int maxInFlight;
+    private long admissionTimeoutMillis;
+    private int onnxIntraOpThreads;
+    // Shared, pre-built ONNX tensors per categorical input (0 disables); values beyond this get a tensor per call
+    private int categoricalTensorCacheSize = 256;
+
+    private BehaviouralFeatureConfig behaviouralFeatures = new BehaviouralFeatureConfig();
+    private GraphFeatureConfig graphFeatures = new GraphFeatureConfig();
+    private DuplicateDetectionConfig duplicateDetection = new DuplicateDetectionConfig();
+    private DecisionCacheConfig decisionCache = new DecisionCacheConfig();
+    private RuleEngineConfig ruleEngine = new RuleEngineConfig();
+    private ShadowEvaluationConfig shadowEvaluation = new ShadowEvaluationConfig();
+    private ChallengerConfig challenger = new ChallengerConfig();
+
     public DomainConfig() {
     }
 
@@ -19,6 +38,21 @@ public class DomainConfig {
     public String getModelStage() { return modelStage; }
     public String getOnnxFileSubPathWithinModelDir() { return onnxFileSubPathWithinModelDir; }
     public String getScorerApiEndpointPath() { return scorerApiEndpointPath; }
+    public int getCpuThreads() { return cpuThreads; }
+    public int getCpuQueueCapacity() { return cpuQueueCapacity; }
+    public int getIoThreads() { return ioThreads; }
+    public int getIoQueueCapacity() { return ioQueueCapacity; }
+    public int getMaxInFlight() { return maxInFlight; }
+    public long getAdmissionTimeoutMillis() { return admissionTimeoutMillis; }
+    public int getOnnxIntraOpThreads() { return onnxIntraOpThreads; }
+    public int getCategoricalTensorCacheSize() { return categoricalTensorCacheSize; }
+    public BehaviouralFeatureConfig getBehaviouralFeatures() { return behaviouralFeatures; }
+    public GraphFeatureConfig getGraphFeatures() { return graphFeatures; }
+    public DuplicateDetectionConfig getDuplicateDetection() { return duplicateDetection; }
+    public DecisionCacheConfig getDecisionCache() { return decisionCache; }
+    public RuleEngineConfig getRuleEngine() { return ruleEngine; }
+    public ShadowEvaluationConfig getShadowEvaluation() { return shadowEvaluation; }
+    public ChallengerConfig getChallenger() { return challenger; }
 
     // Setters
     public void setDomainName(String domainName) { this.domainName = domainName; }
@@ -26,4 +60,19 @@ public class DomainConfig {
     public void setModelStage(String modelStage) { this.modelStage = modelStage; }
     public void setOnnxFileSubPathWithinModelDir(String onnxFileSubPathWithinModelDir) { this.onnxFileSubPathWithinModelDir = onnxFileSubPathWithinModelDir; }
     public void setScorerApiEndpointPath(String scorerApiEndpointPath) { this.scorerApiEndpointPath = scorerApiEndpointPath; }
+    public void setCpuThreads(int cpuThreads) { this.cpuThreads = cpuThreads; }
+    public void setCpuQueueCapacity(int cpuQueueCapacity) { this.cpuQueueCapacity = cpuQueueCapacity; }
+    public void setIoThreads(int ioThreads) { this.ioThreads = ioThreads; }
+    public void setIoQueueCapacity(int ioQueueCapacity) { this.ioQueueCapacity = ioQueueCapacity; }
+    public void setMaxInFlight(int maxInFlight) { this.maxInFlight = maxInFlight; }
+    public void setAdmissionTimeoutMillis(long admissionTimeoutMillis) { this.admissionTimeoutMillis = admissionTimeoutMillis; }
+    public void setOnnxIntraOpThreads(int onnxIntraOpThreads) { this.onnxIntraOpThreads = onnxIntraOpThreads; }
+    public void setCategoricalTensorCacheSize(int categoricalTensorCacheSize) { this.categoricalTensorCacheSize = categoricalTensorCacheSize; }
+    public void setBehaviouralFeatures(BehaviouralFeatureConfig behaviouralFeatures) { this.behaviouralFeatures = behaviouralFeatures; }
+    public void setGraphFeatures(GraphFeatureConfig graphFeatures) { this.graphFeatures = graphFeatures; }
+    public void setDuplicateDetection(DuplicateDetectionConfig duplicateDetection) { this.duplicateDetection = duplicateDetection; }
+    public void setDecisionCache(DecisionCacheConfig decisionCache) { this.decisionCache = decisionCache; }
+    public void setRuleEngine(RuleEngineConfig ruleEngine) { this.ruleEngine = ruleEngine; }
+    public void setShadowEvaluation(ShadowEvaluationConfig shadowEvaluation) { this.shadowEvaluation = shadowEvaluation; }
+    public void setChallenger(ChallengerConfig challenger) { this.challenger = challenger; }
 }
\ No newline at end of file
@@ -1,7 +1,21 @@
 package org.example.definition;
 /**
- * A marker interface for all domain-specific transaction input classes.
+ * The common contract for all domain-specific transaction input classes.
  * This allows the SDK to handle different input types generically.
  */
 public interface DomainInput {
+    /**
+     * The monetary amount of the transaction. Used by the SDK itself (e.g. to prioritise
+     * high-value transactions under load), independently of any domain's feature engineering.
+     */
+    double getTransactionAmount();
+
+    /** The customer the transaction belongs to. Used as the ordering key when the SDK pipelines work. */
+    String getUserId();
+
+    /**
+     * The client's own identifier for this transaction, stable across retries. Optional: when
+     * present it is the idempotency key for the decision cache; {@code null} when not supplied.
+     */
+    String getTransactionId();
 }
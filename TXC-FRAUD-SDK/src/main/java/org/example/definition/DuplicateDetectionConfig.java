@@ -0,0 +1,46 @@
+package org.example.definition;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Per-domain duplicate / replay detection. A transaction is a duplicate when the same user
+ * sent the same amount to the same counterparty within {@code windowSeconds}; it is an exact
+ * replay when the timestamp matches too. With {@code shortCircuitDecision} unset, duplicates
+ * are only flagged as features; when set, they get that decision without being scored, except
+ * for transactions with a {@code transactionId} in a domain whose decision cache is enabled:
+ * their retries are the cache's to answer.
+ * <p>
+ * Memory is allocated up front: about {@code 16 * maxFingerprints * (buckets + 1)} bytes,
+ * up to twice that when the per-stripe tables round up to a power of two. The defaults take
+ * 28 MiB and remember up to 131,072 transactions (two fingerprints each) per bucket; raise
+ * {@code maxFingerprints} for sustained rates above roughly {@code 131,072 * buckets / windowSeconds}
+ * transactions per second, or fingerprints are dropped ({@code DuplicateDetector.getDroppedFingerprints}).
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class DuplicateDetectionConfig {
+    private boolean enabled = false;
+    private long windowSeconds = 300;
+    private int buckets = 6;                  // the window is covered by this many rotating buckets
+    private int maxFingerprints = 262_144;    // per bucket generation, across all stripes
+    private String shortCircuitDecision;      // e.g. "REVIEW"; null = flag only
+    private boolean shortCircuitExactReplaysOnly = true;
+
+    public DuplicateDetectionConfig() {
+    }
+
+    // Getters
+    public boolean isEnabled() { return enabled; }
+    public long getWindowSeconds() { return windowSeconds; }
+    public int getBuckets() { return buckets; }
+    public int getMaxFingerprints() { return maxFingerprints; }
+    public String getShortCircuitDecision() { return shortCircuitDecision; }
+    public boolean isShortCircuitExactReplaysOnly() { return shortCircuitExactReplaysOnly; }
+
+    // Setters
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public void setWindowSeconds(long windowSeconds) { this.windowSeconds = windowSeconds; }
+    public void setBuckets(int buckets) { this.buckets = buckets; }
+    public void setMaxFingerprints(int maxFingerprints) { this.maxFingerprints = maxFingerprints; }
+    public void setShortCircuitDecision(String shortCircuitDecision) { this.shortCircuitDecision = shortCircuitDecision; }
+    public void setShortCircuitExactReplaysOnly(boolean shortCircuitExactReplaysOnly) { this.shortCircuitExactReplaysOnly = shortCircuitExactReplaysOnly; }
+}
@@ -7,6 +7,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class ECommerceTransactionInput implements DomainInput {
     // Transaction details
+    private String transactionId; // optional, stable across client retries
     private double transactionAmount;
     private String currency;
     private int itemCount;
@@ -30,31 +31,36 @@ public class ECommerceTransactionInput implements DomainInput {
     // --- Nested static class for client-provided context ---
     @JsonIgnoreProperties(ignoreUnknown = true)
     public static class ClientContext {
-        private double timeSinceLastTxnSeconds;
-        private double avgTxnAmtForUser;
+        // Boxed so an omitted value can be told apart from zero and filled by the SDK.
+        private Double timeSinceLastTxnSeconds;
+        private Double avgTxnAmtForUser;
 
         // Getters and Setters for context fields
-        public double getTimeSinceLastTxnSeconds() { return timeSinceLastTxnSeconds; }
-        public void setTimeSinceLastTxnSeconds(double timeSinceLastTxnSeconds) { this.timeSinceLastTxnSeconds = timeSinceLastTxnSeconds; }
-        public double getAvgTxnAmtForUser() { return avgTxnAmtForUser; }
-        public void setAvgTxnAmtForUser(double avgTxnAmtForUser) { this.avgTxnAmtForUser = avgTxnAmtForUser; }
+        public double getTimeSinceLastTxnSeconds() { return timeSinceLastTxnSeconds != null ? timeSinceLastTxnSeconds : 0.0; }
+        public void setTimeSinceLastTxnSeconds(Double timeSinceLastTxnSeconds) { this.timeSinceLastTxnSeconds = timeSinceLastTxnSeconds; }
+        public boolean hasTimeSinceLastTxnSeconds() { return timeSinceLastTxnSeconds != null; }
+        public double getAvgTxnAmtForUser() { return avgTxnAmtForUser != null ? avgTxnAmtForUser : 0.0; }
+        public void setAvgTxnAmtForUser(Double avgTxnAmtForUser) { this.avgTxnAmtForUser = avgTxnAmtForUser; }
+        public boolean hasAvgTxnAmtForUser() { return avgTxnAmtForUser != null; }
     }
 
     // Getters and Setters for all top-level fields...
+    public String getTransactionId() { return transactionId; }
+    public void setTransactionId(String transactionId) { this.transactionId = transactionId; }
     public double getTransactionAmount() { return transactionAmount; }
     public void setTransactionAmount(double transactionAmount) { this.transactionAmount = transactionAmount; }
     public String getCurrency() { return currency; }
-    public void setCurrency(String currency) { this.currency = currency; }
+    public void setCurrency(String currency) { this.currency = CategoricalValues.intern(currency); }
     public int getItemCount() { return itemCount; }
     public void setItemCount(int itemCount) { this.itemCount = itemCount; }
     public String getProductCategory() { return productCategory; }
-    public void setProductCategory(String productCategory) { this.productCategory = productCategory; }
+    public void setProductCategory(String productCategory) { this.productCategory = CategoricalValues.intern(productCategory); }
     public String getPaymentMethod() { return paymentMethod; }
-    public void setPaymentMethod(String paymentMethod) { this.paymentMethod = paymentMethod; }
+    public void setPaymentMethod(String paymentMethod) { this.paymentMethod = CategoricalValues.intern(paymentMethod); }
     public String getUserId() { return userId; }
     public void setUserId(String userId) { this.userId = userId; }
     public String getIpAddressCountry() { return ipAddressCountry; }
-    public void setIpAddressCountry(String ipAddressCountry) { this.ipAddressCountry = ipAddressCountry; }
+    public void setIpAddressCountry(String ipAddressCountry) { this.ipAddressCountry = CategoricalValues.intern(ipAddressCountry); }
     public boolean isGuestCheckout() { return isGuestCheckout; }
     public void setGuestCheckout(boolean guestCheckout) { this.isGuestCheckout = guestCheckout; }
     public int getAccountAgeInDays() { return accountAgeInDays; }
@@ -62,9 +68,9 @@ public class ECommerceTransactionInput implements DomainInput {
     public String getEmailDomain() { return emailDomain; }
     public void setEmailDomain(String emailDomain) { this.emailDomain = emailDomain; }
     public String getShippingCountry() { return shippingCountry; }
-    public void setShippingCountry(String shippingCountry) { this.shippingCountry = shippingCountry; }
+    public void setShippingCountry(String shippingCountry) { this.shippingCountry = CategoricalValues.intern(shippingCountry); }
     public String getBillingCountry() { return billingCountry; }
-    public void setBillingCountry(String billingCountry) { this.billingCountry = billingCountry; }
+    public void setBillingCountry(String billingCountry) { this.billingCountry = CategoricalValues.intern(billingCountry); }
 
     // --- GETTER/SETTER FOR THE NEW ClientContext OBJECT ---
     public ClientContext getClientContext() { return clientContext; }
@@ -0,0 +1,31 @@
+package org.example.definition;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * One entity attribute store. Rules read it as {@code entity.<name>.<attribute>}; the
+ * lookup key is taken from {@code keyField} on the transaction (any path rules accept,
+ * e.g. {@code userId} or {@code clientContext.country}).
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class EntityStoreConfig {
+    private String name;
+    private String snapshotPath;
+    private String keyField;
+    private long refreshIntervalSeconds = 60; // how often to check the snapshot file for a newer version; 0 = never
+
+    public EntityStoreConfig() {
+    }
+
+    // Getters
+    public String getName() { return name; }
+    public String getSnapshotPath() { return snapshotPath; }
+    public String getKeyField() { return keyField; }
+    public long getRefreshIntervalSeconds() { return refreshIntervalSeconds; }
+
+    // Setters
+    public void setName(String name) { this.name = name; }
+    public void setSnapshotPath(String snapshotPath) { this.snapshotPath = snapshotPath; }
+    public void setKeyField(String keyField) { this.keyField = keyField; }
+    public void setRefreshIntervalSeconds(long refreshIntervalSeconds) { this.refreshIntervalSeconds = refreshIntervalSeconds; }
+}
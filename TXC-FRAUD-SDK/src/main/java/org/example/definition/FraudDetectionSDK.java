@@ -3,9 +3,29 @@ package org.example.definition;
 import ai.onnxruntime.*;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.execution.BulkheadMetrics;
+import org.example.execution.BulkheadRejectedException;
+import org.example.execution.ChallengerScorer;
+import org.example.execution.DecisionCache;
+import org.example.execution.ShadowRuleEvaluator;
+import org.example.execution.DomainBulkhead;
+import org.example.execution.OverloadController;
+import org.example.execution.PipelineOptions;
+import org.example.execution.ScoringPipeline;
+import org.example.execution.ScoringProcessor;
+import org.example.execution.StagePipeline;
+import org.example.execution.StreamProcessorOptions;
+import org.example.execution.VirtualThreads;
+import org.example.entity.EntityStoreRegistry;
+import org.example.features.BehaviouralFeatureEngine;
+import org.example.features.DuplicateDetector;
+import org.example.features.FeatureBatch;
+import org.example.features.TransactionGraph;
 import org.example.handlers.DomainHandlerFactory;
 import org.example.handlers.IDomainHandler;
 import org.example.rules.FinalRuleOutput;
+import org.example.rules.RuleNetwork;
+import org.example.rules.RuleProfileSnapshot;
 import org.example.rules.TransactionRuleContext;
 import org.mlflow.api.proto.ModelRegistry;
 import org.mlflow.tracking.MlflowClient;
@@ -29,11 +49,20 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.file.Files;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
 
 public class FraudDetectionSDK {
     private static final Logger logger = LoggerFactory.getLogger(FraudDetectionSDK.class);
@@ -41,16 +70,30 @@ public class FraudDetectionSDK {
     private final SdkConfig sdkConfig;
     private final MlflowClient mlflowClient;
     private final OrtEnvironment sharedOrtEnv;
-    private final Map<String, IDomainHandler> domainHandlers = new HashMap<>();
-    private final HttpClient httpClient;
+    private final Map<String, IDomainHandler> domainHandlers = new ConcurrentHashMap<>();
+    private final Map<String, DomainBulkhead> domainBulkheads = new ConcurrentHashMap<>();
+    private final Map<String, BehaviouralFeatureEngine> behaviouralEngines = new ConcurrentHashMap<>();
+    private final Map<String, TransactionGraph> transactionGraphs = new ConcurrentHashMap<>();
+    private final Map<String, DuplicateDetector> duplicateDetectors = new ConcurrentHashMap<>();
+    private final Map<String, DecisionCache> decisionCaches = new ConcurrentHashMap<>();
+    private final Map<String, ShadowRuleEvaluator> shadowRuleEvaluators = new ConcurrentHashMap<>();
+    private final Map<String, ChallengerScorer> challengers = new ConcurrentHashMap<>();
     private final ObjectMapper jsonMapper;
+    private final OverloadController overloadController;
+    private final EntityStoreRegistry entityStores;
+    private final boolean virtualThreadMode;
 
     public FraudDetectionSDK(SdkConfig sdkConfig) throws Exception {
         this.sdkConfig = sdkConfig;
         this.mlflowClient = new MlflowClient(sdkConfig.getMlflowTrackingUri());
         this.sharedOrtEnv = OrtEnvironment.getEnvironment();
-        this.httpClient = HttpClient.newHttpClient();
         this.jsonMapper = new ObjectMapper();
+        this.overloadController = new OverloadController(sdkConfig.getOverloadPolicy());
+        this.entityStores = new EntityStoreRegistry(sdkConfig.getEntityStores(), sdkConfig.getNamedLists());
+        this.virtualThreadMode = "VIRTUAL_THREADS".equalsIgnoreCase(sdkConfig.getExecutionMode());
+        if (virtualThreadMode && !VirtualThreads.isSupported()) {
+            logger.warn("Execution mode VIRTUAL_THREADS requires Java 21+. Falling back to platform threads.");
+        }
 
         logger.info("FraudDetectionSDK initializing with MLflow URI: {}", sdkConfig.getMlflowTrackingUri());
         initializeDomains();
@@ -63,25 +106,116 @@ public class FraudDetectionSDK {
             return;
         }
 
+        if (virtualThreadMode && VirtualThreads.isSupported()) {
+            // Model lookups and S3 downloads are pure blocking I/O: fetch all domains concurrently.
+            ExecutorService initExecutor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+            try {
+                sdkConfig.getDomainConfigurations().forEach((domainName, domainConfig) ->
+                        initExecutor.execute(() -> initializeDomain(domainName, domainConfig)));
+            } finally {
+                initExecutor.shutdown();
+                initExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            }
+            return;
+        }
+
         for (Map.Entry<String, DomainConfig> entry : sdkConfig.getDomainConfigurations().entrySet()) {
-            String domainName = entry.getKey();
-            DomainConfig domainConfig = entry.getValue();
-            logger.info("Setting up domain: {}", domainName);
+            initializeDomain(entry.getKey(), entry.getValue());
+        }
+    }
 
-            try {
-                File modelFile = downloadOnnxModelForDomain(domainConfig);
-                IDomainHandler handler = DomainHandlerFactory.createHandler(domainName);
-                handler.initialize(domainConfig, sharedOrtEnv, modelFile);
+    private void initializeDomain(String domainName, DomainConfig domainConfig) {
+        logger.info("Setting up domain: {}", domainName);
+
+        try {
+            File modelFile = downloadOnnxModelForDomain(domainConfig);
+            IDomainHandler handler = DomainHandlerFactory.createHandler(domainName);
+            handler.initialize(domainConfig, sharedOrtEnv, modelFile);
 
-                // Get the rules for this domain from the SdkConfig object that was
-                // populated by the "phone home" call from the server.
-                List<RuleDefinition> rulesForDomain = sdkConfig.getRules().get(domainName);
-                handler.initializeRuleEngine(rulesForDomain); // Pass the list directly.
+            // Get the rules for this domain from the SdkConfig object that was
+            // populated by the "phone home" call from the server.
+            List<RuleDefinition> rulesForDomain = sdkConfig.getRules().get(domainName);
+            handler.initializeRuleEngine(rulesForDomain); // Pass the list directly.
 
-                domainHandlers.put(domainName, handler);
-                logger.info("Successfully initialized handler (ONNX & Rules) for domain: {}", domainName);
-            } catch (Exception e) {
-                logger.error("Failed to initialize handler for domain: {}. This domain will be unavailable.", domainName, e);
+            domainHandlers.put(domainName, handler);
+            domainBulkheads.put(domainName, new DomainBulkhead(domainConfig, virtualThreadMode));
+            if (domainConfig.getBehaviouralFeatures() != null && domainConfig.getBehaviouralFeatures().isEnabled()) {
+                behaviouralEngines.put(domainName, new BehaviouralFeatureEngine(domainName, domainConfig.getBehaviouralFeatures()));
+            }
+            if (domainConfig.getGraphFeatures() != null && domainConfig.getGraphFeatures().isEnabled()) {
+                transactionGraphs.put(domainName, new TransactionGraph(domainName, domainConfig.getGraphFeatures()));
+            }
+            if (domainConfig.getDuplicateDetection() != null && domainConfig.getDuplicateDetection().isEnabled()) {
+                duplicateDetectors.put(domainName, new DuplicateDetector(domainName, domainConfig.getDuplicateDetection()));
+            }
+            if (domainConfig.getDecisionCache() != null && domainConfig.getDecisionCache().isEnabled()) {
+                decisionCaches.put(domainName, new DecisionCache(domainConfig.getDecisionCache()));
+            }
+            List<RuleDefinition> shadowRulesForDomain = sdkConfig.getShadowRules() != null ? sdkConfig.getShadowRules().get(domainName) : null;
+            if (shadowRulesForDomain != null && !shadowRulesForDomain.isEmpty()) {
+                initializeShadowRules(domainName, domainConfig, handler, shadowRulesForDomain);
+            }
+            if (domainConfig.getChallenger() != null && domainConfig.getChallenger().isEnabled()) {
+                initializeChallenger(domainName, domainConfig, handler);
+            }
+            logger.info("Successfully initialized handler (ONNX & Rules) for domain: {}", domainName);
+        } catch (Exception e) {
+            logger.error("Failed to initialize handler for domain: {}. This domain will be unavailable.", domainName, e);
+        }
+    }
+
+    /**
+     * Compiles a domain's shadow rules with the live handler's semantics. Shadow rules that fail
+     * to compile are logged and left out; the domain keeps serving without shadow evaluation.
+     */
+    private void initializeShadowRules(String domainName, DomainConfig domainConfig, IDomainHandler handler,
+                                       List<RuleDefinition> shadowRules) {
+        try {
+            ShadowEvaluationConfig shadowConfig = (domainConfig.getShadowEvaluation() != null)
+                    ? domainConfig.getShadowEvaluation() : new ShadowEvaluationConfig();
+            shadowRuleEvaluators.put(domainName, new ShadowRuleEvaluator(domainName, handler.compileRules(shadowRules), shadowConfig));
+        } catch (RuntimeException e) {
+            logger.error("Domain [{}]: Failed to load {} shadow rules. Serving without shadow evaluation.",
+                    domainName, shadowRules.size(), e);
+        }
+    }
+
+    /**
+     * Loads the challenger version of a domain's vectorizer, resolved like the champion but by
+     * the challenger's stage/alias. A challenger that fails to load is logged and left out; the
+     * domain keeps serving with the champion.
+     */
+    private void initializeChallenger(String domainName, DomainConfig domainConfig, IDomainHandler championHandler) {
+        ChallengerConfig challengerConfig = domainConfig.getChallenger();
+        IDomainHandler challengerHandler = null;
+        try {
+            if (challengerConfig.getModelAlias() == null || challengerConfig.getModelAlias().isEmpty()) {
+                throw new IllegalArgumentException("challenger.modelAlias is required when the challenger is enabled.");
+            }
+            DomainConfig challengerDomainConfig = jsonMapper.convertValue(domainConfig, DomainConfig.class);
+            challengerDomainConfig.setModelStage(challengerConfig.getModelAlias());
+            if (challengerConfig.getScorerApiEndpointPath() != null && !challengerConfig.getScorerApiEndpointPath().isEmpty()) {
+                challengerDomainConfig.setScorerApiEndpointPath(challengerConfig.getScorerApiEndpointPath());
+            }
+            File challengerModelFile = downloadOnnxModelForDomain(challengerDomainConfig);
+            challengerHandler = DomainHandlerFactory.createHandler(domainName);
+            challengerHandler.initialize(challengerDomainConfig, sharedOrtEnv, challengerModelFile);
+
+            IDomainHandler challengerVectorizer = challengerHandler;
+            HttpClient httpClient = domainBulkheads.get(domainName).getHttpClient();
+            challengers.put(domainName, new ChallengerScorer(domainName, challengerConfig, challengerHandler,
+                    features -> parseMlScoreFromResponse(callScoringApi(httpClient, challengerDomainConfig,
+                            runVectorizer(challengerVectorizer, features, challengerDomainConfig))),
+                    championHandler::executeRulesUnprofiled));
+        } catch (Exception e) {
+            logger.error("Domain [{}]: Failed to load challenger model '{}'. Serving with the champion only.",
+                    domainName, challengerConfig.getModelAlias(), e);
+            if (challengerHandler != null) {
+                try {
+                    challengerHandler.close();
+                } catch (Exception closeError) {
+                    logger.warn("Domain [{}]: Error closing challenger handler.", domainName, closeError);
+                }
             }
         }
     }
@@ -200,6 +334,19 @@ public class FraudDetectionSDK {
     public FinalRuleOutput scoreAndEvaluateRules(String domainName,
                                                  DomainInput domainInput,
                                                  Map<String, Object> optionalClientSuppliedContext) throws Exception {
+        // Retries of a transaction the client already identified get the first decision back.
+        DecisionCache decisionCache = decisionCaches.get(domainName);
+        String transactionId = (domainInput != null) ? domainInput.getTransactionId() : null;
+        if (decisionCache != null && transactionId != null && !transactionId.isEmpty()) {
+            return decisionCache.getOrCompute(transactionId,
+                    () -> scoreWithoutCache(domainName, domainInput, optionalClientSuppliedContext));
+        }
+        return scoreWithoutCache(domainName, domainInput, optionalClientSuppliedContext);
+    }
+
+    private FinalRuleOutput scoreWithoutCache(String domainName,
+                                              DomainInput domainInput,
+                                              Map<String, Object> optionalClientSuppliedContext) throws Exception {
         IDomainHandler handler = domainHandlers.get(domainName);
         if (handler == null) {
             throw new IllegalArgumentException("No handler initialized for domain: " + domainName);
@@ -216,53 +363,469 @@ public class FraudDetectionSDK {
             ));
         }
 
-        VectorizationResult vecResult = vectorizeInternal(handler, domainInput, domainConfig);
+        // A replay that is short-circuited never reaches the per-user state, so it cannot inflate velocity.
+        DuplicateDetector duplicateDetector = duplicateDetectors.get(domainName);
+        DuplicateDetector.Verdict duplicateVerdict = (duplicateDetector != null) ? duplicateDetector.check(domainInput) : null;
+        if (isDuplicateShortCircuit(domainConfig, duplicateVerdict, decisionCaches.get(domainName), domainInput)) {
+            return duplicateOutput(domainConfig, duplicateVerdict);
+        }
+
+        // Recorded before any shedding, so the per-user state sees every transaction.
+        BehaviouralFeatureEngine behaviouralEngine = behaviouralEngines.get(domainName);
+        if (behaviouralEngine != null) {
+            behaviouralEngine.enrich(domainInput);
+        }
+        TransactionGraph graph = transactionGraphs.get(domainName);
+        Map<String, Object> stateFeatures = stateFeatures(
+                (graph != null) ? graph.record(domainInput) : Collections.emptyMap(), duplicateVerdict);
 
-        if (vecResult.vector.length == 0) {
-            logger.warn("Domain [{}]: Vectorization returned an empty vector. Cannot proceed with ML scoring.", domainName);
-            FinalRuleOutput errorOutput = new FinalRuleOutput();
-            errorOutput.setDecision("ERROR");
-            errorOutput.addReasonCode("VECTORIZATION_FAILED");
-            return errorOutput;
+        // Each stage runs inside this domain's bulkhead so a slow scorer or a traffic burst
+        // in one domain only ever consumes that domain's threads and in-flight slots.
+        DomainBulkhead bulkhead = domainBulkheads.get(domainName);
+        int priority = overloadController.priorityOf(domainName, domainInput);
+        OverloadController.Action action = overloadController.assess(priority, bulkhead);
+        if (action == OverloadController.Action.SHED) {
+            return shedOutput(bulkhead);
         }
+        try {
+            bulkhead.acquire();
+        } catch (BulkheadRejectedException e) {
+            if (overloadController.isProtected(priority)) throw e;
+            return shedOutput(bulkhead);
+        }
+        try {
+            if (action == OverloadController.Action.RULES_ONLY) {
+                Map<String, Object> features = bulkhead.onCpu(priority, () -> preprocess(handler, domainInput, domainConfig, stateFeatures));
+                return evaluateRulesOnly(bulkhead, handler, priority, domainInput, optionalClientSuppliedContext, features);
+            }
+
+            VectorizationResult vecResult = bulkhead.onCpu(priority, () -> vectorizeInternal(handler, domainInput, domainConfig, stateFeatures));
+
+            if (vecResult.vector.length == 0) {
+                logger.warn("Domain [{}]: Vectorization returned an empty vector. Cannot proceed with ML scoring.", domainName);
+                FinalRuleOutput errorOutput = new FinalRuleOutput();
+                errorOutput.setDecision("ERROR");
+                errorOutput.addReasonCode("VECTORIZATION_FAILED");
+                return errorOutput;
+            }
 
-        String scoreApiResponse = callScoringApi(domainConfig, vecResult.vector);
-        double mlScore = parseMlScoreFromResponse(scoreApiResponse);
+            String scoreApiResponse;
+            try {
+                scoreApiResponse = bulkhead.onIo(priority, () -> callScoringApi(bulkhead.getHttpClient(), domainConfig, vecResult.vector));
+            } catch (BulkheadRejectedException e) {
+                if (overloadController.isProtected(priority)) throw e;
+                // The scorer lane is full: keep the features we already computed and fall back to rules only.
+                return evaluateRulesOnly(bulkhead, handler, priority, domainInput, optionalClientSuppliedContext, vecResult.features);
+            }
+            double mlScore = parseMlScoreFromResponse(scoreApiResponse);
 
+            TransactionRuleContext ruleContext = new TransactionRuleContext(
+                    domainInput,
+                    mlScore,
+                    optionalClientSuppliedContext,
+                    vecResult.features,
+                    entityStores
+            );
+
+            FinalRuleOutput output = bulkhead.onCpu(priority, () -> handler.executeRules(ruleContext));
+            submitShadowRules(domainName, ruleContext, output);
+            submitChallenger(domainName, ruleContext, vecResult.features, output);
+            output.setOriginalMlScore(mlScore);
+            if (output.getFinalAdjustedScore() == -1.0) {
+                output.setFinalAdjustedScore(mlScore);
+            }
+            return output;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * Degraded path used under overload: rules are evaluated against the policy's fallback
+     * ML score, without running ONNX or calling the scorer.
+     */
+    private FinalRuleOutput evaluateRulesOnly(DomainBulkhead bulkhead, IDomainHandler handler, int priority,
+                                              DomainInput domainInput, Map<String, Object> optionalClientSuppliedContext,
+                                              Map<String, Object> preprocessedFeatures) throws Exception {
+        bulkhead.recordDegraded();
+        double fallbackScore = overloadController.getPolicy().getRulesOnlyMlScore();
         TransactionRuleContext ruleContext = new TransactionRuleContext(
                 domainInput,
-                mlScore,
+                fallbackScore,
                 optionalClientSuppliedContext,
-                vecResult.features
+                preprocessedFeatures,
+                entityStores
         );
+        FinalRuleOutput output = bulkhead.onCpu(priority, () -> handler.executeRules(ruleContext));
+        output.setExecutionMode("RULES_ONLY");
+        output.addReasonCode("LOAD_SHED_RULES_ONLY");
+        return output;
+    }
 
-        FinalRuleOutput output = handler.executeRules(ruleContext);
-        output.setOriginalMlScore(mlScore);
-        if (output.getFinalAdjustedScore() == -1.0) {
-            output.setFinalAdjustedScore(mlScore);
+    /**
+     * Hands a live rule evaluation to the domain's shadow rules, if it has any. Rules-only
+     * evaluations under overload are not mirrored: that is when the CPU is least available.
+     */
+    private void submitShadowRules(String domainName, TransactionRuleContext ruleContext, FinalRuleOutput liveOutput) {
+        ShadowRuleEvaluator evaluator = shadowRuleEvaluators.get(domainName);
+        if (evaluator != null) {
+            evaluator.submit(ruleContext, liveOutput);
         }
+    }
+
+    /** Hands a transaction the champion has just scored to the domain's challenger, if it has one. */
+    private void submitChallenger(String domainName, TransactionRuleContext ruleContext, Map<String, Object> features,
+                                  FinalRuleOutput championOutput) {
+        ChallengerScorer challenger = challengers.get(domainName);
+        if (challenger != null) {
+            challenger.submit(ruleContext, features, championOutput.getDecision());
+        }
+    }
+
+    private FinalRuleOutput shedOutput(DomainBulkhead bulkhead) {
+        bulkhead.recordShed();
+        FinalRuleOutput output = new FinalRuleOutput();
+        output.setDecision(overloadController.getPolicy().getShedDecision());
+        output.addReasonCode("LOAD_SHED");
+        output.setExecutionMode("SHED");
         return output;
     }
 
-    private VectorizationResult vectorizeInternal(IDomainHandler handler, DomainInput domainInput, DomainConfig domainConfig) throws Exception {
-        Map<String, Object> preprocessedFeatures = handler.preprocess(domainInput, domainConfig);
+    /**
+     * Whether a duplicate gets the configured short-circuit decision. Never for a transaction the
+     * decision cache answers retries of: a retry it did not store (an ERROR, SHED or RULES_ONLY
+     * first attempt) must be scored for real, not answered as a replay of that attempt.
+     */
+    private static boolean isDuplicateShortCircuit(DomainConfig domainConfig, DuplicateDetector.Verdict verdict,
+                                                   DecisionCache decisionCache, DomainInput domainInput) {
+        if (verdict == null || verdict == DuplicateDetector.Verdict.NEW) return false;
+        String transactionId = domainInput.getTransactionId();
+        if (decisionCache != null && transactionId != null && !transactionId.isEmpty()) return false;
+        DuplicateDetectionConfig config = domainConfig.getDuplicateDetection();
+        if (config.getShortCircuitDecision() == null || config.getShortCircuitDecision().isBlank()) return false;
+        return verdict == DuplicateDetector.Verdict.EXACT_REPLAY || !config.isShortCircuitExactReplaysOnly();
+    }
+
+    private static FinalRuleOutput duplicateOutput(DomainConfig domainConfig, DuplicateDetector.Verdict verdict) {
+        FinalRuleOutput output = new FinalRuleOutput();
+        output.setDecision(domainConfig.getDuplicateDetection().getShortCircuitDecision());
+        output.addReasonCode(verdict == DuplicateDetector.Verdict.EXACT_REPLAY ? "EXACT_REPLAY" : "DUPLICATE_TRANSACTION");
+        output.setExecutionMode("DUPLICATE");
+        return output;
+    }
 
-        try (OrtSession.Result results = handler.getSession().run(handler.createOnnxTensors(preprocessedFeatures, sharedOrtEnv))) {
-            String outputName = handler.getSession().getOutputNames().iterator().next();
-            OnnxValue resultValue = results.get(outputName).get();
-            if (!(resultValue instanceof OnnxTensor)) {
-                throw new OrtException("Expected OnnxTensor output from model, but got " + resultValue.getClass());
+    // Adds the duplicate flags to the other state-derived features, so rules can use them as preprocessed values.
+    private static Map<String, Object> stateFeatures(Map<String, Object> graphFeatures, DuplicateDetector.Verdict verdict) {
+        if (verdict == null) return graphFeatures;
+        Map<String, Object> features = new LinkedHashMap<>(graphFeatures);
+        features.put(DuplicateDetector.IS_DUPLICATE, verdict != DuplicateDetector.Verdict.NEW);
+        features.put(DuplicateDetector.IS_EXACT_REPLAY, verdict == DuplicateDetector.Verdict.EXACT_REPLAY);
+        return features;
+    }
+
+    private VectorizationResult vectorizeInternal(IDomainHandler handler, DomainInput domainInput, DomainConfig domainConfig,
+                                                  Map<String, Object> stateFeatures) throws Exception {
+        Map<String, Object> preprocessedFeatures = preprocess(handler, domainInput, domainConfig, stateFeatures);
+        return new VectorizationResult(runVectorizer(handler, preprocessedFeatures, domainConfig), preprocessedFeatures);
+    }
+
+    /**
+     * Runs the handler's stateless preprocessing and adds the features computed from SDK-held state
+     * (e.g. the payment graph). Rules see them as {@code preprocessed.<name>}; the vectorizer feeds
+     * any of them the ONNX model declares as an input.
+     */
+    private Map<String, Object> preprocess(IDomainHandler handler, DomainInput domainInput, DomainConfig domainConfig,
+                                           Map<String, Object> stateFeatures) {
+        Map<String, Object> features = handler.preprocess(domainInput, domainConfig);
+        if (!stateFeatures.isEmpty()) {
+            features.putAll(stateFeatures);
+        }
+        return features;
+    }
+
+    /**
+     * Fills in features and vectors for a batch of admitted pipeline jobs with one columnar
+     * preprocessing pass and one ONNX run. Leaves the jobs untouched when that is not possible.
+     */
+    private void vectorizeBatch(String domainName, IDomainHandler handler, DomainConfig domainConfig,
+                                List<PipelineJob> jobs, AtomicBoolean columnarDisabled) {
+        List<DomainInput> inputs = new ArrayList<>(jobs.size());
+        for (PipelineJob job : jobs) {
+            inputs.add(job.domainInput);
+        }
+        FeatureBatch batch;
+        Map<String, OnnxTensor> tensors;
+        try {
+            batch = handler.preprocessBatch(inputs, domainConfig);
+            for (int i = 0; i < jobs.size(); i++) {
+                int row = i;
+                jobs.get(i).stateFeatures.forEach((name, value) -> batch.set(row, name, value));
             }
-            OnnxTensor resultTensor = (OnnxTensor) resultValue;
-            float[][] batchVectors = (float[][]) resultTensor.getValue();
+            tensors = handler.createOnnxTensors(batch, sharedOrtEnv);
+        } catch (Exception e) {
+            logger.debug("Domain [{}]: Batch of {} could not be preprocessed as columns; scoring it row by row.", domainName, jobs.size(), e);
+            return;
+        }
+        try (OrtSession.Result results = handler.getSession().run(tensors)) {
+            float[][] vectors = outputMatrix(handler, results);
+            if (vectors.length != jobs.size()) {
+                throw new OrtException("Batched vectorizer returned " + vectors.length + " rows for " + jobs.size() + " inputs.");
+            }
+            for (int i = 0; i < jobs.size(); i++) {
+                jobs.get(i).features = batch.row(i);
+                jobs.get(i).vector = vectors[i];
+            }
+            logger.debug("Domain [{}]: Vectorized a batch of {} as columns.", domainName, jobs.size());
+        } catch (Exception e) {
+            // Jobs without a vector take the row-at-a-time path.
+            if (columnarDisabled.compareAndSet(false, true)) {
+                logger.warn("Domain [{}]: The ONNX model rejected a batched run ({}). This pipeline falls back to row-at-a-time vectorization.",
+                        domainName, e.getMessage());
+            }
+        } finally {
+            tensors.values().forEach(OnnxTensor::close);
+        }
+    }
+
+    private static float[][] outputMatrix(IDomainHandler handler, OrtSession.Result results) throws OrtException {
+        String outputName = handler.getSession().getOutputNames().iterator().next();
+        OnnxValue resultValue = results.get(outputName).get();
+        if (!(resultValue instanceof OnnxTensor)) {
+            throw new OrtException("Expected OnnxTensor output from model, but got " + resultValue.getClass());
+        }
+        return (float[][]) ((OnnxTensor) resultValue).getValue();
+    }
+
+    private float[] runVectorizer(IDomainHandler handler, Map<String, Object> preprocessedFeatures, DomainConfig domainConfig) throws Exception {
+        Map<String, OnnxTensor> inputs = handler.createOnnxTensors(preprocessedFeatures, sharedOrtEnv);
+        try (OrtSession.Result results = handler.getSession().run(inputs)) {
+            float[][] batchVectors = outputMatrix(handler, results);
 
             float[] vector = (batchVectors.length > 0) ? batchVectors[0] : new float[0];
             logger.info("Domain [{}]: Successfully vectorized. Vector length: {}", domainConfig.getDomainName(), vector.length);
-            return new VectorizationResult(vector, preprocessedFeatures);
+            return vector;
+        } finally {
+            handler.releaseOnnxTensors(inputs);
+        }
+    }
+
+    /** Mutable per-transaction state handed from stage to stage in a {@link ScoringPipeline}. */
+    private static final class PipelineJob {
+        final DomainInput domainInput;
+        final Map<String, Object> clientSuppliedContext;
+        boolean admitted;
+        Map<String, Object> stateFeatures;
+        Map<String, Object> features;
+        float[] vector;
+        double mlScore;
+        FinalRuleOutput output;
+
+        PipelineJob(DomainInput domainInput, Map<String, Object> clientSuppliedContext) {
+            this.domainInput = domainInput;
+            this.clientSuppliedContext = clientSuppliedContext;
         }
     }
 
-    private String callScoringApi(DomainConfig domainConfig, float[] vector) throws Exception {
+    /**
+     * Opens a pipelined scorer for high-volume streams in one domain. Unlike
+     * {@link #scoreAndEvaluateRules}, which runs preprocess, ONNX, the scorer call and rules back to back
+     * on one thread, the pipeline gives each stage dedicated threads and bounded hand-off queues, so CPU
+     * stages keep working on later transactions while earlier ones wait on the scorer.
+     * The caller must close the pipeline when done.
+     */
+    public ScoringPipeline openPipeline(String domainName, PipelineOptions options) {
+        IDomainHandler handler = domainHandlers.get(domainName);
+        if (handler == null) {
+            throw new IllegalArgumentException("No handler initialized for domain: " + domainName);
+        }
+        DomainConfig domainConfig = sdkConfig.getDomainConfigurations().get(domainName);
+        DomainBulkhead bulkhead = domainBulkheads.get(domainName);
+        BehaviouralFeatureEngine behaviouralEngine = behaviouralEngines.get(domainName);
+        TransactionGraph graph = transactionGraphs.get(domainName);
+        DuplicateDetector duplicateDetector = duplicateDetectors.get(domainName);
+        DecisionCache decisionCache = decisionCaches.get(domainName);
+        PipelineOptions opts = (options != null) ? options : new PipelineOptions();
+
+        // Records the transaction in the SDK-held state, in arrival order. Returns false when it is short-circuited.
+        Predicate<PipelineJob> admit = job -> {
+            job.admitted = true;
+            DuplicateDetector.Verdict duplicateVerdict = (duplicateDetector != null) ? duplicateDetector.check(job.domainInput) : null;
+            if (isDuplicateShortCircuit(domainConfig, duplicateVerdict, decisionCache, job.domainInput)) {
+                job.output = duplicateOutput(domainConfig, duplicateVerdict);
+                return false;
+            }
+            if (behaviouralEngine != null) {
+                behaviouralEngine.enrich(job.domainInput);
+            }
+            job.stateFeatures = stateFeatures(
+                    (graph != null) ? graph.record(job.domainInput) : Collections.emptyMap(), duplicateVerdict);
+            return true;
+        };
+        AtomicBoolean columnarDisabled = new AtomicBoolean();
+
+        // Jobs from submitBatch arrive already admitted, and usually already preprocessed and vectorized.
+        StagePipeline<PipelineJob> pipeline = new StagePipeline<>(domainName, Arrays.asList(
+                new StagePipeline.StageSpec<>("preprocess", opts.getPreprocessLanes(), job -> {
+                    if (!job.admitted && !admit.test(job)) {
+                        return false;
+                    }
+                    if (job.features == null) {
+                        job.features = preprocess(handler, job.domainInput, domainConfig, job.stateFeatures);
+                    }
+                    return true;
+                }),
+                new StagePipeline.StageSpec<>("vectorize", opts.getVectorizeLanes(), job -> {
+                    if (job.vector == null) {
+                        job.vector = runVectorizer(handler, job.features, domainConfig);
+                    }
+                    if (job.vector.length == 0) {
+                        logger.warn("Domain [{}]: Vectorization returned an empty vector. Cannot proceed with ML scoring.", domainName);
+                        job.output = new FinalRuleOutput();
+                        job.output.setDecision("ERROR");
+                        job.output.addReasonCode("VECTORIZATION_FAILED");
+                        return false;
+                    }
+                    return true;
+                }),
+                new StagePipeline.StageSpec<>("score", opts.getScoringLanes(), job -> {
+                    job.mlScore = parseMlScoreFromResponse(callScoringApi(bulkhead.getHttpClient(), domainConfig, job.vector));
+                    return true;
+                }),
+                new StagePipeline.StageSpec<>("rules", opts.getRuleLanes(), job -> {
+                    TransactionRuleContext ruleContext = new TransactionRuleContext(
+                            job.domainInput, job.mlScore, job.clientSuppliedContext, job.features, entityStores);
+                    job.output = handler.executeRules(ruleContext);
+                    submitShadowRules(domainName, ruleContext, job.output);
+                    submitChallenger(domainName, ruleContext, job.features, job.output);
+                    job.output.setOriginalMlScore(job.mlScore);
+                    if (job.output.getFinalAdjustedScore() == -1.0) {
+                        job.output.setFinalAdjustedScore(job.mlScore);
+                    }
+                    return true;
+                })
+        ), opts.getQueueCapacity());
+
+        return new ScoringPipeline() {
+            @Override
+            public CompletableFuture<FinalRuleOutput> submit(DomainInput domainInput,
+                                                             Map<String, Object> optionalClientSuppliedContext) throws InterruptedException {
+                if (!handler.getExpectedInputPojoType().isInstance(domainInput)) {
+                    throw new IllegalArgumentException(String.format(
+                            "Invalid input type for domain '%s'. Expected: %s, Got: %s",
+                            domainName, handler.getExpectedInputPojoType().getName(), domainInput.getClass().getName()));
+                }
+                Object orderingKey = opts.isPreserveUserOrder() ? domainInput.getUserId() : null;
+                String transactionId = domainInput.getTransactionId();
+                if (decisionCache != null && transactionId != null && !transactionId.isEmpty()) {
+                    return decisionCache.getOrComputeAsync(transactionId,
+                            () -> pipeline.submit(new PipelineJob(domainInput, optionalClientSuppliedContext), orderingKey)
+                                    .thenApply(job -> job.output));
+                }
+                return pipeline.submit(new PipelineJob(domainInput, optionalClientSuppliedContext), orderingKey)
+                        .thenApply(job -> job.output);
+            }
+
+            /**
+             * Admits the batch in order on the calling thread, then preprocesses it as columns and
+             * vectorizes it in one {@code [N, 1]} ONNX run before handing each transaction to the
+             * scoring stage. If the batch cannot be built as columns (a malformed record), those
+             * transactions go through the row-at-a-time stages instead; if the model rejects a
+             * batched run, the pipeline stops trying.
+             */
+            @Override
+            public List<CompletableFuture<FinalRuleOutput>> submitBatch(List<? extends DomainInput> inputs,
+                                                                        Map<String, Object> optionalClientSuppliedContext) throws InterruptedException {
+                for (DomainInput domainInput : inputs) {
+                    if (!handler.getExpectedInputPojoType().isInstance(domainInput)) {
+                        throw new IllegalArgumentException(String.format(
+                                "Invalid input type for domain '%s'. Expected: %s, Got: %s",
+                                domainName, handler.getExpectedInputPojoType().getName(), domainInput.getClass().getName()));
+                    }
+                }
+                List<CompletableFuture<FinalRuleOutput>> results = new ArrayList<>(inputs.size());
+                List<PipelineJob> jobs = new ArrayList<>(inputs.size());
+                List<CompletableFuture<FinalRuleOutput>> slots = new ArrayList<>(inputs.size());
+                for (DomainInput domainInput : inputs) {
+                    CompletableFuture<FinalRuleOutput> slot = new CompletableFuture<>();
+                    String transactionId = domainInput.getTransactionId();
+                    if (decisionCache != null && transactionId != null && !transactionId.isEmpty()) {
+                        boolean[] claimed = {false};
+                        results.add(decisionCache.getOrComputeAsync(transactionId, () -> {
+                            claimed[0] = true;
+                            return slot;
+                        }));
+                        if (!claimed[0]) continue; // cached, or already being scored
+                    } else {
+                        results.add(slot);
+                    }
+                    PipelineJob job = new PipelineJob(domainInput, optionalClientSuppliedContext);
+                    try {
+                        if (!admit.test(job)) {
+                            slot.complete(job.output);
+                            continue;
+                        }
+                    } catch (RuntimeException e) {
+                        slot.completeExceptionally(e);
+                        continue;
+                    }
+                    jobs.add(job);
+                    slots.add(slot);
+                }
+
+                if (jobs.size() > 1 && !columnarDisabled.get()) {
+                    try {
+                        vectorizeBatch(domainName, handler, domainConfig, jobs, columnarDisabled);
+                    } catch (RuntimeException e) {
+                        // Claimed slots must complete, or their decision cache entries stay in flight.
+                        slots.forEach(slot -> slot.completeExceptionally(e));
+                        throw e;
+                    }
+                }
+                for (int i = 0; i < jobs.size(); i++) {
+                    PipelineJob job = jobs.get(i);
+                    CompletableFuture<FinalRuleOutput> slot = slots.get(i);
+                    try {
+                        Object orderingKey = opts.isPreserveUserOrder() ? job.domainInput.getUserId() : null;
+                        pipeline.submit(job, orderingKey).whenComplete((done, error) -> {
+                            if (error != null) {
+                                slot.completeExceptionally(error);
+                            } else {
+                                slot.complete(done.output);
+                            }
+                        });
+                    } catch (InterruptedException | RuntimeException e) {
+                        for (int j = i; j < slots.size(); j++) {
+                            slots.get(j).completeExceptionally(e);
+                        }
+                        throw e;
+                    }
+                }
+                return results;
+            }
+
+            @Override
+            public Map<String, Integer> getStageQueueDepths() {
+                return pipeline.getStageQueueDepths();
+            }
+
+            @Override
+            public void close() {
+                pipeline.close();
+            }
+        };
+    }
+
+    /**
+     * Creates a {@code Flow.Processor} for one domain so a transaction stream can be connected
+     * straight to the SDK with back-pressure: it pulls inputs from its upstream publisher only as
+     * fast as its pipeline and its downstream subscriber can absorb them.
+     */
+    public Flow.Processor<DomainInput, FinalRuleOutput> newStreamProcessor(String domainName, StreamProcessorOptions options) {
+        StreamProcessorOptions opts = (options != null) ? options : new StreamProcessorOptions();
+        return new ScoringProcessor(domainName, openPipeline(domainName, opts.getPipelineOptions()), opts);
+    }
+
+    private String callScoringApi(HttpClient httpClient, DomainConfig domainConfig, float[] vector) throws Exception {
         String apiUrl = sdkConfig.getKongGatewayBaseUrl() + domainConfig.getScorerApiEndpointPath();
         Map<String, Object> payloadMap = Map.of("vector", vector);
         String jsonPayload = jsonMapper.writeValueAsString(payloadMap);
@@ -279,13 +842,15 @@ public class FraudDetectionSDK {
 
         HttpRequest request = requestBuilder.POST(HttpRequest.BodyPublishers.ofString(jsonPayload)).build();
 
-        // --- NEW DEEP DEBUGGING BLOCK ---
-        logger.info("--- KONG REQUEST DEBUGGING ---");
-        logger.info("Request Method: {}", request.method());
-        logger.info("Request URI: {}", request.uri());
-        logger.info("--- Request Headers ---");
-        request.headers().map().forEach((k, v) -> logger.info("  {}: {}", k, v));
-        logger.info("----------------------------");
+        // --- DEEP DEBUGGING BLOCK (debug level only: this runs on every scored transaction) ---
+        if (logger.isDebugEnabled()) {
+            logger.debug("--- KONG REQUEST DEBUGGING ---");
+            logger.debug("Request Method: {}", request.method());
+            logger.debug("Request URI: {}", request.uri());
+            logger.debug("--- Request Headers ---");
+            request.headers().map().forEach((k, v) -> logger.debug("  {}: {}", k, v));
+            logger.debug("----------------------------");
+        }
         // --- END OF DEBUGGING BLOCK ---
 
         HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
@@ -327,6 +892,13 @@ public class FraudDetectionSDK {
             }
         });
         domainHandlers.clear();
+        domainBulkheads.values().forEach(DomainBulkhead::close);
+        domainBulkheads.clear();
+        shadowRuleEvaluators.values().forEach(ShadowRuleEvaluator::close);
+        shadowRuleEvaluators.clear();
+        challengers.values().forEach(ChallengerScorer::close);
+        challengers.clear();
+        entityStores.close();
 
         if (this.sharedOrtEnv != null) {
             try {
@@ -339,6 +911,14 @@ public class FraudDetectionSDK {
         logger.info("All domain handlers and SDK resources closed.");
     }
 
+    /**
+     * The entity attribute stores that rules read through {@code entity.<store>.<attribute>}.
+     * Exposed so an operator can force a reload right after publishing a new snapshot.
+     */
+    public EntityStoreRegistry getEntityStores() {
+        return entityStores;
+    }
+
     /**
      * Helper method for the interactive tester to know which POJO to deserialize into.
      * @param domainName The name of the domain.
@@ -352,6 +932,162 @@ public class FraudDetectionSDK {
         return handler.getExpectedInputPojoType();
     }
 
+    /**
+     * Per-domain saturation of the bulkheads (in-flight slots, pool activity and queue depth).
+     * @return A snapshot for every initialized domain, keyed by domain name.
+     */
+    public Map<String, BulkheadMetrics> getBulkheadMetrics() {
+        Map<String, BulkheadMetrics> metrics = new LinkedHashMap<>();
+        domainBulkheads.forEach((domainName, bulkhead) -> metrics.put(domainName, bulkhead.snapshot()));
+        return metrics;
+    }
+
+    /**
+     * Hit, miss and coalescing counters of the idempotency caches.
+     * @return Counters for every domain with a decision cache enabled, keyed by domain name.
+     */
+    public Map<String, Map<String, Long>> getDecisionCacheStats() {
+        Map<String, Map<String, Long>> stats = new LinkedHashMap<>();
+        decisionCaches.forEach((domainName, cache) -> stats.put(domainName, cache.getStats()));
+        return stats;
+    }
+
+    /**
+     * How the shadow rule sets compare with the live rules on mirrored traffic: evaluations,
+     * drops, and mismatches in decision, flags and adjusted score.
+     * @return Counters for every domain with shadow rules, keyed by domain name.
+     */
+    public Map<String, Map<String, Long>> getShadowRuleStats() {
+        Map<String, Map<String, Long>> stats = new LinkedHashMap<>();
+        shadowRuleEvaluators.forEach((domainName, evaluator) -> stats.put(domainName, evaluator.getStats()));
+        return stats;
+    }
+
+    /**
+     * How each domain's challenger model compares with its champion on sampled traffic: score
+     * delta distribution and decision disagreement under the live rules.
+     * @return Statistics for every domain with a challenger loaded, keyed by domain name.
+     */
+    public Map<String, Map<String, Object>> getChallengerStats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        challengers.forEach((domainName, challenger) -> stats.put(domainName, challenger.getStats()));
+        return stats;
+    }
+
+    /**
+     * Compiles a rule set with a domain's clause semantics and rule engine settings, without
+     * installing it, e.g. to evaluate candidate rules against stored transactions.
+     */
+    public RuleNetwork compileRules(String domainName, List<RuleDefinition> rules) {
+        return requireHandler(domainName).compileRules(rules);
+    }
+
+    /** The compiled rules a domain currently scores with. */
+    public RuleNetwork getRuleNetwork(String domainName) {
+        return requireHandler(domainName).getRuleNetwork();
+    }
+
+    /**
+     * Rule contexts for already-scored transactions, e.g. from a historical dataset: the inputs
+     * are preprocessed as one columnar batch and paired with the given ML scores. Per-user
+     * state features (behavioural, graph, duplicates) are not replayed; entity stores and named
+     * lists are looked up as they are now.
+     */
+    public List<TransactionRuleContext> buildRuleContexts(String domainName, List<? extends DomainInput> inputs, double[] mlScores) {
+        IDomainHandler handler = requireHandler(domainName);
+        DomainConfig domainConfig = sdkConfig.getDomainConfigurations().get(domainName);
+        FeatureBatch batch = handler.preprocessBatch(inputs, domainConfig);
+        List<TransactionRuleContext> contexts = new ArrayList<>(inputs.size());
+        for (int i = 0; i < inputs.size(); i++) {
+            contexts.add(new TransactionRuleContext(inputs.get(i), mlScores[i], null, batch.row(i), entityStores));
+        }
+        return contexts;
+    }
+
+    /**
+     * ML scores for transactions that have none, e.g. historical rows exported without the score
+     * they got: the inputs are preprocessed and vectorized as one columnar batch where possible
+     * and each vector is sent to the domain's scorer. As in {@link #buildRuleContexts}, per-user
+     * state features are not replayed.
+     * @return One score per input; {@code NaN} where vectorization or the scorer call failed.
+     */
+    public double[] computeMlScores(String domainName, List<? extends DomainInput> inputs) throws InterruptedException {
+        IDomainHandler handler = requireHandler(domainName);
+        DomainConfig domainConfig = sdkConfig.getDomainConfigurations().get(domainName);
+        HttpClient httpClient = domainBulkheads.get(domainName).getHttpClient();
+        List<PipelineJob> jobs = new ArrayList<>(inputs.size());
+        for (DomainInput domainInput : inputs) {
+            PipelineJob job = new PipelineJob(domainInput, null);
+            job.stateFeatures = Collections.emptyMap();
+            jobs.add(job);
+        }
+        if (jobs.size() > 1) {
+            vectorizeBatch(domainName, handler, domainConfig, jobs, new AtomicBoolean());
+        }
+        double[] scores = new double[jobs.size()];
+        for (int i = 0; i < jobs.size(); i++) {
+            PipelineJob job = jobs.get(i);
+            try {
+                if (job.vector == null) {
+                    job.vector = runVectorizer(handler, preprocess(handler, job.domainInput, domainConfig, job.stateFeatures), domainConfig);
+                }
+                scores[i] = (job.vector.length == 0) ? Double.NaN
+                        : parseMlScoreFromResponse(callScoringApi(httpClient, domainConfig, job.vector));
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                logger.debug("Domain [{}]: Could not score transaction '{}'.", domainName, job.domainInput.getTransactionId(), e);
+                scores[i] = Double.NaN;
+            }
+        }
+        return scores;
+    }
+
+    private IDomainHandler requireHandler(String domainName) {
+        IDomainHandler handler = domainHandlers.get(domainName);
+        if (handler == null) {
+            throw new IllegalArgumentException("No handler initialized for domain: " + domainName);
+        }
+        return handler;
+    }
+
+    /**
+     * The current evaluation plan of every domain's rules: conditions in the order they are
+     * evaluated after adaptive reordering, with sampled pass rates and costs.
+     * @return Rule ID to plan, in priority order, keyed by domain name.
+     */
+    public Map<String, Map<String, String>> getRuleEvaluationPlans() {
+        Map<String, Map<String, String>> plans = new LinkedHashMap<>();
+        domainHandlers.forEach((domainName, handler) -> plans.put(domainName, handler.getRuleNetwork().describePlan()));
+        return plans;
+    }
+
+    /**
+     * Per-rule profiles of every domain's live rules since they were loaded: evaluations, hit
+     * rate, clause errors, condition time and percentiles, and whether the kill switch fired.
+     * @return Rule profiles in priority order, keyed by domain name.
+     */
+    public Map<String, List<RuleProfileSnapshot>> getRuleProfiles() {
+        Map<String, List<RuleProfileSnapshot>> profiles = new LinkedHashMap<>();
+        domainHandlers.forEach((domainName, handler) -> profiles.put(domainName, handler.getRuleNetwork().getRuleProfiles()));
+        return profiles;
+    }
+
+    /**
+     * Rules the kill switch has taken out of every domain's live rule set.
+     * @return Rule IDs, keyed by domain name; domains with none are left out.
+     */
+    public Map<String, List<String>> getAutoDisabledRules() {
+        Map<String, List<String>> disabled = new LinkedHashMap<>();
+        domainHandlers.forEach((domainName, handler) -> {
+            List<String> ruleIds = handler.getRuleNetwork().getAutoDisabledRuleIds();
+            if (!ruleIds.isEmpty()) {
+                disabled.put(domainName, ruleIds);
+            }
+        });
+        return disabled;
+    }
+
     /**
      * Helper method for the interactive tester to know which domains are configured.
      * @return A map of the configured domains.
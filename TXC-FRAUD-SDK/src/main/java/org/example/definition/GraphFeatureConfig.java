@@ -0,0 +1,39 @@
+package org.example.definition;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Per-domain settings for the in-SDK payment graph (sender -> recipient edges). Only
+ * domains whose inputs carry a recipient, i.e. mobile money, can use it.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class GraphFeatureConfig {
+    private boolean enabled = false;
+    private long windowSeconds = 24 * 3600;     // edges older than this do not count towards fan-in / reach
+    private long decayHalfLifeSeconds = 6 * 3600;
+    private int maxDegree = 64;                 // per direction; the stalest edge is dropped beyond this
+    private int maxNodes = 2_000_000;
+    private int shards = 64;
+    private boolean useEventTime = true;
+
+    public GraphFeatureConfig() {
+    }
+
+    // Getters
+    public boolean isEnabled() { return enabled; }
+    public long getWindowSeconds() { return windowSeconds; }
+    public long getDecayHalfLifeSeconds() { return decayHalfLifeSeconds; }
+    public int getMaxDegree() { return maxDegree; }
+    public int getMaxNodes() { return maxNodes; }
+    public int getShards() { return shards; }
+    public boolean isUseEventTime() { return useEventTime; }
+
+    // Setters
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public void setWindowSeconds(long windowSeconds) { this.windowSeconds = windowSeconds; }
+    public void setDecayHalfLifeSeconds(long decayHalfLifeSeconds) { this.decayHalfLifeSeconds = decayHalfLifeSeconds; }
+    public void setMaxDegree(int maxDegree) { this.maxDegree = maxDegree; }
+    public void setMaxNodes(int maxNodes) { this.maxNodes = maxNodes; }
+    public void setShards(int shards) { this.shards = shards; }
+    public void setUseEventTime(boolean useEventTime) { this.useEventTime = useEventTime; }
+}
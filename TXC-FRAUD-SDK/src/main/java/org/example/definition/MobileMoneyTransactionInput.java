@@ -8,6 +8,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
  */
 public class MobileMoneyTransactionInput implements DomainInput {
     // --- Core Transaction Details ---
+    private String transactionId; // optional, stable across client retries
     private String userId;
     private String recipientId;
     private double transactionAmount;
@@ -19,6 +20,8 @@ public class MobileMoneyTransactionInput implements DomainInput {
     private ClientContext clientContext;
 
     // --- Getters & Setters ---
+    public String getTransactionId() { return transactionId; }
+    public void setTransactionId(String transactionId) { this.transactionId = transactionId; }
     public String getUserId() { return userId; }
     public void setUserId(String userId) { this.userId = userId; }
     public String getRecipientId() { return recipientId; }
@@ -26,7 +29,7 @@ public class MobileMoneyTransactionInput implements DomainInput {
     public double getTransactionAmount() { return transactionAmount; }
     public void setTransactionAmount(double transactionAmount) { this.transactionAmount = transactionAmount; }
     public String getTransactionType() { return transactionType; }
-    public void setTransactionType(String transactionType) { this.transactionType = transactionType; }
+    public void setTransactionType(String transactionType) { this.transactionType = CategoricalValues.intern(transactionType); }
     public String getTimestamp() { return timestamp; }
     public void setTimestamp(String timestamp) { this.timestamp = timestamp; }
     public double getBalanceBefore() { return balanceBefore; }
@@ -44,15 +47,16 @@ public class MobileMoneyTransactionInput implements DomainInput {
         @JsonProperty("is_foreign_location")
         private boolean isForeignLocation;
 
+        // Boxed so an omitted value can be told apart from zero and filled by the SDK.
         @JsonProperty("velocity_txn_count_1h")
-        private int velocityTxnCount1h;
+        private Integer velocityTxnCount1h;
 
-        // --- ADDED: Historical features the client MUST provide ---
+        // --- ADDED: Historical features (filled by the SDK when omitted and behavioural features are enabled) ---
         @JsonProperty("avg_txn_amt_for_user")
-        private double avgTxnAmtForUser;
+        private Double avgTxnAmtForUser;
 
         @JsonProperty("time_since_last_txn_seconds")
-        private long timeSinceLastTxnSeconds;
+        private Long timeSinceLastTxnSeconds;
         // --- END ADDED ---
 
         private String currency;
@@ -63,15 +67,18 @@ public class MobileMoneyTransactionInput implements DomainInput {
         public void setNewDevice(boolean newDevice) { isNewDevice = newDevice; }
         public boolean isForeignLocation() { return isForeignLocation; }
         public void setForeignLocation(boolean foreignLocation) { this.isForeignLocation = foreignLocation; }
-        public int getVelocityTxnCount1h() { return velocityTxnCount1h; }
-        public void setVelocityTxnCount1h(int velocityTxnCount1h) { this.velocityTxnCount1h = velocityTxnCount1h; }
-        public double getAvgTxnAmtForUser() { return avgTxnAmtForUser; }
-        public void setAvgTxnAmtForUser(double avgTxnAmtForUser) { this.avgTxnAmtForUser = avgTxnAmtForUser; }
-        public long getTimeSinceLastTxnSeconds() { return timeSinceLastTxnSeconds; }
-        public void setTimeSinceLastTxnSeconds(long timeSinceLastTxnSeconds) { this.timeSinceLastTxnSeconds = timeSinceLastTxnSeconds; }
+        public int getVelocityTxnCount1h() { return velocityTxnCount1h != null ? velocityTxnCount1h : 0; }
+        public void setVelocityTxnCount1h(Integer velocityTxnCount1h) { this.velocityTxnCount1h = velocityTxnCount1h; }
+        public boolean hasVelocityTxnCount1h() { return velocityTxnCount1h != null; }
+        public double getAvgTxnAmtForUser() { return avgTxnAmtForUser != null ? avgTxnAmtForUser : 0.0; }
+        public void setAvgTxnAmtForUser(Double avgTxnAmtForUser) { this.avgTxnAmtForUser = avgTxnAmtForUser; }
+        public boolean hasAvgTxnAmtForUser() { return avgTxnAmtForUser != null; }
+        public long getTimeSinceLastTxnSeconds() { return timeSinceLastTxnSeconds != null ? timeSinceLastTxnSeconds : 0L; }
+        public void setTimeSinceLastTxnSeconds(Long timeSinceLastTxnSeconds) { this.timeSinceLastTxnSeconds = timeSinceLastTxnSeconds; }
+        public boolean hasTimeSinceLastTxnSeconds() { return timeSinceLastTxnSeconds != null; }
         public String getCurrency() { return currency; }
-        public void setCurrency(String currency) { this.currency = currency; }
+        public void setCurrency(String currency) { this.currency = CategoricalValues.intern(currency); }
         public String getCountry() { return country; }
-        public void setCountry(String country) { this.country = country; }
+        public void setCountry(String country) { this.country = CategoricalValues.intern(country); }
     }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package org.example.definition;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * A large reference list (blocklist, mule accounts, card BINs, ...) that rules test
+ * against with {@code IN_NAMED_LIST} / {@code NOT_IN_NAMED_LIST} and the list's name as
+ * the clause value. {@code path} is a plain text file with one entry per line.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class NamedListConfig {
+    private String name;
+    private String path;
+    private boolean caseInsensitive = false;
+    private long refreshIntervalSeconds = 60; // 0 = load once
+
+    public NamedListConfig() {
+    }
+
+    // Getters
+    public String getName() { return name; }
+    public String getPath() { return path; }
+    public boolean isCaseInsensitive() { return caseInsensitive; }
+    public long getRefreshIntervalSeconds() { return refreshIntervalSeconds; }
+
+    // Setters
+    public void setName(String name) { this.name = name; }
+    public void setPath(String path) { this.path = path; }
+    public void setCaseInsensitive(boolean caseInsensitive) { this.caseInsensitive = caseInsensitive; }
+    public void setRefreshIntervalSeconds(long refreshIntervalSeconds) { this.refreshIntervalSeconds = refreshIntervalSeconds; }
+}
@@ -0,0 +1,60 @@
+package org.example.definition;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Controls how the SDK behaves when a domain's bulkhead is close to saturation.
+ * Transactions get a priority from their domain and amount; under load, anything below
+ * {@code protectedPriority} is first degraded to rules-only evaluation and then shed.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class OverloadPolicy {
+    private boolean enabled = false;
+
+    // --- Overload detection ---
+    // Load is the worst of in-flight saturation, CPU/IO queue fill ratios and stage latency vs budget.
+    private double degradeLoadThreshold = 0.75;
+    private double shedLoadThreshold = 0.95;
+    private long stageLatencyBudgetMillis = 0; // 0 disables the latency signal
+
+    // --- Prioritisation ---
+    private Map<String, Integer> domainPriorities;
+    private double highValueAmountThreshold = 10_000.0;
+    private int highValuePriorityBoost = 10;
+    private int protectedPriority = 10;
+
+    // --- Degraded outputs ---
+    private double rulesOnlyMlScore = 0.0;
+    private String shedDecision = "REVIEW";
+
+    public OverloadPolicy() {
+        this.domainPriorities = new HashMap<>();
+    }
+
+    // Getters
+    public boolean isEnabled() { return enabled; }
+    public double getDegradeLoadThreshold() { return degradeLoadThreshold; }
+    public double getShedLoadThreshold() { return shedLoadThreshold; }
+    public long getStageLatencyBudgetMillis() { return stageLatencyBudgetMillis; }
+    public Map<String, Integer> getDomainPriorities() { return domainPriorities; }
+    public double getHighValueAmountThreshold() { return highValueAmountThreshold; }
+    public int getHighValuePriorityBoost() { return highValuePriorityBoost; }
+    public int getProtectedPriority() { return protectedPriority; }
+    public double getRulesOnlyMlScore() { return rulesOnlyMlScore; }
+    public String getShedDecision() { return shedDecision; }
+
+    // Setters
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public void setDegradeLoadThreshold(double degradeLoadThreshold) { this.degradeLoadThreshold = degradeLoadThreshold; }
+    public void setShedLoadThreshold(double shedLoadThreshold) { this.shedLoadThreshold = shedLoadThreshold; }
+    public void setStageLatencyBudgetMillis(long stageLatencyBudgetMillis) { this.stageLatencyBudgetMillis = stageLatencyBudgetMillis; }
+    public void setDomainPriorities(Map<String, Integer> domainPriorities) { this.domainPriorities = domainPriorities; }
+    public void setHighValueAmountThreshold(double highValueAmountThreshold) { this.highValueAmountThreshold = highValueAmountThreshold; }
+    public void setHighValuePriorityBoost(int highValuePriorityBoost) { this.highValuePriorityBoost = highValuePriorityBoost; }
+    public void setProtectedPriority(int protectedPriority) { this.protectedPriority = protectedPriority; }
+    public void setRulesOnlyMlScore(double rulesOnlyMlScore) { this.rulesOnlyMlScore = rulesOnlyMlScore; }
+    public void setShedDecision(String shedDecision) { this.shedDecision = shedDecision; }
+}
@@ -12,6 +12,7 @@ public class RuleDefinition {
     private String domain; // Optional
     private boolean isEnabled = true; // Default to true
     private int priority = 0;      // Default priority
+    private boolean terminal = false; // Stop evaluating lower-priority rules once this one matches
     private ConditionGroupDefinition conditions;
     private List<ActionDefinition> actions;
 
@@ -58,6 +59,14 @@ public class RuleDefinition {
         this.priority = priority;
     }
 
+    public boolean isTerminal() {
+        return terminal;
+    }
+
+    public void setTerminal(boolean terminal) {
+        this.terminal = terminal;
+    }
+
     public ConditionGroupDefinition getConditions() {
         return conditions;
     }
@@ -0,0 +1,62 @@
+package org.example.definition;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Per-domain tuning of the compiled rule engine. Apart from {@code evaluationStrategy} and the
+ * slow-rule kill switch, none of these settings change which rules match or what they do; they
+ * only change how much work it takes to find out.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class RuleEngineConfig {
+    // "COLLECT_ALL" runs every rule (later decisions overwrite earlier ones), "FIRST_MATCH" stops at the
+    // first matching rule that sets a decision, "TERMINAL_ON_DENY" stops once a matching rule sets DENY
+    private String evaluationStrategy = "COLLECT_ALL";
+    // Index rules by their top-level AND guards so a transaction only evaluates rules it can match
+    private boolean indexingEnabled = true;
+    // Reorder AND/OR children by sampled pass rate and cost so decisive, cheap clauses run first
+    private boolean adaptiveOrderingEnabled = true;
+    private int orderingSampleRate = 64;             // time one transaction in this many
+    private long reorderIntervalSamples = 2_000;     // sampled transactions between reorderings
+    // Evaluate conditions on the common fork-join pool once this many rules are candidates (0 disables)
+    private int parallelRuleThreshold = 0;
+    private int parallelChunkSize = 128;             // rules per fork-join task
+    // Count evaluations, matches, errors and condition time per rule
+    private boolean profilingEnabled = true;
+    // Kill switch: stop evaluating a rule that exceeds its time budget or throws too often (needs profiling)
+    private boolean autoDisableEnabled = false;
+    private long ruleBudgetMicros = 1_000;           // condition time per evaluation before it counts as a violation; 0 = errors only
+    private int maxRuleViolations = 20;              // violations within one window that disable the rule
+    private int ruleViolationWindow = 1_000;         // evaluations per window
+
+    public RuleEngineConfig() {
+    }
+
+    // Getters
+    public String getEvaluationStrategy() { return evaluationStrategy; }
+    public boolean isIndexingEnabled() { return indexingEnabled; }
+    public boolean isAdaptiveOrderingEnabled() { return adaptiveOrderingEnabled; }
+    public int getOrderingSampleRate() { return orderingSampleRate; }
+    public long getReorderIntervalSamples() { return reorderIntervalSamples; }
+    public int getParallelRuleThreshold() { return parallelRuleThreshold; }
+    public int getParallelChunkSize() { return parallelChunkSize; }
+    public boolean isProfilingEnabled() { return profilingEnabled; }
+    public boolean isAutoDisableEnabled() { return autoDisableEnabled; }
+    public long getRuleBudgetMicros() { return ruleBudgetMicros; }
+    public int getMaxRuleViolations() { return maxRuleViolations; }
+    public int getRuleViolationWindow() { return ruleViolationWindow; }
+
+    // Setters
+    public void setEvaluationStrategy(String evaluationStrategy) { this.evaluationStrategy = evaluationStrategy; }
+    public void setIndexingEnabled(boolean indexingEnabled) { this.indexingEnabled = indexingEnabled; }
+    public void setAdaptiveOrderingEnabled(boolean adaptiveOrderingEnabled) { this.adaptiveOrderingEnabled = adaptiveOrderingEnabled; }
+    public void setOrderingSampleRate(int orderingSampleRate) { this.orderingSampleRate = orderingSampleRate; }
+    public void setReorderIntervalSamples(long reorderIntervalSamples) { this.reorderIntervalSamples = reorderIntervalSamples; }
+    public void setParallelRuleThreshold(int parallelRuleThreshold) { this.parallelRuleThreshold = parallelRuleThreshold; }
+    public void setParallelChunkSize(int parallelChunkSize) { this.parallelChunkSize = parallelChunkSize; }
+    public void setProfilingEnabled(boolean profilingEnabled) { this.profilingEnabled = profilingEnabled; }
+    public void setAutoDisableEnabled(boolean autoDisableEnabled) { this.autoDisableEnabled = autoDisableEnabled; }
+    public void setRuleBudgetMicros(long ruleBudgetMicros) { this.ruleBudgetMicros = ruleBudgetMicros; }
+    public void setMaxRuleViolations(int maxRuleViolations) { this.maxRuleViolations = maxRuleViolations; }
+    public void setRuleViolationWindow(int ruleViolationWindow) { this.ruleViolationWindow = ruleViolationWindow; }
+}
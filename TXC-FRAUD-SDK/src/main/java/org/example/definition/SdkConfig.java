@@ -2,6 +2,7 @@ package org.example.definition;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.ArrayList;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.List;
@@ -11,6 +12,15 @@ public class SdkConfig {
     private String kongGatewayBaseUrl;
     private Map<String, DomainConfig> domainConfigurations;
     private Map<String, List<RuleDefinition>> rules;
+    // Candidate rules per domain, evaluated next to the live ones without affecting decisions
+    private Map<String, List<RuleDefinition>> shadowRules;
+    private OverloadPolicy overloadPolicy;
+    // "PLATFORM_THREADS" (default) or "VIRTUAL_THREADS" (Java 21+: blocking I/O and model fetches on virtual threads)
+    private String executionMode;
+    // Memory-mapped attribute stores that rules can read through the "entity." namespace
+    private List<EntityStoreConfig> entityStores;
+    // Large membership lists for the IN_NAMED_LIST operator
+    private List<NamedListConfig> namedLists;
 
     // This field will not be part of the JSON from the server,
     // but we will add it after fetching for use in API calls.
@@ -20,6 +30,11 @@ public class SdkConfig {
     public SdkConfig() {
         this.domainConfigurations = new HashMap<>();
         this.rules = new HashMap<>();
+        this.shadowRules = new HashMap<>();
+        this.overloadPolicy = new OverloadPolicy();
+        this.executionMode = "PLATFORM_THREADS";
+        this.entityStores = new ArrayList<>();
+        this.namedLists = new ArrayList<>();
     }
 
     // Getters and Setters
@@ -31,6 +46,16 @@ public class SdkConfig {
     public void setDomainConfigurations(Map<String, DomainConfig> domainConfigurations) { this.domainConfigurations = domainConfigurations; }
     public Map<String, List<RuleDefinition>> getRules() { return rules; }
     public void setRules(Map<String, List<RuleDefinition>> rules) { this.rules = rules; }
+    public Map<String, List<RuleDefinition>> getShadowRules() { return shadowRules; }
+    public void setShadowRules(Map<String, List<RuleDefinition>> shadowRules) { this.shadowRules = shadowRules; }
+    public OverloadPolicy getOverloadPolicy() { return overloadPolicy; }
+    public void setOverloadPolicy(OverloadPolicy overloadPolicy) { this.overloadPolicy = overloadPolicy; }
+    public String getExecutionMode() { return executionMode; }
+    public void setExecutionMode(String executionMode) { this.executionMode = executionMode; }
+    public List<EntityStoreConfig> getEntityStores() { return entityStores; }
+    public void setEntityStores(List<EntityStoreConfig> entityStores) { this.entityStores = entityStores; }
+    public List<NamedListConfig> getNamedLists() { return namedLists; }
+    public void setNamedLists(List<NamedListConfig> namedLists) { this.namedLists = namedLists; }
     public String getApiToken() { return apiToken; }
     public void setApiToken(String apiToken) { this.apiToken = apiToken; }
 }
\ No newline at end of file
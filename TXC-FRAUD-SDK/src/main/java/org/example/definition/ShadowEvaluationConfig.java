@@ -0,0 +1,32 @@
+package org.example.definition;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Per-domain settings for evaluating the domain's shadow rules ({@code SdkConfig.shadowRules}).
+ * Shadow rules run on a background executor after the live decision is made; they never change
+ * a response, and when the executor falls behind, shadow work is dropped rather than queued
+ * without bound.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ShadowEvaluationConfig {
+    private double sampleRate = 1.0;        // share of rule evaluations to mirror (1.0 = all traffic)
+    private int threads = 1;
+    private int queueCapacity = 10_000;     // pending shadow evaluations before new ones are dropped
+    private double scoreTolerance = 1e-6;   // adjusted scores closer than this count as equal
+
+    public ShadowEvaluationConfig() {
+    }
+
+    // Getters
+    public double getSampleRate() { return sampleRate; }
+    public int getThreads() { return threads; }
+    public int getQueueCapacity() { return queueCapacity; }
+    public double getScoreTolerance() { return scoreTolerance; }
+
+    // Setters
+    public void setSampleRate(double sampleRate) { this.sampleRate = sampleRate; }
+    public void setThreads(int threads) { this.threads = threads; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+    public void setScoreTolerance(double scoreTolerance) { this.scoreTolerance = scoreTolerance; }
+}
@@ -0,0 +1,9 @@
+package org.example.entity;
+
+/** Value types an entity snapshot can hold. The ordinal is the on-disk tag, so only append. */
+public enum AttributeType {
+    LONG,
+    DOUBLE,
+    BOOLEAN,
+    STRING
+}
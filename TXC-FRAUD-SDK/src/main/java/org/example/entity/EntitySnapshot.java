@@ -0,0 +1,157 @@
+package org.example.entity;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A read-only, memory-mapped view of one snapshot file (see {@link SnapshotFormat}). The
+ * data lives in the OS page cache rather than on the Java heap, so tens of millions of
+ * entities cost the collector nothing; a lookup hashes the key, probes the slot table and
+ * decodes the one attribute asked for.
+ */
+public final class EntitySnapshot {
+    private final Path path;
+    private final SegmentedMapping mapping;
+    private final long entryCount;
+    private final long slotMask;
+    private final long slotTableOffset;
+    private final String[] attributeNames;
+    private final AttributeType[] attributeTypes;
+    private final Map<String, Integer> attributeIndex = new HashMap<>();
+
+    private EntitySnapshot(Path path) throws IOException {
+        this.path = path;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed.
+            this.mapping = new SegmentedMapping(channel, FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        ByteBuffer header = mapping.segment(0).duplicate();
+        if (header.getInt(0) != SnapshotFormat.MAGIC) {
+            throw new IOException(path + " is not an entity snapshot.");
+        }
+        if (header.getInt(4) != SnapshotFormat.VERSION) {
+            throw new IOException(path + " has unsupported snapshot version " + header.getInt(4) + ".");
+        }
+        this.entryCount = header.getLong(8);
+        this.slotMask = header.getLong(16) - 1;
+        this.slotTableOffset = header.getLong(24);
+        int attributeCount = header.getInt(32);
+        this.attributeNames = new String[attributeCount];
+        this.attributeTypes = new AttributeType[attributeCount];
+        header.position(36);
+        for (int a = 0; a < attributeCount; a++) {
+            attributeTypes[a] = AttributeType.values()[header.get()];
+            byte[] name = new byte[header.getShort()];
+            header.get(name);
+            attributeNames[a] = new String(name, StandardCharsets.UTF_8);
+            attributeIndex.put(attributeNames[a], a);
+        }
+    }
+
+    public static EntitySnapshot open(Path path) throws IOException {
+        return new EntitySnapshot(path);
+    }
+
+    public Path getPath() { return path; }
+    public long size() { return entryCount; }
+
+    public Map<String, AttributeType> getSchema() {
+        Map<String, AttributeType> schema = new LinkedHashMap<>();
+        for (int a = 0; a < attributeNames.length; a++) schema.put(attributeNames[a], attributeTypes[a]);
+        return Collections.unmodifiableMap(schema);
+    }
+
+    /**
+     * @return the attribute as Long, Double, Boolean or String; {@code null} if the key is
+     *         unknown, the attribute does not exist, or the value is missing for this entity.
+     */
+    public Object get(String key, String attribute) {
+        Integer index = attributeIndex.get(attribute);
+        if (index == null || key == null) return null;
+        long record = find(key);
+        if (record < 0) return null;
+
+        ByteBuffer buffer = mapping.segment(record);
+        int offset = mapping.offset(record) + 4 + key.length() * 2;
+        for (int a = 0; a < index; a++) {
+            offset = skip(buffer, offset, attributeTypes[a]);
+        }
+        return read(buffer, offset, attributeTypes[index]);
+    }
+
+    /** All present attributes of one entity, or an empty map if the key is unknown. */
+    public Map<String, Object> getAll(String key) {
+        long record = (key != null) ? find(key) : -1;
+        if (record < 0) return Collections.emptyMap();
+        ByteBuffer buffer = mapping.segment(record);
+        int offset = mapping.offset(record) + 4 + key.length() * 2;
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (int a = 0; a < attributeNames.length; a++) {
+            Object value = read(buffer, offset, attributeTypes[a]);
+            if (value != null) values.put(attributeNames[a], value);
+            offset = skip(buffer, offset, attributeTypes[a]);
+        }
+        return values;
+    }
+
+    private long find(String key) {
+        long hash = SnapshotFormat.hash(key);
+        long slot = hash & slotMask;
+        while (true) {
+            long slotPosition = slotTableOffset + slot * SnapshotFormat.SLOT_BYTES;
+            long slotHash = mapping.getLong(slotPosition);
+            if (slotHash == 0) return -1;
+            if (slotHash == hash) {
+                long record = mapping.getLong(slotPosition + 8);
+                if (keyEquals(record, key)) return record;
+            }
+            slot = (slot + 1) & slotMask;
+        }
+    }
+
+    private boolean keyEquals(long record, String key) {
+        ByteBuffer buffer = mapping.segment(record);
+        int offset = mapping.offset(record);
+        if (buffer.getInt(offset) != key.length()) return false;
+        offset += 4;
+        for (int i = 0; i < key.length(); i++, offset += 2) {
+            if (buffer.getChar(offset) != key.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private static Object read(ByteBuffer buffer, int offset, AttributeType type) {
+        if (buffer.get(offset) == 0) return null;
+        offset++;
+        switch (type) {
+            case LONG: return buffer.getLong(offset);
+            case DOUBLE: return buffer.getDouble(offset);
+            case BOOLEAN: return buffer.get(offset) != 0;
+            default:
+                byte[] bytes = new byte[buffer.getInt(offset)];
+                ByteBuffer slice = buffer.duplicate();
+                slice.position(offset + 4);
+                slice.get(bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static int skip(ByteBuffer buffer, int offset, AttributeType type) {
+        if (buffer.get(offset) == 0) return offset + 1;
+        offset++;
+        switch (type) {
+            case LONG:
+            case DOUBLE: return offset + 8;
+            case BOOLEAN: return offset + 1;
+            default: return offset + 4 + buffer.getInt(offset);
+        }
+    }
+}
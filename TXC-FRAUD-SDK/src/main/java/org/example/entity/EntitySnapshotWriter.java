@@ -0,0 +1,214 @@
+package org.example.entity;
+
+import org.example.bulk.TransactionRecordReader;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Builds an entity snapshot from a CSV export (one row per entity, one column per attribute).
+ * Column types are inferred from the data: all {@code true/false} is BOOLEAN, all integers
+ * LONG, all numbers DOUBLE, anything else STRING; empty cells are stored as missing.
+ * <p>
+ * The snapshot is written to a temporary file next to the target and moved into place
+ * atomically, so a running SDK never sees a half-written file. When a key appears twice,
+ * the first row wins.
+ * <pre>
+ *   java -cp fraud-sdk.jar org.example.entity.EntitySnapshotWriter users.csv user_id users.snapshot
+ * </pre>
+ */
+public final class EntitySnapshotWriter {
+
+    private EntitySnapshotWriter() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.out.println("Usage: EntitySnapshotWriter <input.csv> <keyColumn> <output.snapshot>");
+            System.exit(2);
+        }
+        long entries = writeCsv(Paths.get(args[0]), args[1], Paths.get(args[2]));
+        System.out.println("Wrote " + entries + " entities to " + args[2]);
+    }
+
+    /** @return the number of entities written. */
+    public static long writeCsv(Path csv, String keyColumn, Path output) throws IOException {
+        // --- Pass 1: schema and row count ---
+        List<String> headers;
+        int keyIndex;
+        boolean[] notLong, notDouble, notBoolean, seen;
+        long rows = 0;
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) throw new IOException("CSV file " + csv + " is empty; a header row is required.");
+            headers = TransactionRecordReader.splitCsv(headerLine);
+            keyIndex = headers.indexOf(keyColumn);
+            if (keyIndex < 0) throw new IllegalArgumentException("Key column '" + keyColumn + "' not found in " + headers);
+            notLong = new boolean[headers.size()];
+            notDouble = new boolean[headers.size()];
+            notBoolean = new boolean[headers.size()];
+            seen = new boolean[headers.size()];
+            String line;
+            while ((line = reader.readLine()) != null) {
+                List<String> cells = TransactionRecordReader.splitCsv(line);
+                if (keyIndex >= cells.size() || cells.get(keyIndex).isEmpty()) continue;
+                rows++;
+                for (int i = 0; i < headers.size() && i < cells.size(); i++) {
+                    String cell = cells.get(i);
+                    if (i == keyIndex || cell.isEmpty()) continue;
+                    seen[i] = true;
+                    if (!notBoolean[i] && !"true".equalsIgnoreCase(cell) && !"false".equalsIgnoreCase(cell)) notBoolean[i] = true;
+                    if (!notLong[i] && !isLong(cell)) notLong[i] = true;
+                    if (!notDouble[i] && !isDouble(cell)) notDouble[i] = true;
+                }
+            }
+        }
+
+        int attributeCount = headers.size() - 1;
+        String[] names = new String[attributeCount];
+        AttributeType[] types = new AttributeType[attributeCount];
+        int[] columns = new int[attributeCount];
+        for (int i = 0, a = 0; i < headers.size(); i++) {
+            if (i == keyIndex) continue;
+            names[a] = headers.get(i);
+            columns[a] = i;
+            types[a] = !seen[i] ? AttributeType.STRING
+                    : !notBoolean[i] ? AttributeType.BOOLEAN
+                    : !notLong[i] ? AttributeType.LONG
+                    : !notDouble[i] ? AttributeType.DOUBLE
+                    : AttributeType.STRING;
+            a++;
+        }
+
+        // --- Header ---
+        ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(headerBytes);
+        long slotCount = Long.highestOneBit(Math.max(2L, rows * 2 - 1)) << 1; // load factor <= 0.5
+        header.writeInt(SnapshotFormat.MAGIC);
+        header.writeInt(SnapshotFormat.VERSION);
+        header.writeLong(0L); // entry count, patched once known
+        header.writeLong(slotCount);
+        header.writeLong(0L); // slot table offset, patched below
+        header.writeInt(attributeCount);
+        for (int a = 0; a < attributeCount; a++) {
+            byte[] name = names[a].getBytes(StandardCharsets.UTF_8);
+            header.writeByte(types[a].ordinal());
+            header.writeShort(name.length);
+            header.write(name);
+        }
+        long slotTableOffset = (headerBytes.size() + SnapshotFormat.SLOT_BYTES - 1) / SnapshotFormat.SLOT_BYTES * SnapshotFormat.SLOT_BYTES;
+        long dataOffset = slotTableOffset + slotCount * SnapshotFormat.SLOT_BYTES;
+
+        // --- Pass 2: records, inserted into the mapped slot table as they are written ---
+        Path temp = output.resolveSibling(output.getFileName() + ".tmp");
+        long entries = 0;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+             BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            // Sizes the file so the slot table can be mapped; unwritten slots read as zero (empty).
+            channel.write(ByteBuffer.wrap(new byte[1]), dataOffset - 1);
+            SegmentedMapping slots = new SegmentedMapping(channel, FileChannel.MapMode.READ_WRITE, slotTableOffset, dataOffset);
+
+            channel.position(dataOffset);
+            OutputStream data = new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 20);
+            ByteArrayOutputStream recordBytes = new ByteArrayOutputStream(256);
+            DataOutputStream record = new DataOutputStream(recordBytes);
+            long position = dataOffset;
+            long mask = slotCount - 1;
+
+            reader.readLine(); // header
+            String line;
+            while ((line = reader.readLine()) != null) {
+                List<String> cells = TransactionRecordReader.splitCsv(line);
+                if (keyIndex >= cells.size() || cells.get(keyIndex).isEmpty()) continue;
+                String key = cells.get(keyIndex);
+
+                long hash = SnapshotFormat.hash(key);
+                long slot = hash & mask;
+                boolean duplicate = false;
+                while (slots.getLong(slotTableOffset + slot * SnapshotFormat.SLOT_BYTES) != 0) {
+                    // Equal hashes are treated as the same key: with 64-bit hashes a true collision is negligible.
+                    if (slots.getLong(slotTableOffset + slot * SnapshotFormat.SLOT_BYTES) == hash) {
+                        duplicate = true;
+                        break;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+                if (duplicate) continue;
+
+                recordBytes.reset();
+                record.writeInt(key.length());
+                record.writeChars(key);
+                for (int a = 0; a < attributeCount; a++) {
+                    String cell = (columns[a] < cells.size()) ? cells.get(columns[a]) : "";
+                    if (cell.isEmpty()) {
+                        record.writeByte(0);
+                        continue;
+                    }
+                    record.writeByte(1);
+                    switch (types[a]) {
+                        case LONG: record.writeLong(Long.parseLong(cell)); break;
+                        case DOUBLE: record.writeDouble(Double.parseDouble(cell)); break;
+                        case BOOLEAN: record.writeBoolean(Boolean.parseBoolean(cell)); break;
+                        default:
+                            byte[] bytes = cell.getBytes(StandardCharsets.UTF_8);
+                            record.writeInt(bytes.length);
+                            record.write(bytes);
+                    }
+                }
+
+                long room = SnapshotFormat.SEGMENT_SIZE - (position & (SnapshotFormat.SEGMENT_SIZE - 1));
+                if (recordBytes.size() > room) {
+                    data.write(new byte[(int) room]);
+                    position += room;
+                }
+                slots.putLong(slotTableOffset + slot * SnapshotFormat.SLOT_BYTES, hash);
+                slots.putLong(slotTableOffset + slot * SnapshotFormat.SLOT_BYTES + 8, position);
+                recordBytes.writeTo(data);
+                position += recordBytes.size();
+                entries++;
+            }
+            data.flush();
+            slots.force();
+
+            ByteBuffer headerBuffer = ByteBuffer.wrap(headerBytes.toByteArray());
+            headerBuffer.putLong(8, entries);
+            headerBuffer.putLong(24, slotTableOffset);
+            channel.write(headerBuffer, 0);
+            channel.force(true);
+        }
+        Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return entries;
+    }
+
+    private static boolean isLong(String s) {
+        try {
+            Long.parseLong(s);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean isDouble(String s) {
+        try {
+            Double.parseDouble(s);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package org.example.entity;
+
+import org.example.definition.EntityStoreConfig;
+import org.example.definition.NamedListConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The SDK's reference data: named entity stores and named membership lists, each backed
+ * by a memory-mapped file. A background thread watches the source files and, when a newer
+ * one is moved into place, maps it and swaps it in with a single volatile write: lookups
+ * already running keep reading the old mapping, which the JVM releases once nothing
+ * references it.
+ */
+public class EntityStoreRegistry implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(EntityStoreRegistry.class);
+
+    private static final class Store {
+        final EntityStoreConfig config;
+        final Path path;
+        volatile EntitySnapshot snapshot;
+        volatile FileTime loadedVersion;
+
+        Store(EntityStoreConfig config) {
+            this.config = config;
+            this.path = Paths.get(config.getSnapshotPath());
+        }
+    }
+
+    private static final class ListHolder {
+        final NamedListConfig config;
+        final Path path;
+        volatile NamedList list;
+        volatile FileTime loadedVersion;
+
+        ListHolder(NamedListConfig config) {
+            this.config = config;
+            this.path = Paths.get(config.getPath());
+        }
+    }
+
+    private final Map<String, Store> stores = new ConcurrentHashMap<>();
+    private final Map<String, ListHolder> lists = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService refresher;
+
+    public EntityStoreRegistry(List<EntityStoreConfig> configs) {
+        this(configs, null);
+    }
+
+    public EntityStoreRegistry(List<EntityStoreConfig> configs, List<NamedListConfig> namedListConfigs) {
+        List<EntityStoreConfig> storeConfigs = (configs != null) ? configs : Collections.emptyList();
+        List<NamedListConfig> listConfigs = (namedListConfigs != null) ? namedListConfigs : Collections.emptyList();
+        this.refresher = (storeConfigs.stream().anyMatch(c -> c.getRefreshIntervalSeconds() > 0)
+                || listConfigs.stream().anyMatch(c -> c.getRefreshIntervalSeconds() > 0))
+                ? Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread t = new Thread(r, "fraud-sdk-entity-refresh");
+                    t.setDaemon(true);
+                    return t;
+                })
+                : null;
+
+        for (EntityStoreConfig config : storeConfigs) {
+            if (config.getName() == null || config.getSnapshotPath() == null || config.getKeyField() == null) {
+                logger.error("Entity store config {} needs name, snapshotPath and keyField; skipping.", config.getName());
+                continue;
+            }
+            Store store = new Store(config);
+            stores.put(config.getName(), store);
+            refresh(store);
+            if (refresher != null && config.getRefreshIntervalSeconds() > 0) {
+                refresher.scheduleWithFixedDelay(() -> refresh(store),
+                        config.getRefreshIntervalSeconds(), config.getRefreshIntervalSeconds(), TimeUnit.SECONDS);
+            }
+        }
+
+        for (NamedListConfig config : listConfigs) {
+            if (config.getName() == null || config.getPath() == null) {
+                logger.error("Named list config {} needs name and path; skipping.", config.getName());
+                continue;
+            }
+            ListHolder holder = new ListHolder(config);
+            lists.put(config.getName(), holder);
+            refresh(holder);
+            if (refresher != null && config.getRefreshIntervalSeconds() > 0) {
+                refresher.scheduleWithFixedDelay(() -> refresh(holder),
+                        config.getRefreshIntervalSeconds(), config.getRefreshIntervalSeconds(), TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    private void refresh(ListHolder holder) {
+        try {
+            FileTime modified = Files.getLastModifiedTime(holder.path);
+            if (modified.equals(holder.loadedVersion)) return;
+            NamedList list = NamedList.load(holder.config.getName(), holder.path, holder.config.isCaseInsensitive());
+            holder.list = list;
+            holder.loadedVersion = modified;
+            logger.info("Named list [{}]: loaded {} entries from {}.", holder.config.getName(), list.size(), holder.path);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Named list [{}]: could not load {}: {}", holder.config.getName(), holder.path, e.getMessage());
+        }
+    }
+
+    /** Maps the store's snapshot file again if it changed since the last load. */
+    private void refresh(Store store) {
+        try {
+            FileTime modified = Files.getLastModifiedTime(store.path);
+            if (modified.equals(store.loadedVersion)) return;
+            EntitySnapshot snapshot = EntitySnapshot.open(store.path);
+            store.snapshot = snapshot;
+            store.loadedVersion = modified;
+            logger.info("Entity store [{}]: loaded {} entities from {} (attributes {}).",
+                    store.config.getName(), snapshot.size(), store.path, snapshot.getSchema().keySet());
+        } catch (IOException | RuntimeException e) {
+            // Keep serving the previous snapshot, if any.
+            logger.error("Entity store [{}]: could not load {}: {}", store.config.getName(), store.path, e.getMessage());
+        }
+    }
+
+    /** Forces a reload of one store's snapshot (or one named list), e.g. right after a new file was published. */
+    public void reload(String storeName) {
+        Store store = stores.get(storeName);
+        if (store != null) {
+            store.loadedVersion = null;
+            refresh(store);
+            return;
+        }
+        ListHolder holder = lists.get(storeName);
+        if (holder == null) {
+            throw new IllegalArgumentException("Unknown entity store or named list: " + storeName);
+        }
+        holder.loadedVersion = null;
+        refresh(holder);
+    }
+
+    public boolean hasNamedList(String listName) {
+        ListHolder holder = lists.get(listName);
+        return holder != null && holder.list != null;
+    }
+
+    /** @return whether {@code value} is in the list; {@code false} for an unknown or not yet loaded list. */
+    public boolean isInNamedList(String listName, String value) {
+        ListHolder holder = lists.get(listName);
+        NamedList list = (holder != null) ? holder.list : null;
+        return list != null && list.contains(value);
+    }
+
+    public boolean hasStore(String storeName) {
+        return stores.containsKey(storeName);
+    }
+
+    /** The transaction field whose value is this store's lookup key, or {@code null} for an unknown store. */
+    public String getKeyField(String storeName) {
+        Store store = stores.get(storeName);
+        return (store != null) ? store.config.getKeyField() : null;
+    }
+
+    /** @return the attribute value, or {@code null} when the store, key or attribute is unknown. */
+    public Object lookup(String storeName, String key, String attribute) {
+        Store store = stores.get(storeName);
+        if (store == null || key == null) return null;
+        EntitySnapshot snapshot = store.snapshot;
+        return (snapshot != null) ? snapshot.get(key, attribute) : null;
+    }
+
+    @Override
+    public void close() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+}
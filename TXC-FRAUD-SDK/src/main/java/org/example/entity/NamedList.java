@@ -0,0 +1,159 @@
+package org.example.entity;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * A compiled, memory-mapped membership list. Each entry is reduced to a 64-bit hash; the
+ * index file holds a Bloom filter (10 bits per entry, 7 probes, ~1% false positives) in
+ * front of the sorted hash array. Most lookups are misses and are answered by the filter
+ * with a handful of cache lines; hits are confirmed by binary search over the sorted
+ * hashes. With 64-bit hashes the chance of a false match is below 1e-12 even for lists of
+ * millions of entries.
+ * <pre>
+ * int magic, int version, long count, long bloomBits, then bloomBits/64 longs, then count sorted longs
+ * </pre>
+ */
+public final class NamedList {
+    private static final Logger logger = LoggerFactory.getLogger(NamedList.class);
+
+    private static final int MAGIC = 0x46584e4c; // "FXNL"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 24;
+    private static final int BLOOM_PROBES = 7;
+
+    private final String name;
+    private final MappedByteBuffer buffer;
+    private final long count;
+    private final long bloomMask;
+    private final int hashesOffset;
+    private final boolean caseInsensitive;
+
+    private NamedList(String name, Path indexPath, boolean caseInsensitive) throws IOException {
+        this.name = name;
+        this.caseInsensitive = caseInsensitive;
+        try (FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("List index " + indexPath + " is larger than 2 GB.");
+            }
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException(indexPath + " is not a named-list index.");
+        }
+        this.count = buffer.getLong(8);
+        long bloomBits = buffer.getLong(16);
+        this.bloomMask = bloomBits - 1;
+        this.hashesOffset = (int) (HEADER_BYTES + bloomBits / 8);
+    }
+
+    /**
+     * Opens the list from its text source, compiling {@code <source>.idx} first when the index
+     * is missing or older than the source. The index is written to a temporary file and renamed,
+     * so concurrent readers of an older index are unaffected.
+     */
+    public static NamedList load(String name, Path source, boolean caseInsensitive) throws IOException {
+        Path index = source.resolveSibling(source.getFileName() + ".idx");
+        if (!Files.exists(index) || Files.getLastModifiedTime(index).compareTo(Files.getLastModifiedTime(source)) < 0) {
+            long entries = compile(source, index, caseInsensitive);
+            logger.info("Named list [{}]: compiled {} entries from {}.", name, entries, source);
+        }
+        return new NamedList(name, index, caseInsensitive);
+    }
+
+    /** Builds an index from a text file: one entry per line, blank lines and {@code #} comments ignored. */
+    public static long compile(Path source, Path index, boolean caseInsensitive) throws IOException {
+        long[] hashes = new long[1024];
+        int n = 0;
+        try (BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String entry = line.trim();
+                if (entry.isEmpty() || entry.charAt(0) == '#') continue;
+                if (n == hashes.length) hashes = Arrays.copyOf(hashes, n * 2);
+                hashes[n++] = SnapshotFormat.hash(caseInsensitive ? entry.toLowerCase(Locale.ROOT) : entry);
+            }
+        }
+        Arrays.sort(hashes, 0, n);
+        int unique = 0;
+        for (int i = 0; i < n; i++) {
+            if (unique == 0 || hashes[i] != hashes[unique - 1]) hashes[unique++] = hashes[i];
+        }
+
+        long bloomBits = Math.max(64L, Long.highestOneBit(Math.max(1L, unique * 10L - 1)) << 1);
+        long[] bloom = new long[(int) (bloomBits / 64)];
+        for (int i = 0; i < unique; i++) {
+            long h1 = hashes[i];
+            long h2 = (h1 >>> 32) | 1L;
+            for (int k = 0; k < BLOOM_PROBES; k++) {
+                long bit = (h1 + k * h2) & (bloomBits - 1);
+                bloom[(int) (bit >>> 6)] |= 1L << bit;
+            }
+        }
+
+        long size = HEADER_BYTES + bloomBits / 8 + unique * 8L;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("List " + source + " is too large for a single index file (" + unique + " entries).");
+        }
+        ByteBuffer out = ByteBuffer.allocate((int) size);
+        out.putInt(MAGIC).putInt(VERSION).putLong(unique).putLong(bloomBits);
+        for (long word : bloom) out.putLong(word);
+        for (int i = 0; i < unique; i++) out.putLong(hashes[i]);
+        out.flip();
+
+        // A unique temp file: another process on the host may be compiling the same list.
+        Path temp = Files.createTempFile(index.toAbsolutePath().getParent(), index.getFileName() + ".", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                while (out.hasRemaining()) channel.write(out);
+                channel.force(true);
+            }
+            Files.move(temp, index, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return unique;
+    }
+
+    public String getName() { return name; }
+    public long size() { return count; }
+
+    public boolean contains(String value) {
+        if (value == null) return false;
+        long h1 = SnapshotFormat.hash(caseInsensitive ? value.trim().toLowerCase(Locale.ROOT) : value.trim());
+        long h2 = (h1 >>> 32) | 1L;
+        for (int k = 0; k < BLOOM_PROBES; k++) {
+            long bit = (h1 + k * h2) & bloomMask;
+            if ((buffer.getLong(HEADER_BYTES + (int) (bit >>> 6) * 8) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        long low = 0;
+        long high = count - 1;
+        while (low <= high) {
+            long mid = (low + high) >>> 1;
+            long candidate = buffer.getLong(hashesOffset + (int) (mid * 8));
+            if (candidate < h1) {
+                low = mid + 1;
+            } else if (candidate > h1) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.entity;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A file region mapped as a series of buffers, one per {@link SnapshotFormat#SEGMENT_SIZE}
+ * slice of the file, so regions larger than 2 GB can be addressed with long positions.
+ * Positions are absolute file offsets.
+ */
+final class SegmentedMapping {
+    private final MappedByteBuffer[] segments;
+    private final long[] bases;
+    private final int firstSegment;
+
+    SegmentedMapping(FileChannel channel, FileChannel.MapMode mode, long start, long end) throws IOException {
+        this.firstSegment = (int) (start >>> SnapshotFormat.SEGMENT_BITS);
+        int lastSegment = (end == start) ? firstSegment : (int) ((end - 1) >>> SnapshotFormat.SEGMENT_BITS);
+        this.segments = new MappedByteBuffer[lastSegment - firstSegment + 1];
+        this.bases = new long[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            long segmentStart = Math.max(start, (long) (firstSegment + i) << SnapshotFormat.SEGMENT_BITS);
+            long segmentEnd = Math.min(end, (long) (firstSegment + i + 1) << SnapshotFormat.SEGMENT_BITS);
+            bases[i] = segmentStart;
+            segments[i] = channel.map(mode, segmentStart, segmentEnd - segmentStart);
+        }
+    }
+
+    /** The buffer holding {@code position}; pair it with {@link #offset(long)}. */
+    MappedByteBuffer segment(long position) {
+        return segments[(int) (position >>> SnapshotFormat.SEGMENT_BITS) - firstSegment];
+    }
+
+    int offset(long position) {
+        return (int) (position - bases[(int) (position >>> SnapshotFormat.SEGMENT_BITS) - firstSegment]);
+    }
+
+    long getLong(long position) {
+        return segment(position).getLong(offset(position));
+    }
+
+    void putLong(long position, long value) {
+        segment(position).putLong(offset(position), value);
+    }
+
+    void force() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+}
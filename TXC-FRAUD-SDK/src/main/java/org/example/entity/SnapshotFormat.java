@@ -0,0 +1,38 @@
+package org.example.entity;
+
+/**
+ * Layout of an entity snapshot file. Everything is big-endian.
+ * <pre>
+ * header   int magic, int version, long entryCount, long slotCount, long slotTableOffset,
+ *          int attributeCount, then per attribute: byte type, short nameLength, UTF-8 name
+ * slots    slotCount x (long keyHash, long recordOffset); keyHash 0 marks an empty slot
+ * records  int keyLength, UTF-16 key chars, then per attribute: byte present, value
+ *          (LONG/DOUBLE 8 bytes, BOOLEAN 1 byte, STRING int length + UTF-8 bytes)
+ * </pre>
+ * The file is mapped in {@link #SEGMENT_SIZE} pieces; the writer pads so that no slot or
+ * record straddles two segments, which lets readers use plain int-indexed buffer reads.
+ */
+final class SnapshotFormat {
+    static final int MAGIC = 0x46584553; // "FXES"
+    static final int VERSION = 1;
+    static final int SEGMENT_BITS = 30;
+    static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+    static final int SLOT_BYTES = 16;
+
+    private SnapshotFormat() {}
+
+    /** 64-bit FNV-1a over the key's chars, finalised with a murmur3 mix; never returns 0. */
+    static long hash(CharSequence key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (h == 0) ? 1 : h;
+    }
+}
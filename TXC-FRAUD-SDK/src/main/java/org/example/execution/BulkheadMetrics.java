@@ -0,0 +1,90 @@
+package org.example.execution;
+
+/**
+ * Point-in-time saturation snapshot of a single domain's bulkhead.
+ * Plain getters only so it can be serialized as-is for dashboards.
+ */
+public class BulkheadMetrics {
+    private final String domainName;
+    private final int inFlight;
+    private final int maxInFlight;
+    private final int cpuActive;
+    private final int cpuPoolSize;
+    private final int cpuQueueDepth;
+    private final int cpuQueueCapacity;
+    private final int ioActive;
+    private final int ioPoolSize;
+    private final int ioQueueDepth;
+    private final int ioQueueCapacity;
+    private final long admitted;
+    private final long rejected;
+    private final long completed;
+    private final long degraded;
+    private final long shed;
+    private final double cpuStageLatencyMillis;
+    private final double ioStageLatencyMillis;
+
+    public BulkheadMetrics(String domainName, int inFlight, int maxInFlight,
+                           int cpuActive, int cpuPoolSize, int cpuQueueDepth, int cpuQueueCapacity,
+                           int ioActive, int ioPoolSize, int ioQueueDepth, int ioQueueCapacity,
+                           long admitted, long rejected, long completed, long degraded, long shed,
+                           double cpuStageLatencyMillis, double ioStageLatencyMillis) {
+        this.domainName = domainName;
+        this.inFlight = inFlight;
+        this.maxInFlight = maxInFlight;
+        this.cpuActive = cpuActive;
+        this.cpuPoolSize = cpuPoolSize;
+        this.cpuQueueDepth = cpuQueueDepth;
+        this.cpuQueueCapacity = cpuQueueCapacity;
+        this.ioActive = ioActive;
+        this.ioPoolSize = ioPoolSize;
+        this.ioQueueDepth = ioQueueDepth;
+        this.ioQueueCapacity = ioQueueCapacity;
+        this.admitted = admitted;
+        this.rejected = rejected;
+        this.completed = completed;
+        this.degraded = degraded;
+        this.shed = shed;
+        this.cpuStageLatencyMillis = cpuStageLatencyMillis;
+        this.ioStageLatencyMillis = ioStageLatencyMillis;
+    }
+
+    public String getDomainName() { return domainName; }
+    public int getInFlight() { return inFlight; }
+    public int getMaxInFlight() { return maxInFlight; }
+    public int getCpuActive() { return cpuActive; }
+    public int getCpuPoolSize() { return cpuPoolSize; }
+    public int getCpuQueueDepth() { return cpuQueueDepth; }
+    public int getCpuQueueCapacity() { return cpuQueueCapacity; }
+    public int getIoActive() { return ioActive; }
+    public int getIoPoolSize() { return ioPoolSize; }
+    public int getIoQueueDepth() { return ioQueueDepth; }
+    public int getIoQueueCapacity() { return ioQueueCapacity; }
+    public long getAdmitted() { return admitted; }
+    public long getRejected() { return rejected; }
+    public long getCompleted() { return completed; }
+    public long getDegraded() { return degraded; }
+    public long getShed() { return shed; }
+    public double getCpuStageLatencyMillis() { return cpuStageLatencyMillis; }
+    public double getIoStageLatencyMillis() { return ioStageLatencyMillis; }
+
+    /** Fraction of the in-flight limit currently in use, from 0.0 to 1.0. */
+    public double getSaturation() {
+        return maxInFlight > 0 ? (double) inFlight / maxInFlight : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkheadMetrics{" +
+                "domainName='" + domainName + '\'' +
+                ", inFlight=" + inFlight + "/" + maxInFlight +
+                ", cpu=" + cpuActive + "/" + cpuPoolSize + " (queue " + cpuQueueDepth + "/" + cpuQueueCapacity + ")" +
+                ", io=" + ioActive + "/" + ioPoolSize + " (queue " + ioQueueDepth + "/" + ioQueueCapacity + ")" +
+                ", admitted=" + admitted +
+                ", rejected=" + rejected +
+                ", completed=" + completed +
+                ", degraded=" + degraded +
+                ", shed=" + shed +
+                '}';
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.execution;
+
+/**
+ * Thrown when a domain's bulkhead cannot accept more work, either because the
+ * in-flight limit is reached or because one of its bounded stage queues is full.
+ * Callers should treat this as back-pressure, not as a scoring failure.
+ */
+public class BulkheadRejectedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final String domainName;
+    private final String stage;
+
+    public BulkheadRejectedException(String domainName, String stage, String message) {
+        super(message);
+        this.domainName = domainName;
+        this.stage = stage;
+    }
+
+    public String getDomainName() {
+        return domainName;
+    }
+
+    public String getStage() {
+        return stage;
+    }
+}
@@ -0,0 +1,184 @@
+package org.example.execution;
+
+import org.example.definition.ChallengerConfig;
+import org.example.handlers.IDomainHandler;
+import org.example.rules.FinalRuleOutput;
+import org.example.rules.TransactionRuleContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Scores a sample of a domain's traffic with a challenger model next to the champion. The
+ * champion's response is never held up: sampled transactions are handed, with the features
+ * already computed for the champion, to a small background pool that runs the challenger's
+ * vectorizer and scorer and then the domain's live rules on the challenger's score. When the
+ * pool's queue is full the transaction is dropped and counted.
+ * <p>
+ * Only aggregates are kept: the distribution of {@code challenger - champion} score deltas,
+ * and how often, and from which decision to which, the decision would have changed.
+ */
+public class ChallengerScorer implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ChallengerScorer.class);
+    /** Upper bounds of the absolute score delta buckets; the last bucket is open. */
+    private static final double[] DELTA_BOUNDS = {0.01, 0.05, 0.1, 0.25};
+
+    /** Runs the challenger's vectorizer and scorer on a transaction's preprocessed features. */
+    @FunctionalInterface
+    public interface Scorer {
+        double score(Map<String, Object> preprocessedFeatures) throws Exception;
+    }
+
+    private final String domainName;
+    private final ChallengerConfig config;
+    private final IDomainHandler challengerHandler;
+    private final Scorer scorer;
+    private final Function<TransactionRuleContext, FinalRuleOutput> rules;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder scored = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder decisionDisagreements = new LongAdder();
+    private final DoubleAdder scoreDeltaSum = new DoubleAdder();
+    private final DoubleAdder absScoreDeltaSum = new DoubleAdder();
+    // Non-negative doubles order like their raw bits, so a long max works for the largest delta.
+    private final LongAccumulator maxAbsScoreDeltaBits = new LongAccumulator(Math::max, Double.doubleToLongBits(0.0));
+    private final LongAdder[] deltaBuckets = new LongAdder[DELTA_BOUNDS.length + 1];
+    private final ConcurrentHashMap<String, LongAdder> decisionChanges = new ConcurrentHashMap<>();
+
+    /**
+     * @param challengerHandler Holds the challenger's ONNX session; closed with this scorer.
+     * @param rules             The domain's live rules, applied to the challenger's score without
+     *                          recording in their profiles or adaptive ordering.
+     */
+    public ChallengerScorer(String domainName, ChallengerConfig config, IDomainHandler challengerHandler,
+                            Scorer scorer, Function<TransactionRuleContext, FinalRuleOutput> rules) {
+        this.domainName = domainName;
+        this.config = config;
+        this.challengerHandler = challengerHandler;
+        this.scorer = scorer;
+        this.rules = rules;
+        for (int i = 0; i < deltaBuckets.length; i++) {
+            deltaBuckets[i] = new LongAdder();
+        }
+        int threads = Math.max(1, config.getThreads());
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "fraud-sdk-" + domainName + "-challenger-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        logger.info("Domain [{}]: Challenger '{}' scores {}% of traffic.", domainName, config.getModelAlias(),
+                String.format("%.2f", Math.min(1.0, config.getSampleRate()) * 100));
+    }
+
+    /**
+     * Queues a challenger scoring of a transaction the champion has just scored, if sampled.
+     * @param championContext  The context the champion's rules ran on (carries the champion's score).
+     * @param features         The preprocessed features the champion was vectorized from.
+     * @param championDecision The decision the champion's score led to.
+     */
+    public void submit(TransactionRuleContext championContext, Map<String, Object> features, String championDecision) {
+        double sampleRate = config.getSampleRate();
+        if (sampleRate < 1.0 && (sampleRate <= 0.0 || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return;
+        }
+        try {
+            executor.execute(() -> compare(championContext, features, String.valueOf(championDecision)));
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+        }
+    }
+
+    private void compare(TransactionRuleContext championContext, Map<String, Object> features, String championDecision) {
+        double challengerScore;
+        FinalRuleOutput challengerOutput;
+        try {
+            challengerScore = scorer.score(features);
+            challengerOutput = rules.apply(championContext.withMlScore(challengerScore));
+        } catch (Exception e) {
+            if (failed.sum() == 0) {
+                logger.warn("Domain [{}]: Challenger scoring failed; further failures are only counted.", domainName, e);
+            }
+            failed.increment();
+            return;
+        }
+        scored.increment();
+        double delta = challengerScore - championContext.getMlScore();
+        double absDelta = Math.abs(delta);
+        scoreDeltaSum.add(delta);
+        absScoreDeltaSum.add(absDelta);
+        maxAbsScoreDeltaBits.accumulate(Double.doubleToLongBits(absDelta));
+        int bucket = 0;
+        while (bucket < DELTA_BOUNDS.length && absDelta >= DELTA_BOUNDS[bucket]) {
+            bucket++;
+        }
+        deltaBuckets[bucket].increment();
+
+        String challengerDecision = String.valueOf(challengerOutput.getDecision());
+        if (!championDecision.equals(challengerDecision)) {
+            decisionDisagreements.increment();
+            decisionChanges.computeIfAbsent(championDecision + " -> " + challengerDecision, k -> new LongAdder()).increment();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long count = scored.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("modelAlias", config.getModelAlias());
+        stats.put("scored", count);
+        stats.put("dropped", dropped.sum());
+        stats.put("failed", failed.sum());
+        stats.put("pending", executor.getQueue().size());
+        stats.put("meanScoreDelta", count == 0 ? 0.0 : scoreDeltaSum.sum() / count);
+        stats.put("meanAbsScoreDelta", count == 0 ? 0.0 : absScoreDeltaSum.sum() / count);
+        stats.put("maxAbsScoreDelta", Double.longBitsToDouble(maxAbsScoreDeltaBits.get()));
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        for (int i = 0; i < deltaBuckets.length; i++) {
+            String label = (i < DELTA_BOUNDS.length) ? "<" + DELTA_BOUNDS[i] : ">=" + DELTA_BOUNDS[DELTA_BOUNDS.length - 1];
+            buckets.put(label, deltaBuckets[i].sum());
+        }
+        stats.put("absScoreDeltaBuckets", buckets);
+        stats.put("decisionDisagreements", decisionDisagreements.sum());
+        Map<String, Long> changes = new TreeMap<>();
+        decisionChanges.forEach((transition, counter) -> changes.put(transition, counter.sum()));
+        stats.put("decisionChanges", changes);
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        try {
+            // The ONNX session must not be closed under a running challenger scoring.
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.warn("Domain [{}]: Challenger scorings still running after 5s; closing the challenger model anyway.", domainName);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            challengerHandler.close();
+        } catch (Exception e) {
+            logger.error("Domain [{}]: Error closing challenger handler.", domainName, e);
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package org.example.execution;
+
+import org.example.definition.DecisionCacheConfig;
+import org.example.rules.FinalRuleOutput;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Idempotency cache of decisions keyed by the client's transaction ID, so a gateway retry
+ * costs a hash lookup instead of a full scoring. Two guarantees:
+ * <ul>
+ *   <li>Bounded: admission and eviction follow W-TinyLFU. New entries land in a small LRU
+ *       window; an entry leaving the window only displaces the main area's victim if a
+ *       frequency sketch says it has been asked for more often, so a burst of one-off IDs
+ *       cannot flush out IDs that are being retried.</li>
+ *   <li>Coalescing: while one caller is scoring an ID, concurrent callers with the same ID
+ *       wait for that result rather than scoring it again.</li>
+ * </ul>
+ * Entries expire {@code ttlSeconds} after being stored. ERROR, SHED and RULES_ONLY outputs are
+ * never stored, so a retry of a failed, shed or degraded transaction is scored for real; for
+ * the same reason, duplicate detection never short-circuits a transaction that carries an ID
+ * while the cache is on. Every replayed output is a copy carrying the {@code CACHED_DECISION}
+ * flag.
+ */
+public class DecisionCache {
+    public static final String CACHED_FLAG = "CACHED_DECISION";
+
+    /** Produces the pipeline's future for a transaction that is neither cached nor in flight. */
+    @FunctionalInterface
+    public interface AsyncLoader {
+        CompletableFuture<FinalRuleOutput> load() throws InterruptedException;
+    }
+
+    private final Segment[] segments;
+    private final long ttlMillis;
+    private final ConcurrentHashMap<String, CompletableFuture<FinalRuleOutput>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public DecisionCache(DecisionCacheConfig config) {
+        int segmentCount = Integer.highestOneBit(Math.max(1, config.getSegments()));
+        int perSegment = Math.max(2, config.getMaxEntries() / segmentCount);
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+        this.ttlMillis = Math.max(1L, config.getTtlSeconds()) * 1000L;
+    }
+
+    /**
+     * Returns the cached decision for {@code transactionId}, joins an in-flight scoring of it,
+     * or runs {@code loader} on the calling thread and caches its result.
+     */
+    public FinalRuleOutput getOrCompute(String transactionId, Callable<FinalRuleOutput> loader) throws Exception {
+        FinalRuleOutput cached = getIfPresent(transactionId);
+        if (cached != null) return cached;
+
+        CompletableFuture<FinalRuleOutput> mine = new CompletableFuture<>();
+        CompletableFuture<FinalRuleOutput> existing = inFlight.putIfAbsent(transactionId, mine);
+        if (existing != null) {
+            coalesced.increment();
+            return replay(await(existing));
+        }
+        try {
+            // The previous leader may have finished between our lookup and claiming the slot.
+            cached = lookup(transactionId);
+            if (cached != null) {
+                mine.complete(cached);
+                return cached;
+            }
+            FinalRuleOutput output = loader.call();
+            store(transactionId, output);
+            mine.complete(output);
+            return output;
+        } catch (Exception e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(transactionId, mine);
+        }
+    }
+
+    /** Asynchronous variant of {@link #getOrCompute} for pipelined callers. */
+    public CompletableFuture<FinalRuleOutput> getOrComputeAsync(String transactionId, AsyncLoader loader) throws InterruptedException {
+        FinalRuleOutput cached = getIfPresent(transactionId);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+
+        CompletableFuture<FinalRuleOutput> mine = new CompletableFuture<>();
+        CompletableFuture<FinalRuleOutput> existing = inFlight.putIfAbsent(transactionId, mine);
+        if (existing != null) {
+            coalesced.increment();
+            return existing.thenApply(DecisionCache::replay);
+        }
+        cached = lookup(transactionId);
+        if (cached != null) {
+            mine.complete(cached);
+            inFlight.remove(transactionId, mine);
+            return mine;
+        }
+        CompletableFuture<FinalRuleOutput> computation;
+        try {
+            computation = loader.load();
+        } catch (InterruptedException | RuntimeException e) {
+            mine.completeExceptionally(e);
+            inFlight.remove(transactionId, mine);
+            throw e;
+        }
+        computation.whenComplete((output, error) -> {
+            if (error != null) {
+                mine.completeExceptionally(error);
+            } else {
+                store(transactionId, output);
+                mine.complete(output);
+            }
+            inFlight.remove(transactionId, mine);
+        });
+        return mine;
+    }
+
+    /** A copy of the cached decision, or {@code null} when absent or expired. */
+    public FinalRuleOutput getIfPresent(String transactionId) {
+        FinalRuleOutput output = lookup(transactionId);
+        if (output == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return output;
+    }
+
+    private FinalRuleOutput lookup(String transactionId) {
+        long hash = hash(transactionId);
+        FinalRuleOutput output = segmentFor(hash).get(transactionId, hash, System.currentTimeMillis());
+        return (output != null) ? replay(output) : null;
+    }
+
+    private void store(String transactionId, FinalRuleOutput output) {
+        // Failed and degraded decisions are not replayed: a retry after the overload has passed gets a full scoring.
+        if (output == null || "ERROR".equalsIgnoreCase(output.getDecision())
+                || "SHED".equalsIgnoreCase(output.getExecutionMode()) || "RULES_ONLY".equalsIgnoreCase(output.getExecutionMode())) {
+            return;
+        }
+        long hash = hash(transactionId);
+        segmentFor(hash).put(transactionId, hash, copy(output), System.currentTimeMillis() + ttlMillis);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) size += segment.size();
+        return size;
+    }
+
+    /** Counters for dashboards: hits, misses, coalesced waits, admission rejections and current size. */
+    public Map<String, Long> getStats() {
+        long rejected = 0;
+        for (Segment segment : segments) rejected += segment.rejected.sum();
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("coalesced", coalesced.sum());
+        stats.put("admissionRejected", rejected);
+        stats.put("size", (long) size());
+        return stats;
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments[(int) (hash >>> 40) & (segments.length - 1)];
+    }
+
+    private static FinalRuleOutput await(CompletableFuture<FinalRuleOutput> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) throw (Exception) cause;
+            throw e;
+        }
+    }
+
+    private static FinalRuleOutput replay(FinalRuleOutput output) {
+        FinalRuleOutput copy = copy(output);
+        if (!copy.getFlags().contains(CACHED_FLAG)) copy.addFlag(CACHED_FLAG);
+        return copy;
+    }
+
+    private static FinalRuleOutput copy(FinalRuleOutput output) {
+        FinalRuleOutput copy = new FinalRuleOutput();
+        copy.setDecision(output.getDecision());
+        copy.setOriginalMlScore(output.getOriginalMlScore());
+        copy.setFinalAdjustedScore(output.getFinalAdjustedScore());
+        copy.setReasonCodes(new ArrayList<>(output.getReasonCodes()));
+        copy.setFlags(new ArrayList<>(output.getFlags()));
+        copy.setTriggeredRuleIds(new ArrayList<>(output.getTriggeredRuleIds()));
+        copy.setExecutionMode(output.getExecutionMode());
+        return copy;
+    }
+
+    private static long hash(String key) {
+        long h = key.hashCode() * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    private static final class Entry {
+        final FinalRuleOutput output;
+        final long expiresAtMillis;
+
+        Entry(FinalRuleOutput output, long expiresAtMillis) {
+            this.output = output;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    /**
+     * One lock-guarded W-TinyLFU instance: a 1% LRU window in front of a segmented LRU
+     * (probation + 80% protected), with admission to the main area decided by the sketch.
+     */
+    private static final class Segment {
+        final ReentrantLock lock = new ReentrantLock();
+        final LinkedHashMap<String, Entry> window = new LinkedHashMap<>(16, 0.75f, true);
+        final LinkedHashMap<String, Entry> probation = new LinkedHashMap<>(16, 0.75f, true);
+        final LinkedHashMap<String, Entry> protectedArea = new LinkedHashMap<>(16, 0.75f, true);
+        final FrequencySketch sketch;
+        final int windowCapacity;
+        final int mainCapacity;
+        final int protectedCapacity;
+        final LongAdder rejected = new LongAdder();
+
+        Segment(int capacity) {
+            this.windowCapacity = Math.max(1, capacity / 100);
+            this.mainCapacity = Math.max(1, capacity - windowCapacity);
+            this.protectedCapacity = Math.max(1, mainCapacity * 4 / 5);
+            this.sketch = new FrequencySketch(capacity);
+        }
+
+        FinalRuleOutput get(String key, long hash, long now) {
+            lock.lock();
+            try {
+                sketch.increment(hash);
+                Entry entry = window.get(key);
+                if (entry == null) {
+                    entry = protectedArea.get(key);
+                }
+                if (entry == null) {
+                    entry = probation.remove(key);
+                    if (entry != null) {
+                        // A second hit promotes out of probation; the protected area's LRU drops back.
+                        protectedArea.put(key, entry);
+                        if (protectedArea.size() > protectedCapacity) {
+                            Map.Entry<String, Entry> demoted = pollEldest(protectedArea);
+                            probation.put(demoted.getKey(), demoted.getValue());
+                        }
+                    }
+                }
+                if (entry == null) return null;
+                if (entry.expiresAtMillis <= now) {
+                    window.remove(key);
+                    protectedArea.remove(key);
+                    probation.remove(key);
+                    return null;
+                }
+                return entry.output;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void put(String key, long hash, FinalRuleOutput output, long expiresAtMillis) {
+            lock.lock();
+            try {
+                Entry entry = new Entry(output, expiresAtMillis);
+                if (protectedArea.containsKey(key)) {
+                    protectedArea.put(key, entry);
+                    return;
+                }
+                if (probation.containsKey(key)) {
+                    probation.put(key, entry);
+                    return;
+                }
+                window.put(key, entry);
+                if (window.size() <= windowCapacity) return;
+
+                Map.Entry<String, Entry> candidate = pollEldest(window);
+                if (probation.size() + protectedArea.size() < mainCapacity) {
+                    probation.put(candidate.getKey(), candidate.getValue());
+                    return;
+                }
+                LinkedHashMap<String, Entry> victimArea = probation.isEmpty() ? protectedArea : probation;
+                String victimKey = victimArea.keySet().iterator().next();
+                if (sketch.frequency(hash(candidate.getKey())) > sketch.frequency(hash(victimKey))) {
+                    victimArea.remove(victimKey);
+                    probation.put(candidate.getKey(), candidate.getValue());
+                } else {
+                    rejected.increment();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return window.size() + probation.size() + protectedArea.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private static Map.Entry<String, Entry> pollEldest(LinkedHashMap<String, Entry> map) {
+            Iterator<Map.Entry<String, Entry>> it = map.entrySet().iterator();
+            Map.Entry<String, Entry> eldest = it.next();
+            Map.Entry<String, Entry> detached = Map.entry(eldest.getKey(), eldest.getValue());
+            it.remove();
+            return detached;
+        }
+    }
+
+    /**
+     * Count-min sketch of 4-bit counters, four per key, packed sixteen to a {@code long}.
+     * All counters are halved after {@code 10 * capacity} increments so that popularity ages out.
+     */
+    private static final class FrequencySketch {
+        private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final long[] table;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int capacity) {
+            this.table = new long[Math.max(8, Integer.highestOneBit(Math.max(1, capacity - 1)) << 1)];
+            this.sampleSize = 10 * Math.max(1, capacity);
+        }
+
+        int frequency(long hash) {
+            int min = 15;
+            for (int row = 0; row < 4; row++) {
+                long h = rehash(hash, row);
+                min = Math.min(min, (int) ((table[index(h)] >>> shift(row, h)) & 0xfL));
+            }
+            return min;
+        }
+
+        void increment(long hash) {
+            boolean added = false;
+            for (int row = 0; row < 4; row++) {
+                long h = rehash(hash, row);
+                int index = index(h);
+                int shift = shift(row, h);
+                if (((table[index] >>> shift) & 0xfL) < 15) {
+                    table[index] += 1L << shift;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                for (int i = 0; i < table.length; i++) {
+                    table[i] = (table[i] >>> 1) & RESET_MASK;
+                }
+                additions /= 2;
+            }
+        }
+
+        private int index(long h) {
+            return (int) (h >>> 32) & (table.length - 1);
+        }
+
+        // Each row owns four of the sixteen nibbles in a word; the low hash bits pick one of them.
+        private static int shift(int row, long h) {
+            return ((row << 2) + (int) (h & 3)) << 2;
+        }
+
+        private static long rehash(long hash, int row) {
+            long h = (hash + SEEDS[row]) * SEEDS[row];
+            return h ^ (h >>> 31);
+        }
+    }
+}
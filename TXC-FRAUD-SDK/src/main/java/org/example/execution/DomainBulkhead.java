@@ -0,0 +1,292 @@
+package org.example.execution;
+
+import org.example.definition.DomainConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.http.HttpClient;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Isolates one domain's work from every other domain. Each domain gets its own
+ * bounded CPU pool (preprocessing, ONNX, rules), its own bounded I/O pool and
+ * HttpClient for the scorer call, and an overall in-flight limit, so a slow
+ * scorer or a burst of traffic in one domain cannot starve the others.
+ * <p>
+ * Stage queues are priority lanes: queued work with a higher priority is picked up
+ * first, and FIFO order is kept within the same priority.
+ * <p>
+ * In virtual-thread mode the I/O stage runs each scorer call on its own virtual thread
+ * instead of a platform pool; the I/O capacity permits then cap concurrent calls. CPU
+ * stages always stay on the bounded platform pool so ONNX and rules never run on carriers.
+ */
+public class DomainBulkhead implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(DomainBulkhead.class);
+
+    static final int DEFAULT_CPU_QUEUE_CAPACITY = 256;
+    static final int DEFAULT_IO_THREADS = 32;
+    static final int DEFAULT_IO_QUEUE_CAPACITY = 512;
+    static final int DEFAULT_MAX_IN_FLIGHT = 512;
+
+    private final String domainName;
+    private final int maxInFlight;
+    private final long admissionTimeoutMillis;
+    private final Semaphore inFlightPermits;
+    private final ThreadPoolExecutor cpuExecutor;
+    private final ExecutorService ioExecutor;
+    private final ThreadPoolExecutor ioPool; // null when I/O runs on virtual threads
+    private final int ioCapacityLimit;
+    private final int cpuQueueCapacity;
+    private final int ioQueueCapacity;
+    private final Semaphore cpuCapacity;
+    private final Semaphore ioCapacity;
+    private final AtomicLong taskSequence = new AtomicLong();
+    private final Ewma cpuStageLatencyMillis = new Ewma();
+    private final Ewma ioStageLatencyMillis = new Ewma();
+    private final HttpClient httpClient;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder degraded = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+
+    public DomainBulkhead(DomainConfig domainConfig) {
+        this(domainConfig, false);
+    }
+
+    /**
+     * @param virtualThreadIo run the scorer stage on virtual threads. Falls back to the
+     *                        platform I/O pool when the JVM does not support them.
+     */
+    public DomainBulkhead(DomainConfig domainConfig, boolean virtualThreadIo) {
+        this.domainName = domainConfig.getDomainName();
+        int cpuThreads = positiveOr(domainConfig.getCpuThreads(), Runtime.getRuntime().availableProcessors());
+        this.cpuQueueCapacity = positiveOr(domainConfig.getCpuQueueCapacity(), DEFAULT_CPU_QUEUE_CAPACITY);
+        int ioThreads = positiveOr(domainConfig.getIoThreads(), DEFAULT_IO_THREADS);
+        this.ioQueueCapacity = positiveOr(domainConfig.getIoQueueCapacity(), DEFAULT_IO_QUEUE_CAPACITY);
+        this.maxInFlight = positiveOr(domainConfig.getMaxInFlight(), DEFAULT_MAX_IN_FLIGHT);
+        this.admissionTimeoutMillis = Math.max(0L, domainConfig.getAdmissionTimeoutMillis());
+
+        this.inFlightPermits = new Semaphore(maxInFlight);
+        // Queued + running work per stage is bounded by these permits; the priority queues themselves are unbounded.
+        this.cpuCapacity = new Semaphore(cpuThreads + cpuQueueCapacity);
+        this.ioCapacityLimit = ioThreads + ioQueueCapacity;
+        this.ioCapacity = new Semaphore(ioCapacityLimit);
+        this.cpuExecutor = newPriorityPool(cpuThreads, "cpu");
+        if (virtualThreadIo && VirtualThreads.isSupported()) {
+            this.ioPool = null;
+            this.ioExecutor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+        } else {
+            if (virtualThreadIo) {
+                logger.warn("Domain [{}]: Virtual-thread execution requested but not supported on Java {}. Using platform I/O threads.",
+                        domainName, Runtime.version().feature());
+            }
+            this.ioPool = newPriorityPool(ioThreads, "io");
+            this.ioExecutor = ioPool;
+        }
+        this.httpClient = HttpClient.newHttpClient();
+
+        logger.info("Domain [{}]: Bulkhead created. cpuThreads={}, cpuQueue={}, ioThreads={}, ioQueue={}, maxInFlight={}, virtualThreadIo={}",
+                domainName, cpuThreads, cpuQueueCapacity, ioThreads, ioQueueCapacity, maxInFlight, ioPool == null);
+    }
+
+    /**
+     * Reserves an in-flight slot for one transaction. Waits at most the configured
+     * admission timeout, then rejects. Every successful call must be paired with {@link #release()}.
+     */
+    public void acquire() throws InterruptedException {
+        boolean acquired = admissionTimeoutMillis > 0
+                ? inFlightPermits.tryAcquire(admissionTimeoutMillis, TimeUnit.MILLISECONDS)
+                : inFlightPermits.tryAcquire();
+        if (!acquired) {
+            rejected.increment();
+            throw new BulkheadRejectedException(domainName, "admission",
+                    "Domain [" + domainName + "]: in-flight limit of " + maxInFlight + " reached.");
+        }
+        admitted.increment();
+    }
+
+    public void release() {
+        completed.increment();
+        inFlightPermits.release();
+    }
+
+    /** Runs a CPU-bound stage (preprocessing, ONNX, rules) on this domain's CPU pool and waits for it. */
+    public <T> T onCpu(Callable<T> stage) throws Exception {
+        return onCpu(0, stage);
+    }
+
+    public <T> T onCpu(int priority, Callable<T> stage) throws Exception {
+        return runOn(cpuExecutor, cpuCapacity, cpuStageLatencyMillis, "cpu", priority, stage);
+    }
+
+    /** Runs a blocking I/O stage (the scorer call) on this domain's I/O pool and waits for it. */
+    public <T> T onIo(Callable<T> stage) throws Exception {
+        return onIo(0, stage);
+    }
+
+    public <T> T onIo(int priority, Callable<T> stage) throws Exception {
+        return runOn(ioExecutor, ioCapacity, ioStageLatencyMillis, "io", priority, stage);
+    }
+
+    private <T> T runOn(ExecutorService executor, Semaphore capacity, Ewma latency,
+                        String stageName, int priority, Callable<T> stage) throws Exception {
+        if (!capacity.tryAcquire()) {
+            rejected.increment();
+            throw new BulkheadRejectedException(domainName, stageName,
+                    "Domain [" + domainName + "]: " + stageName + " queue is full.");
+        }
+        long startNanos = System.nanoTime();
+        PrioritizedTask<T> future = new PrioritizedTask<>(stage, priority, taskSequence.getAndIncrement(), capacity);
+        try {
+            executor.execute(future);
+        } catch (RejectedExecutionException e) {
+            capacity.release();
+            rejected.increment();
+            throw new BulkheadRejectedException(domainName, stageName,
+                    "Domain [" + domainName + "]: " + stageName + " executor is shut down.");
+        }
+        try {
+            T result = future.get();
+            latency.record((System.nanoTime() - startNanos) / 1_000_000.0);
+            return result;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) throw (Exception) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw e;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    /** The HttpClient dedicated to this domain's scorer, so connection pools are not shared across domains. */
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    public String getDomainName() {
+        return domainName;
+    }
+
+    /**
+     * Current load from 0.0 upwards: the worst of in-flight saturation and the CPU and IO
+     * queue fill ratios. Values at or above 1.0 mean new work will be rejected.
+     */
+    public double getLoadFactor() {
+        double inFlightRatio = (double) (maxInFlight - inFlightPermits.availablePermits()) / maxInFlight;
+        double cpuQueueRatio = (double) cpuExecutor.getQueue().size() / cpuQueueCapacity;
+        double ioRatio = (ioPool != null)
+                ? (double) ioPool.getQueue().size() / ioQueueCapacity
+                : (double) (ioCapacityLimit - ioCapacity.availablePermits()) / ioCapacityLimit;
+        return Math.max(inFlightRatio, Math.max(cpuQueueRatio, ioRatio));
+    }
+
+    /** Slowest of the smoothed CPU and IO stage latencies (queue wait included), in milliseconds. */
+    public double getStageLatencyMillis() {
+        return Math.max(cpuStageLatencyMillis.get(), ioStageLatencyMillis.get());
+    }
+
+    public void recordDegraded() {
+        degraded.increment();
+    }
+
+    public void recordShed() {
+        shed.increment();
+    }
+
+    public BulkheadMetrics snapshot() {
+        return new BulkheadMetrics(
+                domainName,
+                maxInFlight - inFlightPermits.availablePermits(), maxInFlight,
+                cpuExecutor.getActiveCount(), cpuExecutor.getMaximumPoolSize(), cpuExecutor.getQueue().size(), cpuQueueCapacity,
+                ioPool != null ? ioPool.getActiveCount() : ioCapacityLimit - ioCapacity.availablePermits(),
+                ioPool != null ? ioPool.getMaximumPoolSize() : ioCapacityLimit,
+                ioPool != null ? ioPool.getQueue().size() : 0,
+                ioPool != null ? ioQueueCapacity : 0,
+                admitted.sum(), rejected.sum(), completed.sum(), degraded.sum(), shed.sum(),
+                cpuStageLatencyMillis.get(), ioStageLatencyMillis.get());
+    }
+
+    @Override
+    public void close() {
+        cpuExecutor.shutdownNow();
+        ioExecutor.shutdownNow();
+        logger.info("Domain [{}]: Bulkhead executors shut down.", domainName);
+    }
+
+    private ThreadPoolExecutor newPriorityPool(int threads, String stageName) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<>(), namedDaemonThreads(stageName),
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private ThreadFactory namedDaemonThreads(String stageName) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "fraud-sdk-" + domainName + "-" + stageName + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static int positiveOr(int value, int fallback) {
+        return value > 0 ? value : fallback;
+    }
+
+    /**
+     * A stage task ordered by priority (highest first), then by submission order.
+     * Releases its stage capacity permit once it completes or is cancelled.
+     */
+    private static final class PrioritizedTask<T> extends FutureTask<T> implements Comparable<PrioritizedTask<?>> {
+        private final int priority;
+        private final long sequence;
+        private final Semaphore capacity;
+
+        PrioritizedTask(Callable<T> callable, int priority, long sequence, Semaphore capacity) {
+            super(callable);
+            this.priority = priority;
+            this.sequence = sequence;
+            this.capacity = capacity;
+        }
+
+        @Override
+        public int compareTo(PrioritizedTask<?> other) {
+            int byPriority = Integer.compare(other.priority, this.priority);
+            return byPriority != 0 ? byPriority : Long.compare(this.sequence, other.sequence);
+        }
+
+        @Override
+        protected void done() {
+            capacity.release();
+        }
+    }
+
+    /** Lock-free exponentially weighted moving average. */
+    private static final class Ewma {
+        private static final double ALPHA = 0.1;
+        private final AtomicLong bits = new AtomicLong(Double.doubleToLongBits(0.0));
+
+        void record(double sample) {
+            long current;
+            long updated;
+            do {
+                current = bits.get();
+                double value = Double.longBitsToDouble(current);
+                updated = Double.doubleToLongBits(value == 0.0 ? sample : value + ALPHA * (sample - value));
+            } while (!bits.compareAndSet(current, updated));
+        }
+
+        double get() {
+            return Double.longBitsToDouble(bits.get());
+        }
+    }
+}
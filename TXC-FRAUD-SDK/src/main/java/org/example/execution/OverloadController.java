@@ -0,0 +1,71 @@
+package org.example.execution;
+
+import org.example.definition.DomainInput;
+import org.example.definition.OverloadPolicy;
+
+/**
+ * Decides, per transaction, whether the SDK runs the full pipeline, falls back to
+ * rules-only evaluation, or sheds the transaction, based on the {@link OverloadPolicy}
+ * and the live load of the domain's {@link DomainBulkhead}.
+ */
+public class OverloadController {
+
+    public enum Action {
+        /** Preprocess, vectorize, call the scorer and evaluate rules. */
+        FULL,
+        /** Skip ONNX and the scorer; evaluate rules against the policy's fallback score. */
+        RULES_ONLY,
+        /** Do no work at all and return the policy's shed decision. */
+        SHED
+    }
+
+    private final OverloadPolicy policy;
+
+    public OverloadController(OverloadPolicy policy) {
+        this.policy = (policy != null) ? policy : new OverloadPolicy();
+    }
+
+    /**
+     * Priority of a transaction: its domain's base priority, boosted when the amount
+     * reaches the high-value threshold. Higher runs first in the bulkhead queues.
+     */
+    public int priorityOf(String domainName, DomainInput input) {
+        int priority = policy.getDomainPriorities() != null
+                ? policy.getDomainPriorities().getOrDefault(domainName, 0)
+                : 0;
+        if (input != null && input.getTransactionAmount() >= policy.getHighValueAmountThreshold()) {
+            priority += policy.getHighValuePriorityBoost();
+        }
+        return priority;
+    }
+
+    public boolean isProtected(int priority) {
+        return !policy.isEnabled() || priority >= policy.getProtectedPriority();
+    }
+
+    public Action assess(int priority, DomainBulkhead bulkhead) {
+        if (isProtected(priority)) {
+            return Action.FULL;
+        }
+        double load = currentLoad(bulkhead);
+        if (load >= policy.getShedLoadThreshold()) {
+            return Action.SHED;
+        }
+        if (load >= policy.getDegradeLoadThreshold()) {
+            return Action.RULES_ONLY;
+        }
+        return Action.FULL;
+    }
+
+    private double currentLoad(DomainBulkhead bulkhead) {
+        double load = bulkhead.getLoadFactor();
+        if (policy.getStageLatencyBudgetMillis() > 0) {
+            load = Math.max(load, bulkhead.getStageLatencyMillis() / policy.getStageLatencyBudgetMillis());
+        }
+        return load;
+    }
+
+    public OverloadPolicy getPolicy() {
+        return policy;
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.execution;
+
+/**
+ * Sizing for a pipelined scorer: dedicated lanes per stage and the capacity of each
+ * hand-off queue. The scoring stage is I/O-bound and usually needs far more lanes
+ * than the CPU-bound stages.
+ */
+public class PipelineOptions {
+    private int preprocessLanes = 2;
+    private int vectorizeLanes = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    private int scoringLanes = 32;
+    private int ruleLanes = 2;
+    private int queueCapacity = 1024;
+    private boolean preserveUserOrder = true;
+
+    public PipelineOptions() {
+    }
+
+    // Getters
+    public int getPreprocessLanes() { return preprocessLanes; }
+    public int getVectorizeLanes() { return vectorizeLanes; }
+    public int getScoringLanes() { return scoringLanes; }
+    public int getRuleLanes() { return ruleLanes; }
+    public int getQueueCapacity() { return queueCapacity; }
+    public boolean isPreserveUserOrder() { return preserveUserOrder; }
+
+    // Setters
+    public void setPreprocessLanes(int preprocessLanes) { this.preprocessLanes = preprocessLanes; }
+    public void setVectorizeLanes(int vectorizeLanes) { this.vectorizeLanes = vectorizeLanes; }
+    public void setScoringLanes(int scoringLanes) { this.scoringLanes = scoringLanes; }
+    public void setRuleLanes(int ruleLanes) { this.ruleLanes = ruleLanes; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+    public void setPreserveUserOrder(boolean preserveUserOrder) { this.preserveUserOrder = preserveUserOrder; }
+}
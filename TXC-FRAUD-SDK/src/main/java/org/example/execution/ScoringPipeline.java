@@ -0,0 +1,45 @@
+package org.example.execution;
+
+import org.example.definition.DomainInput;
+import org.example.rules.FinalRuleOutput;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A long-lived, pipelined scorer for one domain, obtained from
+ * {@code FraudDetectionSDK.openPipeline}. Preprocessing, vectorization, the scorer
+ * call and rule evaluation run concurrently on dedicated stages.
+ */
+public interface ScoringPipeline extends AutoCloseable {
+
+    /**
+     * Hands one transaction to the pipeline. Blocks while the first stage is full.
+     * With {@code preserveUserOrder}, results for the same user complete in submission order.
+     */
+    CompletableFuture<FinalRuleOutput> submit(DomainInput domainInput,
+                                              Map<String, Object> optionalClientSuppliedContext) throws InterruptedException;
+
+    /**
+     * Hands a batch of transactions to the pipeline and returns one future per input, in input
+     * order. Implementations may preprocess and vectorize the batch as a whole; the default
+     * simply submits each transaction.
+     */
+    default List<CompletableFuture<FinalRuleOutput>> submitBatch(List<? extends DomainInput> inputs,
+                                                                 Map<String, Object> optionalClientSuppliedContext) throws InterruptedException {
+        List<CompletableFuture<FinalRuleOutput>> results = new ArrayList<>(inputs.size());
+        for (DomainInput domainInput : inputs) {
+            results.add(submit(domainInput, optionalClientSuppliedContext));
+        }
+        return results;
+    }
+
+    /** Depth of each stage's hand-off queues, in stage order. */
+    Map<String, Integer> getStageQueueDepths();
+
+    /** Drains everything already submitted, then stops the stage threads. */
+    @Override
+    void close();
+}
@@ -0,0 +1,257 @@
+package org.example.execution;
+
+import org.example.definition.DomainInput;
+import org.example.rules.FinalRuleOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Connects a transaction stream directly to a {@link ScoringPipeline} with demand-driven
+ * back-pressure. The processor only requests from upstream what fits within
+ * {@code maxInFlight}, counting results that the downstream subscriber has not asked
+ * for yet, so a slow consumer throttles the producer instead of growing a queue.
+ * <p>
+ * In ordered mode results are emitted in the order inputs arrived; in unordered mode
+ * they are emitted as soon as they are scored. A transaction that fails to score is
+ * emitted as an {@code ERROR} decision rather than terminating the stream.
+ */
+public class ScoringProcessor implements Flow.Processor<DomainInput, FinalRuleOutput> {
+    private static final Logger logger = LoggerFactory.getLogger(ScoringProcessor.class);
+
+    private final String domainName;
+    private final ScoringPipeline pipeline;
+    private final int maxInFlight;
+    private final int requestBatchSize;
+    private final boolean ordered;
+
+    private final AtomicBoolean downstreamAssigned = new AtomicBoolean();
+    private volatile Flow.Subscriber<? super FinalRuleOutput> downstream;
+    private volatile Flow.Subscription upstream;
+    private final AtomicLong downstreamDemand = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+    private final ConcurrentHashMap<Long, FinalRuleOutput> completedBySequence = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<FinalRuleOutput> completedQueue = new ConcurrentLinkedQueue<>();
+    private volatile boolean upstreamDone;
+    private volatile Throwable upstreamError;
+    private volatile Throwable protocolError;
+    private volatile boolean cancelled;
+
+    // onNext is serialized by the Reactive Streams contract, so this needs no synchronization.
+    private long nextSequence;
+
+    // Only touched inside drain(), which the work-in-progress counter serializes.
+    private final AtomicInteger wip = new AtomicInteger();
+    private long emitted;
+    private long requestedUpstream;
+    private long nextToEmit;
+    private boolean terminated;
+
+    public ScoringProcessor(String domainName, ScoringPipeline pipeline, StreamProcessorOptions options) {
+        this.domainName = domainName;
+        this.pipeline = pipeline;
+        this.maxInFlight = Math.max(1, options.getMaxInFlight());
+        this.requestBatchSize = Math.max(1, Math.min(options.getRequestBatchSize(), maxInFlight));
+        this.ordered = options.isOrdered();
+    }
+
+    // --- Subscriber side (from the transaction source) ---
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (upstream != null) {
+            subscription.cancel();
+            return;
+        }
+        upstream = subscription;
+        drain();
+    }
+
+    @Override
+    public void onNext(DomainInput domainInput) {
+        long sequence = nextSequence++;
+        received.incrementAndGet();
+        try {
+            pipeline.submit(domainInput, null).whenComplete((output, error) -> {
+                if (error != null) {
+                    logger.error("Domain [{}]: Streamed transaction #{} failed to score.", domainName, sequence, error);
+                }
+                complete(sequence, error == null ? output : errorOutput());
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            complete(sequence, errorOutput());
+        } catch (RuntimeException e) {
+            logger.error("Domain [{}]: Streamed transaction #{} was rejected.", domainName, sequence, e);
+            complete(sequence, errorOutput());
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        upstreamError = throwable;
+        upstreamDone = true;
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        upstreamDone = true;
+        drain();
+    }
+
+    // --- Publisher side (to the decision consumer) ---
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super FinalRuleOutput> subscriber) {
+        if (!downstreamAssigned.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override public void request(long n) { }
+                @Override public void cancel() { }
+            });
+            subscriber.onError(new IllegalStateException("ScoringProcessor supports a single subscriber."));
+            return;
+        }
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                if (n <= 0) {
+                    // Reactive Streams 3.9: signal onError rather than cancelling silently.
+                    protocolError = new IllegalArgumentException("Subscriber requested " + n + " items; demand must be positive.");
+                    drain();
+                    return;
+                }
+                downstreamDemand.getAndAccumulate(n, (current, add) -> {
+                    long sum = current + add;
+                    return sum < 0 ? Long.MAX_VALUE : sum;
+                });
+                drain();
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+                drain();
+            }
+        });
+        downstream = subscriber;
+        drain();
+    }
+
+    private void complete(long sequence, FinalRuleOutput output) {
+        if (ordered) {
+            completedBySequence.put(sequence, output);
+        } else {
+            completedQueue.add(output);
+        }
+        drain();
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            if (!terminated) {
+                if (protocolError != null) {
+                    // A bad request() from inside onSubscribe arrives before downstream is set;
+                    // the drain() that follows the assignment delivers the error.
+                    if (downstream != null) {
+                        terminate(protocolError, true);
+                    }
+                } else if (cancelled) {
+                    terminate(null, false);
+                } else {
+                    emitReady();
+                    requestMoreFromUpstream();
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void emitReady() {
+        Flow.Subscriber<? super FinalRuleOutput> subscriber = downstream;
+        if (subscriber == null) {
+            return;
+        }
+        long demand = downstreamDemand.get();
+        long sent = 0;
+        while (sent < demand) {
+            FinalRuleOutput next = ordered ? completedBySequence.remove(nextToEmit) : completedQueue.poll();
+            if (next == null) {
+                break;
+            }
+            if (ordered) {
+                nextToEmit++;
+            }
+            subscriber.onNext(next);
+            sent++;
+            emitted++;
+        }
+        if (sent > 0 && demand != Long.MAX_VALUE) {
+            downstreamDemand.addAndGet(-sent);
+        }
+        if (upstreamDone && emitted == received.get()) {
+            terminate(upstreamError, true);
+        }
+    }
+
+    private void requestMoreFromUpstream() {
+        Flow.Subscription subscription = upstream;
+        if (terminated || upstreamDone || subscription == null) {
+            return;
+        }
+        // Everything requested but not yet emitted downstream counts against the in-flight budget.
+        long credit = maxInFlight - (requestedUpstream - emitted);
+        if (credit >= requestBatchSize || (requestedUpstream == 0 && credit > 0)) {
+            requestedUpstream += credit;
+            subscription.request(credit);
+        }
+    }
+
+    private void terminate(Throwable error, boolean signalDownstream) {
+        terminated = true;
+        Flow.Subscription subscription = upstream;
+        if (subscription != null && !upstreamDone) {
+            subscription.cancel();
+        }
+        // Closing waits for the pipeline's lanes, and drain() may be running on one of them.
+        CompletableFuture.runAsync(pipeline::close);
+        completedBySequence.clear();
+        completedQueue.clear();
+        Flow.Subscriber<? super FinalRuleOutput> subscriber = downstream;
+        if (signalDownstream && subscriber != null) {
+            if (error != null) {
+                subscriber.onError(error);
+            } else {
+                subscriber.onComplete();
+            }
+        }
+    }
+
+    private static FinalRuleOutput errorOutput() {
+        FinalRuleOutput output = new FinalRuleOutput();
+        output.setDecision("ERROR");
+        output.addReasonCode("STREAM_PROCESSING_FAILED");
+        return output;
+    }
+
+    /** Number of transactions accepted from upstream but not yet emitted downstream. */
+    public long getInFlight() {
+        return received.get() - emitted;
+    }
+
+    public Map<String, Integer> getStageQueueDepths() {
+        return pipeline.getStageQueueDepths();
+    }
+}
@@ -0,0 +1,137 @@
+package org.example.execution;
+
+import org.example.definition.ShadowEvaluationConfig;
+import org.example.rules.FinalRuleOutput;
+import org.example.rules.RuleNetwork;
+import org.example.rules.TransactionRuleContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Evaluates a domain's shadow rule set on the same {@link TransactionRuleContext} as its live
+ * rules and counts where the two disagree. The live outcome is captured on the request thread
+ * (three fields, no rule work); the shadow rules run on a small background pool, so they add
+ * nothing to response latency. When that pool's queue is full the evaluation is dropped and
+ * counted, never waited for.
+ * <p>
+ * Nothing is logged per transaction: differences in decision, flags and adjusted score are
+ * aggregated into counters, with decision changes broken down as {@code "LIVE -> SHADOW"}.
+ */
+public class ShadowRuleEvaluator implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ShadowRuleEvaluator.class);
+
+    private final String domainName;
+    private final RuleNetwork shadowRules;
+    private final double sampleRate;
+    private final double scoreTolerance;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder evaluated = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder decisionMismatches = new LongAdder();
+    private final LongAdder flagMismatches = new LongAdder();
+    private final LongAdder scoreMismatches = new LongAdder();
+    private final ConcurrentHashMap<String, LongAdder> decisionChanges = new ConcurrentHashMap<>();
+
+    public ShadowRuleEvaluator(String domainName, RuleNetwork shadowRules, ShadowEvaluationConfig config) {
+        this.domainName = domainName;
+        this.shadowRules = shadowRules;
+        this.sampleRate = config.getSampleRate();
+        this.scoreTolerance = config.getScoreTolerance();
+        int threads = Math.max(1, config.getThreads());
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "fraud-sdk-" + domainName + "-shadow-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        logger.info("Domain [{}]: Evaluating {} shadow rules on {} traffic.",
+                domainName, shadowRules.getRuleCount(), sampleRate >= 1.0 ? "all" : String.format("%.2f%% of", sampleRate * 100));
+    }
+
+    /**
+     * Queues a shadow evaluation of {@code context}, if sampled. Must be called with the raw
+     * output of the live rules, before the caller post-processes it.
+     */
+    public void submit(TransactionRuleContext context, FinalRuleOutput liveOutput) {
+        if (sampleRate < 1.0 && (sampleRate <= 0.0 || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return;
+        }
+        String liveDecision = String.valueOf(liveOutput.getDecision());
+        List<String> liveFlags = new ArrayList<>(liveOutput.getFlags());
+        double liveScore = liveOutput.getFinalAdjustedScore();
+        try {
+            executor.execute(() -> compare(context, liveDecision, liveFlags, liveScore));
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+        }
+    }
+
+    private void compare(TransactionRuleContext context, String liveDecision, List<String> liveFlags, double liveScore) {
+        FinalRuleOutput shadow;
+        try {
+            shadow = shadowRules.execute(context);
+        } catch (RuntimeException e) {
+            if (failed.sum() == 0) {
+                logger.warn("Domain [{}]: Shadow rule evaluation failed; further failures are only counted.", domainName, e);
+            }
+            failed.increment();
+            return;
+        }
+        evaluated.increment();
+        String shadowDecision = String.valueOf(shadow.getDecision());
+        if (!liveDecision.equals(shadowDecision)) {
+            decisionMismatches.increment();
+            decisionChanges.computeIfAbsent(liveDecision + " -> " + shadowDecision, k -> new LongAdder()).increment();
+        }
+        if (!new HashSet<>(liveFlags).equals(new HashSet<>(shadow.getFlags()))) {
+            flagMismatches.increment();
+        }
+        if (Math.abs(liveScore - shadow.getFinalAdjustedScore()) > scoreTolerance) {
+            scoreMismatches.increment();
+        }
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("evaluated", evaluated.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("failed", failed.sum());
+        stats.put("pending", (long) executor.getQueue().size());
+        stats.put("decisionMismatches", decisionMismatches.sum());
+        stats.put("flagMismatches", flagMismatches.sum());
+        stats.put("scoreMismatches", scoreMismatches.sum());
+        Map<String, Long> changes = new TreeMap<>();
+        decisionChanges.forEach((transition, count) -> changes.put(transition, count.sum()));
+        changes.forEach((transition, count) -> stats.put("decisionChange." + transition, count));
+        return stats;
+    }
+
+    public RuleNetwork getShadowRules() {
+        return shadowRules;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,218 @@
+package org.example.execution;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A fixed chain of stages connected by bounded hand-off queues, in the spirit of a
+ * disruptor: every stage has its own dedicated threads ("lanes"), so while one item
+ * waits on I/O in a later stage, earlier stages keep the CPUs busy with the next items.
+ * <p>
+ * Each lane is a single thread with its own queue. Items submitted with an ordering key
+ * are routed to the same lane index at every stage, which preserves submission order
+ * per key end to end. Unkeyed items are spread round-robin. A full queue blocks the
+ * upstream stage (and ultimately {@link #submit}), which is the pipeline's back-pressure.
+ *
+ * @param <T> the mutable job object passed from stage to stage.
+ */
+public class StagePipeline<T> implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(StagePipeline.class);
+
+    /** One step of the pipeline. Returns {@code false} when the job is finished early and later stages must be skipped. */
+    @FunctionalInterface
+    public interface Stage<T> {
+        boolean process(T job) throws Exception;
+    }
+
+    public static final class StageSpec<T> {
+        final String name;
+        final int lanes;
+        final Stage<T> stage;
+
+        public StageSpec(String name, int lanes, Stage<T> stage) {
+            if (lanes <= 0) throw new IllegalArgumentException("Stage '" + name + "' needs at least one lane.");
+            this.name = name;
+            this.lanes = lanes;
+            this.stage = stage;
+        }
+    }
+
+    private static final class Envelope<T> {
+        final T job;
+        final int routingHash;
+        final CompletableFuture<T> completion;
+
+        Envelope(T job, int routingHash, CompletableFuture<T> completion) {
+            this.job = job;
+            this.routingHash = routingHash;
+            this.completion = completion;
+        }
+    }
+
+    // Sentinel that drains the pipeline on close(): a lane exits once every upstream lane has sent it one.
+    private static final Envelope<?> POISON = new Envelope<>(null, 0, null);
+
+    private final String name;
+    private final List<StageSpec<T>> specs;
+    private final List<List<BlockingQueue<Envelope<T>>>> queues = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private final AtomicInteger roundRobin = new AtomicInteger();
+    private final CountDownLatch terminated;
+    // Submitters share the read lock; close() takes the write lock so no job can slip in behind the drain sentinel.
+    private final ReentrantReadWriteLock submitLock = new ReentrantReadWriteLock();
+    private volatile boolean closed = false;
+
+    public StagePipeline(String name, List<StageSpec<T>> specs, int queueCapacity) {
+        if (specs.isEmpty()) throw new IllegalArgumentException("A pipeline needs at least one stage.");
+        this.name = name;
+        this.specs = new ArrayList<>(specs);
+
+        int totalLanes = 0;
+        for (StageSpec<T> spec : this.specs) {
+            List<BlockingQueue<Envelope<T>>> stageQueues = new ArrayList<>(spec.lanes);
+            for (int lane = 0; lane < spec.lanes; lane++) {
+                stageQueues.add(new ArrayBlockingQueue<>(queueCapacity));
+            }
+            queues.add(stageQueues);
+            totalLanes += spec.lanes;
+        }
+        this.terminated = new CountDownLatch(totalLanes);
+
+        for (int stageIndex = 0; stageIndex < this.specs.size(); stageIndex++) {
+            int upstreamLanes = (stageIndex == 0) ? 1 : this.specs.get(stageIndex - 1).lanes;
+            for (int lane = 0; lane < this.specs.get(stageIndex).lanes; lane++) {
+                int s = stageIndex;
+                int l = lane;
+                Thread thread = new Thread(() -> runLane(s, l, upstreamLanes),
+                        "fraud-sdk-pipeline-" + name + "-" + this.specs.get(stageIndex).name + "-" + lane);
+                thread.setDaemon(true);
+                threads.add(thread);
+            }
+        }
+        threads.forEach(Thread::start);
+        logger.info("Pipeline [{}]: started {} stages / {} lanes, queue capacity {}.", name, this.specs.size(), totalLanes, queueCapacity);
+    }
+
+    /**
+     * Enqueues a job at the first stage, blocking while that stage's lane is full.
+     *
+     * @param orderingKey jobs with equal keys complete in submission order; {@code null} for no ordering.
+     */
+    public CompletableFuture<T> submit(T job, Object orderingKey) throws InterruptedException {
+        submitLock.readLock().lockInterruptibly();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Pipeline [" + name + "] is closed.");
+            }
+            int routingHash = (orderingKey != null) ? spread(orderingKey.hashCode()) : roundRobin.getAndIncrement();
+            CompletableFuture<T> completion = new CompletableFuture<>();
+            enqueue(0, new Envelope<>(job, routingHash, completion));
+            return completion;
+        } finally {
+            submitLock.readLock().unlock();
+        }
+    }
+
+    private void runLane(int stageIndex, int lane, int upstreamLanes) {
+        StageSpec<T> spec = specs.get(stageIndex);
+        BlockingQueue<Envelope<T>> queue = queues.get(stageIndex).get(lane);
+        boolean lastStage = stageIndex == specs.size() - 1;
+        int poisonSeen = 0;
+        try {
+            while (true) {
+                Envelope<T> envelope = queue.take();
+                if (envelope == POISON) {
+                    if (++poisonSeen == upstreamLanes) {
+                        if (!lastStage) {
+                            for (int next = 0; next < specs.get(stageIndex + 1).lanes; next++) {
+                                queues.get(stageIndex + 1).get(next).put(poison());
+                            }
+                        }
+                        return;
+                    }
+                    continue;
+                }
+
+                boolean proceed;
+                try {
+                    proceed = spec.stage.process(envelope.job);
+                } catch (Exception e) {
+                    envelope.completion.completeExceptionally(e);
+                    continue;
+                }
+                if (!proceed || lastStage) {
+                    envelope.completion.complete(envelope.job);
+                } else {
+                    enqueue(stageIndex + 1, envelope);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            terminated.countDown();
+        }
+    }
+
+    private void enqueue(int stageIndex, Envelope<T> envelope) throws InterruptedException {
+        List<BlockingQueue<Envelope<T>>> stageQueues = queues.get(stageIndex);
+        stageQueues.get(Math.floorMod(envelope.routingHash, stageQueues.size())).put(envelope);
+    }
+
+    /** Current depth of every stage's hand-off queues (summed over lanes), in stage order. */
+    public Map<String, Integer> getStageQueueDepths() {
+        Map<String, Integer> depths = new LinkedHashMap<>();
+        for (int i = 0; i < specs.size(); i++) {
+            depths.put(specs.get(i).name, queues.get(i).stream().mapToInt(BlockingQueue::size).sum());
+        }
+        return depths;
+    }
+
+    /**
+     * Stops accepting new jobs, lets everything already submitted drain through all stages,
+     * and waits for the lane threads to exit.
+     */
+    @Override
+    public void close() {
+        try {
+            submitLock.writeLock().lockInterruptibly();
+            try {
+                if (closed) return;
+                closed = true;
+                for (BlockingQueue<Envelope<T>> firstStageQueue : queues.get(0)) {
+                    firstStageQueue.put(poison());
+                }
+            } finally {
+                submitLock.writeLock().unlock();
+            }
+            if (!terminated.await(30, TimeUnit.SECONDS)) {
+                logger.warn("Pipeline [{}]: lanes did not drain within 30s; interrupting.", name);
+                threads.forEach(Thread::interrupt);
+            }
+        } catch (InterruptedException e) {
+            threads.forEach(Thread::interrupt);
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Pipeline [{}]: closed.", name);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Envelope<T> poison() {
+        return (Envelope<T>) POISON;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
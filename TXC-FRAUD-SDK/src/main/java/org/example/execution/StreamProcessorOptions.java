@@ -0,0 +1,29 @@
+package org.example.execution;
+
+/**
+ * Settings for the SDK's {@code Flow.Processor}. {@code maxInFlight} bounds everything the
+ * processor holds (being scored plus scored-but-not-yet-emitted), so memory stays flat
+ * however fast the upstream publisher is. Upstream demand is replenished in chunks of
+ * {@code requestBatchSize} rather than one item at a time.
+ */
+public class StreamProcessorOptions {
+    private int maxInFlight = 256;
+    private int requestBatchSize = 32;
+    private boolean ordered = true;
+    private PipelineOptions pipelineOptions = new PipelineOptions();
+
+    public StreamProcessorOptions() {
+    }
+
+    // Getters
+    public int getMaxInFlight() { return maxInFlight; }
+    public int getRequestBatchSize() { return requestBatchSize; }
+    public boolean isOrdered() { return ordered; }
+    public PipelineOptions getPipelineOptions() { return pipelineOptions; }
+
+    // Setters
+    public void setMaxInFlight(int maxInFlight) { this.maxInFlight = maxInFlight; }
+    public void setRequestBatchSize(int requestBatchSize) { this.requestBatchSize = requestBatchSize; }
+    public void setOrdered(boolean ordered) { this.ordered = ordered; }
+    public void setPipelineOptions(PipelineOptions pipelineOptions) { this.pipelineOptions = pipelineOptions; }
+}
@@ -0,0 +1,227 @@
+package org.example.features;
+
+import org.example.definition.BankTransactionInput;
+import org.example.definition.BehaviouralFeatureConfig;
+import org.example.definition.DomainInput;
+import org.example.definition.ECommerceTransactionInput;
+import org.example.definition.MobileMoneyTransactionInput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps per-user running state (sliding-window count, running mean, last-seen time) from
+ * the transactions flowing through the SDK, so clients no longer need a database lookup
+ * to compute velocity and user-average features before every call.
+ * <p>
+ * Users are spread over lock-striped shards; each shard is an access-ordered LRU map,
+ * so memory is bounded by {@code maxUsers} and idle users expire after the TTL. Updates
+ * for different users on different shards never contend.
+ */
+public class BehaviouralFeatureEngine {
+    private static final Logger logger = LoggerFactory.getLogger(BehaviouralFeatureEngine.class);
+
+    // Upper bound on timestamps kept per user for the velocity window; heavier users saturate at this count.
+    static final int MAX_WINDOW_EVENTS = 256;
+    private static final int SWEEP_EVERY_UPDATES = 1024;
+
+    private static final class UserState {
+        long count;
+        double mean;
+        long lastEventMillis;
+        long lastTouchedMillis;
+        long[] window = new long[8];
+        int windowStart;
+        int windowSize;
+
+        void addToWindow(long eventMillis) {
+            if (windowSize == window.length) {
+                if (window.length < MAX_WINDOW_EVENTS) {
+                    long[] grown = new long[window.length * 2];
+                    for (int i = 0; i < windowSize; i++) {
+                        grown[i] = window[(windowStart + i) % window.length];
+                    }
+                    window = grown;
+                    windowStart = 0;
+                } else {
+                    windowStart = (windowStart + 1) % window.length;
+                    windowSize--;
+                }
+            }
+            window[(windowStart + windowSize) % window.length] = eventMillis;
+            windowSize++;
+        }
+
+        int countSince(long fromExclusive, long toInclusive) {
+            int n = 0;
+            for (int i = 0; i < windowSize; i++) {
+                long t = window[(windowStart + i) % window.length];
+                if (t > fromExclusive && t <= toInclusive) n++;
+            }
+            return n;
+        }
+
+        void evictBefore(long fromExclusive) {
+            while (windowSize > 0 && window[windowStart] <= fromExclusive) {
+                windowStart = (windowStart + 1) % window.length;
+                windowSize--;
+            }
+        }
+    }
+
+    private static final class Shard {
+        final ReentrantLock lock = new ReentrantLock();
+        final LinkedHashMap<String, UserState> users;
+        int updatesSinceSweep;
+
+        Shard(int maxUsers) {
+            this.users = new LinkedHashMap<String, UserState>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, UserState> eldest) {
+                    return size() > maxUsers;
+                }
+            };
+        }
+    }
+
+    private final String domainName;
+    private final Shard[] shards;
+    private final long ttlMillis;
+    private final long windowMillis;
+    private final boolean useEventTime;
+    private final long firstSecondsSinceLast;
+
+    public BehaviouralFeatureEngine(String domainName, BehaviouralFeatureConfig config) {
+        this.domainName = domainName;
+        int shardCount = Integer.highestOneBit(Math.max(1, config.getShards()));
+        int maxUsersPerShard = Math.max(1, config.getMaxUsers() / shardCount);
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(maxUsersPerShard);
+        }
+        this.ttlMillis = config.getUserTtlSeconds() * 1000L;
+        this.windowMillis = config.getVelocityWindowSeconds() * 1000L;
+        this.useEventTime = config.isUseEventTime();
+        this.firstSecondsSinceLast = (config.getFirstTransactionSecondsSinceLast() != null)
+                ? config.getFirstTransactionSecondsSinceLast()
+                : defaultFirstSecondsSinceLast(domainName);
+        logger.info("Domain [{}]: Behavioural feature engine enabled ({} shards, {} users max, {}s velocity window).",
+                domainName, shardCount, (long) maxUsersPerShard * shardCount, config.getVelocityWindowSeconds());
+    }
+
+    /**
+     * Records one transaction and returns the user's features including it. Events that
+     * arrive out of order are counted but never move the last-seen time backwards.
+     */
+    public UserActivity record(String userId, double amount, long eventMillis) {
+        long now = System.currentTimeMillis();
+        Shard shard = shards[spread(userId.hashCode()) & (shards.length - 1)];
+        shard.lock.lock();
+        try {
+            UserState state = shard.users.get(userId);
+            if (state != null && now - state.lastTouchedMillis > ttlMillis) {
+                state = null;
+            }
+            if (state == null) {
+                state = new UserState();
+                shard.users.put(userId, state);
+            }
+
+            long secondsSinceLast = (state.count == 0) ? firstSecondsSinceLast : Math.max(0L, (eventMillis - state.lastEventMillis) / 1000L);
+            state.count++;
+            state.mean += (amount - state.mean) / state.count;
+            state.lastEventMillis = Math.max(state.lastEventMillis, eventMillis);
+            state.lastTouchedMillis = now;
+            state.evictBefore(state.lastEventMillis - windowMillis);
+            state.addToWindow(eventMillis);
+            int velocity = state.countSince(eventMillis - windowMillis, eventMillis);
+
+            if (++shard.updatesSinceSweep >= SWEEP_EVERY_UPDATES) {
+                shard.updatesSinceSweep = 0;
+                sweepExpired(shard, now);
+            }
+            return new UserActivity(velocity, state.mean, secondsSinceLast);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * The value each training DAG gives a user's first transaction: the bank and mobile money
+     * pipelines {@code fillna(0)} after the {@code diff()}, the e-commerce pipeline fills -1.
+     */
+    private static long defaultFirstSecondsSinceLast(String domainName) {
+        return "ecommerce".equalsIgnoreCase(domainName) ? -1L : 0L;
+    }
+
+    // Access order puts the least recently touched users first, so the sweep stops at the first live one.
+    private void sweepExpired(Shard shard, long now) {
+        Iterator<UserState> it = shard.users.values().iterator();
+        while (it.hasNext()) {
+            if (now - it.next().lastTouchedMillis <= ttlMillis) break;
+            it.remove();
+        }
+    }
+
+    /**
+     * Records the transaction and fills whichever behavioural fields the client left out.
+     * Values the client did send are kept as-is.
+     */
+    public void enrich(DomainInput domainInput) {
+        String userId = domainInput.getUserId();
+        if (userId == null) {
+            return;
+        }
+        if (domainInput instanceof BankTransactionInput) {
+            BankTransactionInput input = (BankTransactionInput) domainInput;
+            UserActivity activity = record(userId, input.getTransactionAmount(), eventMillis(input.getTimestamp()));
+            if (input.getClientContext() == null) input.setClientContext(new BankTransactionInput.ClientContext());
+            BankTransactionInput.ClientContext context = input.getClientContext();
+            if (!context.hasVelocityTxnCount1h()) context.setVelocityTxnCount1h(activity.getVelocityCount());
+            if (!context.hasAvgTxnAmtForUser()) context.setAvgTxnAmtForUser(activity.getAverageAmount());
+            if (!context.hasTimeSinceLastTxnSeconds()) context.setTimeSinceLastTxnSeconds(activity.getSecondsSinceLast());
+        } else if (domainInput instanceof MobileMoneyTransactionInput) {
+            MobileMoneyTransactionInput input = (MobileMoneyTransactionInput) domainInput;
+            UserActivity activity = record(userId, input.getTransactionAmount(), eventMillis(input.getTimestamp()));
+            if (input.getClientContext() == null) input.setClientContext(new MobileMoneyTransactionInput.ClientContext());
+            MobileMoneyTransactionInput.ClientContext context = input.getClientContext();
+            if (!context.hasVelocityTxnCount1h()) context.setVelocityTxnCount1h(activity.getVelocityCount());
+            if (!context.hasAvgTxnAmtForUser()) context.setAvgTxnAmtForUser(activity.getAverageAmount());
+            if (!context.hasTimeSinceLastTxnSeconds()) context.setTimeSinceLastTxnSeconds(activity.getSecondsSinceLast());
+        } else if (domainInput instanceof ECommerceTransactionInput) {
+            ECommerceTransactionInput input = (ECommerceTransactionInput) domainInput;
+            // E-commerce inputs carry no timestamp, so they are always on the wall clock.
+            UserActivity activity = record(userId, input.getTransactionAmount(), System.currentTimeMillis());
+            if (input.getClientContext() == null) input.setClientContext(new ECommerceTransactionInput.ClientContext());
+            ECommerceTransactionInput.ClientContext context = input.getClientContext();
+            if (!context.hasAvgTxnAmtForUser()) context.setAvgTxnAmtForUser(activity.getAverageAmount());
+            if (!context.hasTimeSinceLastTxnSeconds()) context.setTimeSinceLastTxnSeconds((double) activity.getSecondsSinceLast());
+        }
+    }
+
+    /** Number of users currently tracked across all shards. */
+    public long getTrackedUsers() {
+        long total = 0;
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                total += shard.users.size();
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return total;
+    }
+
+    private long eventMillis(String timestamp) {
+        return EventTime.toEpochMillis(domainName, timestamp, useEventTime);
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
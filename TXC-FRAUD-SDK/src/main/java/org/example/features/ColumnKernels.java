@@ -0,0 +1,55 @@
+package org.example.features;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Element-wise arithmetic over feature columns, used by the handlers' batch preprocessing.
+ * Inputs are {@code double} columns and results are cast to {@code float} exactly as the
+ * row-at-a-time code does, so both paths produce bit-identical features.
+ * <p>
+ * When the SDK is built with the {@code vector-api} profile and the JVM runs with the
+ * {@code jdk.incubator.vector} module added, {@link #get()} returns SIMD kernels;
+ * otherwise it returns plain loops, which the JIT may still auto-vectorize.
+ */
+public abstract class ColumnKernels {
+    private static final Logger logger = LoggerFactory.getLogger(ColumnKernels.class);
+
+    private static final String VECTOR_IMPLEMENTATION = "org.example.features.VectorColumnKernels";
+    private static final ColumnKernels INSTANCE = load();
+
+    public static ColumnKernels get() {
+        return INSTANCE;
+    }
+
+    public static boolean isVectorized() {
+        return !(INSTANCE instanceof ScalarColumnKernels);
+    }
+
+    /** {@code out[i] = (float) values[i]}. */
+    public abstract void toFloat(double[] values, float[] out, int length);
+
+    /**
+     * {@code out[i] = (float) (numerator[i] / (denominator[i] + epsilon))}. When {@code exceeds}
+     * is not null it also receives whether the unrounded quotient is greater than {@code threshold}.
+     */
+    public abstract void divide(double[] numerator, double[] denominator, double epsilon,
+                                float[] out, boolean[] exceeds, double threshold, int length);
+
+    /** {@code out[i] = (float) (add[i] ? base[i] + delta[i] : base[i] - delta[i])}. */
+    public abstract void addOrSubtract(double[] base, double[] delta, boolean[] add, float[] out, int length);
+
+    private static ColumnKernels load() {
+        try {
+            ColumnKernels kernels = (ColumnKernels) Class.forName(VECTOR_IMPLEMENTATION).getDeclaredConstructor().newInstance();
+            logger.info("Batch preprocessing uses Vector API kernels ({}).", kernels);
+            return kernels;
+        } catch (ClassNotFoundException e) {
+            logger.debug("Vector API kernels not built into this SDK; batch preprocessing uses scalar loops.");
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Built with the profile but the JVM was started without the incubator module.
+            logger.info("Vector API unavailable ({}); batch preprocessing uses scalar loops.", e.toString());
+        }
+        return new ScalarColumnKernels();
+    }
+}
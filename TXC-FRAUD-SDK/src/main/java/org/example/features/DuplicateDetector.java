@@ -0,0 +1,207 @@
+package org.example.features;
+
+import org.example.definition.BankTransactionInput;
+import org.example.definition.DomainInput;
+import org.example.definition.DuplicateDetectionConfig;
+import org.example.definition.ECommerceTransactionInput;
+import org.example.definition.MobileMoneyTransactionInput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Flags client retries and replays. Each transaction is reduced to two 64-bit fingerprints:
+ * user + amount (in cents) + counterparty, and the same plus the timestamp. Fingerprints go
+ * into a ring of time buckets, each a fixed-size open-addressing {@code long[]}; the oldest
+ * bucket is cleared as time moves on, so a fingerprint is remembered for between
+ * {@code window} and {@code window * (1 + 1/buckets)} and memory never grows.
+ * <p>
+ * The set is striped by fingerprint, so checks for different transactions rarely contend.
+ */
+public class DuplicateDetector {
+    private static final Logger logger = LoggerFactory.getLogger(DuplicateDetector.class);
+
+    public static final String IS_DUPLICATE = "is_duplicate_txn";
+    public static final String IS_EXACT_REPLAY = "is_exact_replay_txn";
+
+    public enum Verdict { NEW, DUPLICATE, EXACT_REPLAY }
+
+    private static final int STRIPES = 32;
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final long[][] buckets;
+        final int[] sizes;
+        int current;
+        long currentStartMillis;
+
+        Stripe(int bucketCount, int slotsPerBucket, long now) {
+            this.buckets = new long[bucketCount][slotsPerBucket];
+            this.sizes = new int[bucketCount];
+            this.currentStartMillis = now;
+        }
+    }
+
+    private final String domainName;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final long bucketSpanMillis;
+    private final int bucketCount;
+    private final int ringSize;
+    private final int maxPerBucket;
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder replays = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public DuplicateDetector(String domainName, DuplicateDetectionConfig config) {
+        this.domainName = domainName;
+        this.bucketCount = Math.max(2, config.getBuckets());
+        this.bucketSpanMillis = Math.max(1L, config.getWindowSeconds() * 1000L / bucketCount);
+        // One bucket more than the window spans: the bucket being filled is only partly elapsed,
+        // so without it a fingerprint could be cleared up to one span before the window is over.
+        this.ringSize = bucketCount + 1;
+        // Each stripe takes its share of maxFingerprints per bucket, in a table at most half full.
+        int perStripe = Math.max(16, config.getMaxFingerprints() / STRIPES);
+        int slots = Integer.highestOneBit(perStripe * 2 - 1) << 1;
+        this.maxPerBucket = perStripe;
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(ringSize, slots, now);
+        }
+        logger.info("Domain [{}]: Duplicate detection enabled ({}s window, {} buckets, {} fingerprints per bucket, {} MiB).",
+                domainName, config.getWindowSeconds(), bucketCount, (long) maxPerBucket * STRIPES,
+                (long) slots * Long.BYTES * ringSize * STRIPES >> 20);
+    }
+
+    /** Classifies the transaction against the recent window and remembers it. */
+    public Verdict check(DomainInput domainInput) {
+        long near = nearFingerprint(domainInput);
+        String timestamp = timestampOf(domainInput);
+        long exact = (timestamp != null) ? mix(extend(near, timestamp)) : 0L;
+        near = mix(near);
+        return check(near, exact, System.currentTimeMillis());
+    }
+
+    Verdict check(long near, long exact, long now) {
+        Stripe stripe = stripes[(int) (near >>> 59) & (STRIPES - 1)];
+        stripe.lock.lock();
+        try {
+            rotate(stripe, now);
+            boolean seenExact = exact != 0 && contains(stripe, exact);
+            boolean seenNear = seenExact || contains(stripe, near);
+            insert(stripe, near);
+            if (exact != 0) insert(stripe, exact);
+            if (seenExact) {
+                replays.increment();
+                return Verdict.EXACT_REPLAY;
+            }
+            if (seenNear) {
+                duplicates.increment();
+                return Verdict.DUPLICATE;
+            }
+            return Verdict.NEW;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private void rotate(Stripe stripe, long now) {
+        long elapsed = (now - stripe.currentStartMillis) / bucketSpanMillis;
+        if (elapsed <= 0) return;
+        int steps = (int) Math.min(elapsed, ringSize);
+        for (int i = 0; i < steps; i++) {
+            stripe.current = (stripe.current + 1) % ringSize;
+            Arrays.fill(stripe.buckets[stripe.current], 0L);
+            stripe.sizes[stripe.current] = 0;
+        }
+        stripe.currentStartMillis += elapsed * bucketSpanMillis;
+    }
+
+    private boolean contains(Stripe stripe, long fingerprint) {
+        for (long[] bucket : stripe.buckets) {
+            int mask = bucket.length - 1;
+            for (int slot = (int) fingerprint & mask; bucket[slot] != 0; slot = (slot + 1) & mask) {
+                if (bucket[slot] == fingerprint) return true;
+            }
+        }
+        return false;
+    }
+
+    private void insert(Stripe stripe, long fingerprint) {
+        long[] bucket = stripe.buckets[stripe.current];
+        int mask = bucket.length - 1;
+        int slot = (int) fingerprint & mask;
+        while (bucket[slot] != 0) {
+            if (bucket[slot] == fingerprint) return;
+            slot = (slot + 1) & mask;
+        }
+        if (stripe.sizes[stripe.current] >= maxPerBucket) {
+            // Bucket is at its load limit: forget rather than grow. Detection degrades, memory does not.
+            dropped.increment();
+            return;
+        }
+        bucket[slot] = fingerprint;
+        stripe.sizes[stripe.current]++;
+    }
+
+    public long getDuplicates() { return duplicates.sum(); }
+    public long getExactReplays() { return replays.sum(); }
+    public long getDroppedFingerprints() { return dropped.sum(); }
+
+    // --- Fingerprints ---
+
+    private static long nearFingerprint(DomainInput domainInput) {
+        long h = extend(0xcbf29ce484222325L, domainInput.getUserId());
+        h = extend(h, Math.round(domainInput.getTransactionAmount() * 100.0));
+        if (domainInput instanceof MobileMoneyTransactionInput) {
+            MobileMoneyTransactionInput input = (MobileMoneyTransactionInput) domainInput;
+            h = extend(h, input.getRecipientId());
+            h = extend(h, input.getTransactionType());
+        } else if (domainInput instanceof BankTransactionInput) {
+            // Bank inputs carry no counterparty; type and currency are the closest proxy.
+            BankTransactionInput input = (BankTransactionInput) domainInput;
+            h = extend(h, input.getTransactionType());
+            h = extend(h, input.getCurrency());
+        } else if (domainInput instanceof ECommerceTransactionInput) {
+            ECommerceTransactionInput input = (ECommerceTransactionInput) domainInput;
+            h = extend(h, input.getProductCategory());
+            h = extend(h, input.getPaymentMethod());
+            h = extend(h, input.getShippingCountry());
+            h = extend(h, (long) input.getItemCount());
+        }
+        return h;
+    }
+
+    // E-commerce inputs have no timestamp, so they can be duplicates but never exact replays.
+    private static String timestampOf(DomainInput domainInput) {
+        if (domainInput instanceof MobileMoneyTransactionInput) return ((MobileMoneyTransactionInput) domainInput).getTimestamp();
+        if (domainInput instanceof BankTransactionInput) return ((BankTransactionInput) domainInput).getTimestamp();
+        return null;
+    }
+
+    private static long extend(long h, String value) {
+        if (value == null) return extend(h, 0L);
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= 0x1f;  // field separator, so "ab"+"c" differs from "a"+"bc"
+        return h * 0x100000001b3L;
+    }
+
+    private static long extend(long h, long value) {
+        h ^= value;
+        return h * 0x100000001b3L;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (h == 0) ? 1 : h;
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.features;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
+/** Turns an input's timestamp string into epoch millis for the stateful feature engines. */
+final class EventTime {
+    private static final Logger logger = LoggerFactory.getLogger(EventTime.class);
+
+    private EventTime() {}
+
+    /**
+     * Accepts both "yyyy-MM-dd'T'HH:mm:ss" and "yyyy-MM-dd HH:mm:ss", taken as UTC. Falls back to
+     * the wall clock when event time is disabled or the timestamp is missing or unparseable.
+     */
+    static long toEpochMillis(String domainName, String timestamp, boolean useEventTime) {
+        if (useEventTime && timestamp != null && !timestamp.isEmpty()) {
+            try {
+                return LocalDateTime.parse(timestamp.replace(' ', 'T')).toInstant(ZoneOffset.UTC).toEpochMilli();
+            } catch (DateTimeParseException e) {
+                logger.debug("Domain [{}]: Could not parse timestamp '{}'; using the wall clock.", domainName, timestamp);
+            }
+        }
+        return System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.features;
+
+import java.util.AbstractMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Preprocessed features for a batch of transactions, laid out column by column: one
+ * primitive array per numeric or boolean feature and one {@code String[]} per categorical
+ * feature, each of length {@link #size()}. Columns go straight into {@code [N, 1]} ONNX
+ * tensors; {@link #row(int)} gives rules the same {@code Map} view of one transaction that
+ * row-at-a-time preprocessing produces.
+ */
+public class FeatureBatch {
+    private final int size;
+    private final Map<String, float[]> floatColumns = new LinkedHashMap<>();
+    private final Map<String, boolean[]> booleanColumns = new LinkedHashMap<>();
+    private final Map<String, String[]> stringColumns = new LinkedHashMap<>();
+
+    public FeatureBatch(int size) {
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** The named float column, created zero-filled on first use. */
+    public float[] floatColumn(String name) {
+        return floatColumns.computeIfAbsent(name, k -> new float[size]);
+    }
+
+    public boolean[] booleanColumn(String name) {
+        return booleanColumns.computeIfAbsent(name, k -> new boolean[size]);
+    }
+
+    public String[] stringColumn(String name) {
+        return stringColumns.computeIfAbsent(name, k -> new String[size]);
+    }
+
+    public float[] getFloatColumn(String name) { return floatColumns.get(name); }
+    public boolean[] getBooleanColumn(String name) { return booleanColumns.get(name); }
+    public String[] getStringColumn(String name) { return stringColumns.get(name); }
+
+    public boolean hasColumn(String name) {
+        return floatColumns.containsKey(name) || booleanColumns.containsKey(name) || stringColumns.containsKey(name);
+    }
+
+    public Set<String> getColumnNames() {
+        Set<String> names = new LinkedHashSet<>(floatColumns.keySet());
+        names.addAll(booleanColumns.keySet());
+        names.addAll(stringColumns.keySet());
+        return names;
+    }
+
+    /**
+     * Sets one cell from a row-style feature value: numbers become floats, booleans stay
+     * booleans, anything else is stored as its string form. A {@code null} only lands in a
+     * categorical column; numeric and boolean columns cannot hold it and keep their value.
+     */
+    public void set(int row, String name, Object value) {
+        if (value instanceof Boolean) {
+            booleanColumn(name)[row] = (Boolean) value;
+        } else if (value instanceof Number) {
+            floatColumn(name)[row] = ((Number) value).floatValue();
+        } else if (value != null) {
+            stringColumn(name)[row] = value.toString();
+        } else if (!floatColumns.containsKey(name) && !booleanColumns.containsKey(name)) {
+            stringColumn(name)[row] = null;
+        }
+    }
+
+    /** The value of one cell, boxed as row-at-a-time preprocessing would have it; {@code null} for an unknown column. */
+    public Object get(int row, String name) {
+        float[] floats = floatColumns.get(name);
+        if (floats != null) return floats[row];
+        boolean[] booleans = booleanColumns.get(name);
+        if (booleans != null) return booleans[row];
+        String[] strings = stringColumns.get(name);
+        return (strings != null) ? strings[row] : null;
+    }
+
+    /** A read-only map view of one transaction's features, backed by the columns. */
+    public Map<String, Object> row(int row) {
+        return new RowView(row);
+    }
+
+    private final class RowView extends AbstractMap<String, Object> {
+        private final int row;
+
+        RowView(int row) {
+            this.row = row;
+        }
+
+        @Override
+        public Object get(Object key) {
+            return (key instanceof String) ? FeatureBatch.this.get(row, (String) key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return (key instanceof String) && hasColumn((String) key);
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            for (String name : getColumnNames()) {
+                snapshot.put(name, FeatureBatch.this.get(row, name));
+            }
+            return snapshot.entrySet();
+        }
+    }
+}
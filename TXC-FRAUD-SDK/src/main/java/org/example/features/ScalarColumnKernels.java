@@ -0,0 +1,36 @@
+package org.example.features;
+
+/** Plain-loop {@link ColumnKernels}; the fallback on every JVM. */
+final class ScalarColumnKernels extends ColumnKernels {
+
+    @Override
+    public void toFloat(double[] values, float[] out, int length) {
+        for (int i = 0; i < length; i++) {
+            out[i] = (float) values[i];
+        }
+    }
+
+    @Override
+    public void divide(double[] numerator, double[] denominator, double epsilon,
+                       float[] out, boolean[] exceeds, double threshold, int length) {
+        for (int i = 0; i < length; i++) {
+            double quotient = numerator[i] / (denominator[i] + epsilon);
+            out[i] = (float) quotient;
+            if (exceeds != null) {
+                exceeds[i] = quotient > threshold;
+            }
+        }
+    }
+
+    @Override
+    public void addOrSubtract(double[] base, double[] delta, boolean[] add, float[] out, int length) {
+        for (int i = 0; i < length; i++) {
+            out[i] = add[i] ? (float) (base[i] + delta[i]) : (float) (base[i] - delta[i]);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "scalar";
+    }
+}
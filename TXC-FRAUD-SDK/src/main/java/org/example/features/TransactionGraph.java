@@ -0,0 +1,240 @@
+package org.example.features;
+
+import org.example.definition.DomainInput;
+import org.example.definition.GraphFeatureConfig;
+import org.example.definition.MobileMoneyTransactionInput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An incremental sender -> recipient payment graph for mule detection. Every account is a
+ * node holding its in- and out-edges in parallel primitive arrays (neighbour id hash, last
+ * seen, decayed count, decayed amount), capped at {@code maxDegree} per direction by
+ * dropping the stalest edge. Nodes live in lock-striped, access-ordered LRU shards, so the
+ * graph's footprint is bounded by {@code maxNodes * maxDegree}.
+ * <p>
+ * Each transaction updates its two endpoints and returns features describing where the
+ * money is going: how many distinct senders feed the recipient, how much has flowed in
+ * recently, and how far the recipient passes money on (two-hop reach).
+ */
+public class TransactionGraph {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionGraph.class);
+
+    public static final String RECIPIENT_DISTINCT_SENDERS = "graph_recipient_distinct_senders";
+    public static final String RECIPIENT_DECAYED_IN_TXN_COUNT = "graph_recipient_decayed_in_txn_count";
+    public static final String RECIPIENT_DECAYED_INFLOW = "graph_recipient_decayed_inflow";
+    public static final String RECIPIENT_DISTINCT_RECIPIENTS = "graph_recipient_distinct_recipients";
+    public static final String RECIPIENT_TWO_HOP_REACH = "graph_recipient_two_hop_reach";
+    public static final String SENDER_DISTINCT_RECIPIENTS = "graph_sender_distinct_recipients";
+
+    private static final class Edges {
+        long[] neighbour = new long[4];
+        long[] lastSeen = new long[4];
+        double[] count = new double[4];
+        double[] amount = new double[4];
+        int size;
+
+        void add(long other, long eventMillis, double value, int maxDegree, double halfLifeMillis) {
+            for (int i = 0; i < size; i++) {
+                if (neighbour[i] == other) {
+                    double decay = decay(eventMillis - lastSeen[i], halfLifeMillis);
+                    count[i] = count[i] * decay + 1.0;
+                    amount[i] = amount[i] * decay + value;
+                    lastSeen[i] = Math.max(lastSeen[i], eventMillis);
+                    return;
+                }
+            }
+            int slot;
+            if (size < maxDegree) {
+                if (size == neighbour.length) {
+                    int grown = Math.min(maxDegree, size * 2);
+                    neighbour = Arrays.copyOf(neighbour, grown);
+                    lastSeen = Arrays.copyOf(lastSeen, grown);
+                    count = Arrays.copyOf(count, grown);
+                    amount = Arrays.copyOf(amount, grown);
+                }
+                slot = size++;
+            } else {
+                slot = 0;
+                for (int i = 1; i < size; i++) {
+                    if (lastSeen[i] < lastSeen[slot]) slot = i;
+                }
+            }
+            neighbour[slot] = other;
+            lastSeen[slot] = eventMillis;
+            count[slot] = 1.0;
+            amount[slot] = value;
+        }
+    }
+
+    private static final class Node {
+        final Edges in = new Edges();
+        final Edges out = new Edges();
+    }
+
+    private static final class Shard {
+        final ReentrantLock lock = new ReentrantLock();
+        final LinkedHashMap<Long, Node> nodes;
+
+        Shard(int maxNodes) {
+            this.nodes = new LinkedHashMap<Long, Node>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Node> eldest) {
+                    return size() > maxNodes;
+                }
+            };
+        }
+    }
+
+    private final String domainName;
+    private final Shard[] shards;
+    private final int maxDegree;
+    private final long windowMillis;
+    private final double halfLifeMillis;
+    private final boolean useEventTime;
+
+    public TransactionGraph(String domainName, GraphFeatureConfig config) {
+        this.domainName = domainName;
+        int shardCount = Integer.highestOneBit(Math.max(1, config.getShards()));
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(Math.max(1, config.getMaxNodes() / shardCount));
+        }
+        this.maxDegree = Math.max(1, config.getMaxDegree());
+        this.windowMillis = config.getWindowSeconds() * 1000L;
+        this.halfLifeMillis = Math.max(1L, config.getDecayHalfLifeSeconds()) * 1000.0;
+        this.useEventTime = config.isUseEventTime();
+        logger.info("Domain [{}]: Transaction graph enabled ({} nodes max, degree {}, {}s window).",
+                domainName, config.getMaxNodes(), maxDegree, config.getWindowSeconds());
+    }
+
+    /**
+     * Records the transaction's edge and computes its graph features.
+     * @return the features keyed by their {@code graph_*} names (all Float), or an empty map
+     *         when the input has no sender/recipient pair.
+     */
+    public Map<String, Object> record(DomainInput domainInput) {
+        if (!(domainInput instanceof MobileMoneyTransactionInput)) {
+            return Map.of();
+        }
+        MobileMoneyTransactionInput input = (MobileMoneyTransactionInput) domainInput;
+        if (input.getUserId() == null || input.getRecipientId() == null) {
+            return Map.of();
+        }
+        long eventMillis = EventTime.toEpochMillis(domainName, input.getTimestamp(), useEventTime);
+        return record(input.getUserId(), input.getRecipientId(), input.getTransactionAmount(), eventMillis);
+    }
+
+    public Map<String, Object> record(String senderId, String recipientId, double amount, long eventMillis) {
+        long sender = hash(senderId);
+        long recipient = hash(recipientId);
+        long since = eventMillis - windowMillis;
+
+        int senderShard = shardOf(sender);
+        int recipientShard = shardOf(recipient);
+        int senderDistinctRecipients;
+        int recipientDistinctSenders;
+        double decayedCount = 0;
+        double decayedInflow = 0;
+        long[] onward;
+        int onwardSize;
+
+        // Lock both endpoint shards in index order so concurrent updates cannot deadlock.
+        ReentrantLock first = shards[Math.min(senderShard, recipientShard)].lock;
+        ReentrantLock second = shards[Math.max(senderShard, recipientShard)].lock;
+        first.lock();
+        if (second != first) second.lock();
+        try {
+            Node from = node(senderShard, sender);
+            Node to = node(recipientShard, recipient);
+            from.out.add(recipient, eventMillis, amount, maxDegree, halfLifeMillis);
+            to.in.add(sender, eventMillis, amount, maxDegree, halfLifeMillis);
+
+            senderDistinctRecipients = countSince(from.out, since);
+            recipientDistinctSenders = countSince(to.in, since);
+            for (int i = 0; i < to.in.size; i++) {
+                double decay = decay(eventMillis - to.in.lastSeen[i], halfLifeMillis);
+                decayedCount += to.in.count[i] * decay;
+                decayedInflow += to.in.amount[i] * decay;
+            }
+            onward = Arrays.copyOf(to.out.neighbour, to.out.size);
+            long[] onwardSeen = Arrays.copyOf(to.out.lastSeen, to.out.size);
+            onwardSize = 0;
+            for (int i = 0; i < onward.length; i++) {
+                if (onwardSeen[i] > since) onward[onwardSize++] = onward[i];
+            }
+        } finally {
+            if (second != first) second.unlock();
+            first.unlock();
+        }
+
+        // Two-hop reach: the recipient's recent payees plus theirs. Each neighbour is read under its
+        // own shard lock only, never while holding another, so this cannot deadlock with updates.
+        long[] reached = Arrays.copyOf(onward, Math.max(onwardSize, 1) * (maxDegree + 1));
+        int reachedSize = onwardSize;
+        for (int i = 0; i < onwardSize; i++) {
+            Shard shard = shards[shardOf(onward[i])];
+            shard.lock.lock();
+            try {
+                Node hop = shard.nodes.get(onward[i]);
+                if (hop == null) continue;
+                for (int j = 0; j < hop.out.size; j++) {
+                    if (hop.out.lastSeen[j] > since && hop.out.neighbour[j] != recipient) {
+                        reached[reachedSize++] = hop.out.neighbour[j];
+                    }
+                }
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        Arrays.sort(reached, 0, reachedSize);
+        int twoHopReach = 0;
+        for (int i = 0; i < reachedSize; i++) {
+            if (i == 0 || reached[i] != reached[i - 1]) twoHopReach++;
+        }
+
+        Map<String, Object> features = new LinkedHashMap<>();
+        features.put(SENDER_DISTINCT_RECIPIENTS, (float) senderDistinctRecipients);
+        features.put(RECIPIENT_DISTINCT_SENDERS, (float) recipientDistinctSenders);
+        features.put(RECIPIENT_DECAYED_IN_TXN_COUNT, (float) decayedCount);
+        features.put(RECIPIENT_DECAYED_INFLOW, (float) decayedInflow);
+        features.put(RECIPIENT_DISTINCT_RECIPIENTS, (float) onwardSize);
+        features.put(RECIPIENT_TWO_HOP_REACH, (float) twoHopReach);
+        return features;
+    }
+
+    private Node node(int shardIndex, long id) {
+        return shards[shardIndex].nodes.computeIfAbsent(id, k -> new Node());
+    }
+
+    private int shardOf(long id) {
+        return (int) (id ^ (id >>> 32)) & (shards.length - 1);
+    }
+
+    private static int countSince(Edges edges, long since) {
+        int n = 0;
+        for (int i = 0; i < edges.size; i++) {
+            if (edges.lastSeen[i] > since) n++;
+        }
+        return n;
+    }
+
+    private static double decay(long elapsedMillis, double halfLifeMillis) {
+        return (elapsedMillis <= 0) ? 1.0 : Math.pow(0.5, elapsedMillis / halfLifeMillis);
+    }
+
+    // 64-bit FNV-1a; a collision would merge two accounts, which at 64 bits is negligible.
+    private static long hash(String id) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            h ^= id.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h ^ (h >>> 29);
+    }
+}
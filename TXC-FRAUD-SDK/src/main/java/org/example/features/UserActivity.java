@@ -0,0 +1,23 @@
+package org.example.features;
+
+/**
+ * A user's behavioural features as of one transaction, computed the way the training
+ * pipelines do: the count and mean include the transaction itself. For a user's first
+ * transaction {@code secondsSinceLast} is the domain's configured sentinel: 0 for bank and
+ * mobile money, -1 for e-commerce, matching how each DAG fills the missing {@code diff()}.
+ */
+public class UserActivity {
+    private final int velocityCount;
+    private final double averageAmount;
+    private final long secondsSinceLast;
+
+    public UserActivity(int velocityCount, double averageAmount, long secondsSinceLast) {
+        this.velocityCount = velocityCount;
+        this.averageAmount = averageAmount;
+        this.secondsSinceLast = secondsSinceLast;
+    }
+
+    public int getVelocityCount() { return velocityCount; }
+    public double getAverageAmount() { return averageAmount; }
+    public long getSecondsSinceLast() { return secondsSinceLast; }
+}
@@ -6,37 +6,52 @@ import ai.onnxruntime.OrtException;
 import ai.onnxruntime.OrtSession;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.definition.*;
+import org.example.features.ColumnKernels;
+import org.example.features.FeatureBatch;
 import org.example.rules.FinalRuleOutput;
+import org.example.rules.RuleNetwork;
 import org.example.rules.TransactionRuleContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class BankDomainHandler implements IDomainHandler {
     private static final Logger logger = LoggerFactory.getLogger(BankDomainHandler.class);
 
     private OrtSession session;
+    private CategoricalTensorCache tensorCache;
     private DomainConfig domainConfig;
-    private List<RuleDefinition> parsedRules;
+    private RuleNetwork ruleNetwork;
     private final ObjectMapper ruleObjectMapper = new ObjectMapper();
+    private final Set<String> missingNamedListsReported = ConcurrentHashMap.newKeySet();
 
     public BankDomainHandler() {
-        this.parsedRules = Collections.emptyList();
+        this.ruleNetwork = RuleNetwork.compile(Collections.emptyList(), ruleObjectMapper, null, this::evaluateClause, this::applyAction);
     }
 
     @Override
     public void initialize(DomainConfig domainConfig, OrtEnvironment env, File onnxModelFile) throws OrtException {
         this.domainConfig = domainConfig;
-        this.session = env.createSession(onnxModelFile.getAbsolutePath(), new OrtSession.SessionOptions());
+        OrtSession.SessionOptions sessionOptions = new OrtSession.SessionOptions();
+        if (domainConfig.getOnnxIntraOpThreads() > 0) {
+            // Caps ONNX's own thread pool so one domain's inference cannot monopolise the cores.
+            sessionOptions.setIntraOpNumThreads(domainConfig.getOnnxIntraOpThreads());
+        }
+        this.session = env.createSession(onnxModelFile.getAbsolutePath(), sessionOptions);
+        this.tensorCache = new CategoricalTensorCache(domainConfig.getCategoricalTensorCacheSize());
         logger.info("BankDomainHandler: ONNX session created. Inputs: {}", this.session.getInputNames());
     }
 
     @Override
     public void initializeRuleEngine(List<RuleDefinition> rules) {
-        this.parsedRules = (rules != null) ? rules : Collections.emptyList();
-        logger.info("Domain [{}]: Successfully loaded {} rules.", this.domainConfig.getDomainName(), this.parsedRules.size());
+        RuleNetwork network = compileRules(rules);
+        logger.info("Domain [{}]: Successfully loaded {} rules ({} clauses, {} distinct, {} shared groups; {} rules indexed on {} fields).",
+                this.domainConfig.getDomainName(), network.getRuleCount(), network.getClauseReferenceCount(), network.getDistinctClauseCount(),
+                network.getGroupCount(), network.getIndexedRuleCount(), network.getIndexedFieldCount());
+        this.ruleNetwork = network;
     }
 
     @Override
@@ -69,6 +84,47 @@ public class BankDomainHandler implements IDomainHandler {
         return features;
     }
 
+    /**
+     * Columnar version of {@link #preprocess}: gathers the numeric fields into primitive columns
+     * in one pass, then computes the derived ratios with {@link ColumnKernels}.
+     */
+    @Override
+    public FeatureBatch preprocessBatch(List<? extends DomainInput> inputs, DomainConfig config) {
+        int n = inputs.size();
+        FeatureBatch batch = new FeatureBatch(n);
+        double[] amount = new double[n];
+        double[] balance = new double[n];
+        double[] userAvg = new double[n];
+        float[] velocity = batch.floatColumn("velocity_txn_count_1h");
+        float[] timeSinceLast = batch.floatColumn("time_since_last_txn_seconds");
+        boolean[] newDevice = batch.booleanColumn("is_new_device");
+        boolean[] foreignLocation = batch.booleanColumn("is_foreign_location");
+        boolean[] night = batch.booleanColumn("is_night");
+        String[] transactionType = batch.stringColumn("transaction_type");
+
+        for (int i = 0; i < n; i++) {
+            BankTransactionInput raw = (BankTransactionInput) inputs.get(i);
+            BankTransactionInput.ClientContext context = raw.getClientContext();
+            amount[i] = raw.getTransactionAmount();
+            balance[i] = context.getBalanceBefore();
+            userAvg[i] = context.getAvgTxnAmtForUser();
+            velocity[i] = (float) context.getVelocityTxnCount1h();
+            timeSinceLast[i] = (float) context.getTimeSinceLastTxnSeconds();
+            newDevice[i] = context.isNewDevice();
+            foreignLocation[i] = context.isForeignLocation();
+            night[i] = context.isNight();
+            transactionType[i] = raw.getTransactionType();
+        }
+
+        ColumnKernels kernels = ColumnKernels.get();
+        kernels.toFloat(amount, batch.floatColumn("transaction_amount"), n);
+        kernels.toFloat(balance, batch.floatColumn("balance_before"), n);
+        kernels.toFloat(userAvg, batch.floatColumn("avg_txn_amt_for_user"), n);
+        kernels.divide(amount, balance, 1e-6, batch.floatColumn("amount_to_balance_ratio"), null, 0.0, n);
+        kernels.divide(amount, userAvg, 1e-6, batch.floatColumn("amount_vs_user_avg_ratio"), null, 0.0, n);
+        return batch;
+    }
+
 
     @Override
     public Map<String, OnnxTensor> createOnnxTensors(Map<String, Object> preprocessedFeatures, OrtEnvironment env) throws OrtException {
@@ -86,7 +142,7 @@ public class BankDomainHandler implements IDomainHandler {
             if (featureValue instanceof Float) {
                 onnxInputs.put(inputName, OnnxTensor.createTensor(env, new float[][]{{(Float) featureValue}}));
             } else if (featureValue instanceof String) {
-                onnxInputs.put(inputName, OnnxTensor.createTensor(env, new String[][]{{(String) featureValue}}));
+                onnxInputs.put(inputName, tensorCache.tensorFor(env, inputName, (String) featureValue));
             } else {
                 throw new OrtException("Unsupported feature type for ONNX tensor creation: " + featureValue.getClass().getName() + " for feature '" + inputName + "'");
             }
@@ -95,57 +151,25 @@ public class BankDomainHandler implements IDomainHandler {
     }
 
     @Override
-    public FinalRuleOutput executeRules(TransactionRuleContext context) {
-        FinalRuleOutput output = new FinalRuleOutput();
-        output.setOriginalMlScore(context.getMlScore());
-
-        if (this.parsedRules == null || this.parsedRules.isEmpty()) {
-            output.setDecision("ALLOW");
-            output.addReasonCode("DEFAULT_ALLOW_NO_RULES");
-            return output;
-        }
-
-        List<RuleDefinition> sortedRules = new ArrayList<>(this.parsedRules);
-        sortedRules.sort(Comparator.comparingInt(RuleDefinition::getPriority));
-
-        for (RuleDefinition rule : sortedRules) {
-            if (rule.isEnabled() && evaluateConditionGroup(rule.getConditions(), context, rule.getRuleId())) {
-                output.addTriggeredRuleId(rule.getRuleId());
-                if (rule.getActions() != null) {
-                    rule.getActions().forEach(action -> applyAction(action, output, rule.getRuleId()));
-                }
-            }
-        }
-
-        if (output.getDecision() == null) {
-            output.setDecision("ALLOW");
-            output.addReasonCode("DEFAULT_ALLOW_NO_DECISIVE_RULES");
-        }
-
-        return output;
+    public void releaseOnnxTensors(Map<String, OnnxTensor> tensors) {
+        tensorCache.release(tensors);
     }
 
-    private boolean evaluateConditionGroup(ConditionGroupDefinition group, TransactionRuleContext context, String ruleIdForLogging) {
-        if (group == null || group.getClauses() == null || group.getClauses().isEmpty()) { return true; }
-
-        boolean isAnd = "AND".equalsIgnoreCase(group.getLogicalOperator());
-        for (Object clauseObj : group.getClauses()) {
-            Map<String, Object> clauseMap = (Map<String, Object>) clauseObj;
-            boolean clauseMet;
+    @Override
+    public FinalRuleOutput executeRules(TransactionRuleContext context) {
+        return ruleNetwork.execute(context);
+    }
 
-            if (clauseMap.containsKey("logicalOperator")) {
-                clauseMet = evaluateConditionGroup(ruleObjectMapper.convertValue(clauseMap, ConditionGroupDefinition.class), context, ruleIdForLogging);
-            } else {
-                clauseMet = evaluateClause(ruleObjectMapper.convertValue(clauseMap, ConditionClauseDefinition.class), context, ruleIdForLogging);
-            }
+    @Override
+    public RuleNetwork getRuleNetwork() {
+        return ruleNetwork;
+    }
 
-            if (isAnd && !clauseMet) return false;
-            if (!isAnd && clauseMet) return true;
-        }
-        return isAnd;
+    @Override
+    public RuleNetwork compileRules(List<RuleDefinition> rules) {
+        return RuleNetwork.compile(rules, ruleObjectMapper, this.domainConfig.getRuleEngine(), this::evaluateClause, this::applyAction);
     }
 
-    // THIS IS THE NEW, CORRECTED METHOD WITH THE 'BETWEEN' OPERATOR
     private boolean evaluateClause(ConditionClauseDefinition clause, TransactionRuleContext context, String ruleIdForLogging) {
         Object actualValue = context.getValue(clause.getField());
         Object ruleValue = clause.getValue();
@@ -177,6 +201,18 @@ public class BankDomainHandler implements IDomainHandler {
                     if (!(ruleValue instanceof List)) return false;
                     return ((List<?>) ruleValue).stream().anyMatch(item -> Objects.equals(String.valueOf(item), String.valueOf(actualValue)));
 
+                case "IN_NAMED_LIST":
+                case "NOT_IN_NAMED_LIST":
+                    Boolean member = context.isInNamedList(String.valueOf(ruleValue), actualValue);
+                    if (member == null) {
+                        if (missingNamedListsReported.add(String.valueOf(ruleValue))) {
+                            logger.warn("Rule '{}': Named list '{}' is not loaded; clauses on it are not met. Logged once per list.",
+                                    ruleIdForLogging, ruleValue);
+                        }
+                        return false;
+                    }
+                    return clause.getOperator().equalsIgnoreCase("IN_NAMED_LIST") ? member : !member;
+
                 case "BETWEEN":
                     if (!(actualValue instanceof Number) || !(ruleValue instanceof List) || ((List<?>) ruleValue).size() != 2) {
                         return false;
@@ -199,9 +235,9 @@ public class BankDomainHandler implements IDomainHandler {
                     return false;
             }
         } catch (Exception e) {
-            logger.error("Rule '{}': CRITICAL ERROR evaluating clause for field '{}'. Value was '{}' of type '{}'.",
-                    ruleIdForLogging, clause.getField(), actualValue, actualValue.getClass().getName(), e);
-            return false;
+            // The rule network counts the error against the rule and treats the clause as not met.
+            throw new IllegalStateException(String.format("Cannot evaluate %s on field '%s'. Value was '%s' of type '%s'.",
+                    clause.getOperator(), clause.getField(), actualValue, actualValue.getClass().getName()), e);
         }
     }
 
@@ -237,5 +273,8 @@ public class BankDomainHandler implements IDomainHandler {
             this.session.close();
             this.session = null;
         }
+        if (this.tensorCache != null) {
+            this.tensorCache.close();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+package org.example.handlers;
+
+import ai.onnxruntime.OnnxTensor;
+import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtException;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pre-built {@code [1, 1]} string tensors for categorical model inputs, keyed by input name
+ * and value. Building a string tensor copies the value into native memory through JNI on
+ * every call; for inputs like {@code currency} or {@code transaction_type} the handful of
+ * distinct values can instead be built once and handed to every {@code session.run}.
+ * <p>
+ * Each input holds at most {@code maxValuesPerInput} tensors. Once an input is full (as a
+ * high-cardinality input like {@code emaildomain} quickly will be), further values get a
+ * throwaway tensor per call, which {@link #release} closes after the run. Shared tensors are
+ * read-only to ONNX Runtime and stay open until {@link #close}.
+ */
+public class CategoricalTensorCache implements AutoCloseable {
+    private final int maxValuesPerInput;
+    private final Map<String, ConcurrentHashMap<String, OnnxTensor>> tensorsByInput = new ConcurrentHashMap<>();
+    private final Set<OnnxTensor> shared = ConcurrentHashMap.newKeySet();
+    // Taken only to build a new shared tensor; a lock rather than synchronized so a virtual thread
+    // inside the JNI call does not pin its carrier.
+    private final ReentrantLock buildLock = new ReentrantLock();
+
+    public CategoricalTensorCache(int maxValuesPerInput) {
+        this.maxValuesPerInput = Math.max(0, maxValuesPerInput);
+    }
+
+    /** The shared tensor for {@code value}, or a new one the caller must {@link #release} if this input is full. */
+    public OnnxTensor tensorFor(OrtEnvironment env, String inputName, String value) throws OrtException {
+        ConcurrentHashMap<String, OnnxTensor> tensors = tensorsByInput.computeIfAbsent(inputName, k -> new ConcurrentHashMap<>());
+        OnnxTensor tensor = tensors.get(value);
+        if (tensor != null) {
+            return tensor;
+        }
+        if (tensors.size() >= maxValuesPerInput) {
+            return OnnxTensor.createTensor(env, new String[][]{{value}});
+        }
+        buildLock.lock();
+        try {
+            tensor = tensors.get(value);
+            if (tensor == null) {
+                tensor = OnnxTensor.createTensor(env, new String[][]{{value}});
+                shared.add(tensor);
+                tensors.put(value, tensor);
+            }
+            return tensor;
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    /** Closes the per-call tensors of one model run, leaving the shared ones open. */
+    public void release(Map<String, OnnxTensor> tensors) {
+        for (OnnxTensor tensor : tensors.values()) {
+            if (!shared.contains(tensor)) {
+                tensor.close();
+            }
+        }
+    }
+
+    public int size() {
+        return shared.size();
+    }
+
+    @Override
+    public void close() {
+        tensorsByInput.clear();
+        shared.forEach(OnnxTensor::close);
+        shared.clear();
+    }
+}
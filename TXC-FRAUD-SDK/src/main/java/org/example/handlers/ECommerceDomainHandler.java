@@ -7,37 +7,51 @@ import ai.onnxruntime.OrtException;
 import ai.onnxruntime.OrtSession;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.definition.*;
+import org.example.features.ColumnKernels;
+import org.example.features.FeatureBatch;
 import org.example.rules.FinalRuleOutput;
+import org.example.rules.RuleNetwork;
 import org.example.rules.TransactionRuleContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ECommerceDomainHandler implements IDomainHandler {
     private static final Logger logger = LoggerFactory.getLogger(ECommerceDomainHandler.class);
 
     private OrtSession session;
+    private CategoricalTensorCache tensorCache;
     private DomainConfig domainConfig;
-    private List<RuleDefinition> parsedRules;
+    private RuleNetwork ruleNetwork;
     private final ObjectMapper ruleObjectMapper = new ObjectMapper();
+    private final Set<String> missingNamedListsReported = ConcurrentHashMap.newKeySet();
 
     public ECommerceDomainHandler() {
-        this.parsedRules = Collections.emptyList();
+        this.ruleNetwork = RuleNetwork.compile(Collections.emptyList(), ruleObjectMapper, null, this::evaluateClause, this::applyAction);
     }
 
     @Override
     public void initialize(DomainConfig domainConfig, OrtEnvironment env, File onnxModelFile) throws OrtException {
         this.domainConfig = domainConfig;
-        this.session = env.createSession(onnxModelFile.getAbsolutePath(), new OrtSession.SessionOptions());
+        OrtSession.SessionOptions sessionOptions = new OrtSession.SessionOptions();
+        if (domainConfig.getOnnxIntraOpThreads() > 0) {
+            sessionOptions.setIntraOpNumThreads(domainConfig.getOnnxIntraOpThreads());
+        }
+        this.session = env.createSession(onnxModelFile.getAbsolutePath(), sessionOptions);
+        this.tensorCache = new CategoricalTensorCache(domainConfig.getCategoricalTensorCacheSize());
         logger.info("ECommerceDomainHandler: ONNX session created. Inputs: {}", this.session.getInputNames());
     }
 
     @Override
     public void initializeRuleEngine(List<RuleDefinition> rules) {
-        this.parsedRules = (rules != null) ? rules : Collections.emptyList();
-        logger.info("Domain [{}]: Successfully loaded {} rules.", this.domainConfig.getDomainName(), this.parsedRules.size());
+        RuleNetwork network = compileRules(rules);
+        logger.info("Domain [{}]: Successfully loaded {} rules ({} clauses, {} distinct, {} shared groups; {} rules indexed on {} fields).",
+                this.domainConfig.getDomainName(), network.getRuleCount(), network.getClauseReferenceCount(), network.getDistinctClauseCount(),
+                network.getGroupCount(), network.getIndexedRuleCount(), network.getIndexedFieldCount());
+        this.ruleNetwork = network;
     }
 
     @Override
@@ -93,6 +107,61 @@ public class ECommerceDomainHandler implements IDomainHandler {
         return features;
     }
 
+    /**
+     * Columnar version of {@link #preprocess}: gathers the fields into columns in one pass,
+     * then computes the amount-to-average ratio with {@link ColumnKernels}.
+     */
+    @Override
+    public FeatureBatch preprocessBatch(List<? extends DomainInput> inputs, DomainConfig config) {
+        int n = inputs.size();
+        FeatureBatch batch = new FeatureBatch(n);
+        double[] amount = new double[n];
+        double[] userAvg = new double[n];
+        float[] itemCount = batch.floatColumn("itemcount");
+        float[] accountAge = batch.floatColumn("accountageindays");
+        float[] timeSinceLast = batch.floatColumn("time_since_last_txn_seconds");
+        String[] currency = batch.stringColumn("currency");
+        String[] productCategory = batch.stringColumn("productcategory");
+        String[] emailDomain = batch.stringColumn("emaildomain");
+        String[] shippingCountry = batch.stringColumn("shippingcountry");
+        String[] billingCountry = batch.stringColumn("billingcountry");
+        String[] paymentMethod = batch.stringColumn("paymentmethod");
+        String[] ipAddressCountry = batch.stringColumn("ipaddresscountry");
+        boolean[] guestCheckout = batch.booleanColumn("isguestcheckout");
+        boolean[] billingEqualsShipping = batch.booleanColumn("billingequalsshipping");
+
+        for (int i = 0; i < n; i++) {
+            if (!(inputs.get(i) instanceof ECommerceTransactionInput raw)) {
+                throw new IllegalArgumentException("Input data must be of type ECommerceTransactionInput.");
+            }
+            ECommerceTransactionInput.ClientContext context = raw.getClientContext();
+            if (context == null) {
+                throw new IllegalArgumentException("ClientContext cannot be null. It must be provided with behavioral features.");
+            }
+            amount[i] = raw.getTransactionAmount();
+            userAvg[i] = context.getAvgTxnAmtForUser();
+            itemCount[i] = (float) raw.getItemCount();
+            accountAge[i] = (float) raw.getAccountAgeInDays();
+            timeSinceLast[i] = (float) context.getTimeSinceLastTxnSeconds();
+            currency[i] = raw.getCurrency();
+            productCategory[i] = raw.getProductCategory();
+            emailDomain[i] = raw.getEmailDomain();
+            shippingCountry[i] = raw.getShippingCountry();
+            billingCountry[i] = raw.getBillingCountry();
+            paymentMethod[i] = raw.getPaymentMethod();
+            ipAddressCountry[i] = raw.getIpAddressCountry();
+            guestCheckout[i] = raw.isGuestCheckout();
+            billingEqualsShipping[i] = raw.getBillingCountry() != null &&
+                    raw.getBillingCountry().equalsIgnoreCase(raw.getShippingCountry());
+        }
+
+        ColumnKernels kernels = ColumnKernels.get();
+        kernels.toFloat(amount, batch.floatColumn("transactionamount"), n);
+        kernels.toFloat(userAvg, batch.floatColumn("avg_txn_amt_for_user"), n);
+        kernels.divide(amount, userAvg, 1e-6, batch.floatColumn("amount_vs_user_avg_ratio"), null, 0.0, n);
+        return batch;
+    }
+
     @Override
     public Map<String, OnnxTensor> createOnnxTensors(Map<String, Object> preprocessedFeatures, OrtEnvironment env) throws OrtException {
         Map<String, OnnxTensor> onnxInputs = new HashMap<>();
@@ -112,7 +181,7 @@ public class ECommerceDomainHandler implements IDomainHandler {
             if (featureValue instanceof Float) {
                 onnxInputs.put(inputName, OnnxTensor.createTensor(env, new float[][]{{(Float) featureValue}}));
             } else if (featureValue instanceof String) {
-                onnxInputs.put(inputName, OnnxTensor.createTensor(env, new String[][]{{(String) featureValue}}));
+                onnxInputs.put(inputName, tensorCache.tensorFor(env, inputName, (String) featureValue));
             } else {
                 throw new OrtException("Unsupported feature type for ONNX tensor: " + featureValue.getClass().getName());
             }
@@ -120,49 +189,26 @@ public class ECommerceDomainHandler implements IDomainHandler {
         return onnxInputs;
     }
 
+    @Override
+    public void releaseOnnxTensors(Map<String, OnnxTensor> tensors) {
+        tensorCache.release(tensors);
+    }
+
     // --- The rest of the file (executeRules, etc.) is generic and requires no changes ---
 
     @Override
     public FinalRuleOutput executeRules(TransactionRuleContext context) {
-        FinalRuleOutput output = new FinalRuleOutput();
-        output.setOriginalMlScore(context.getMlScore());
-        if (this.parsedRules.isEmpty()) {
-            output.setDecision("ALLOW");
-            output.addReasonCode("DEFAULT_ALLOW_NO_RULES");
-            return output;
-        }
-        List<RuleDefinition> sortedRules = new ArrayList<>(this.parsedRules);
-        sortedRules.sort(Comparator.comparingInt(RuleDefinition::getPriority));
-        for (RuleDefinition rule : sortedRules) {
-            if (rule.isEnabled() && evaluateConditionGroup(rule.getConditions(), context, rule.getRuleId())) {
-                output.addTriggeredRuleId(rule.getRuleId());
-                if (rule.getActions() != null) {
-                    rule.getActions().forEach(action -> applyAction(action, output, rule.getRuleId()));
-                }
-            }
-        }
-        if (output.getDecision() == null) {
-            output.setDecision("ALLOW");
-            output.addReasonCode("DEFAULT_ALLOW_NO_DECISIVE_RULES");
-        }
-        return output;
+        return ruleNetwork.execute(context);
     }
 
-    private boolean evaluateConditionGroup(ConditionGroupDefinition group, TransactionRuleContext context, String ruleIdForLogging) {
-        if (group == null || group.getClauses() == null || group.getClauses().isEmpty()) { return true; }
-        boolean isAnd = "AND".equalsIgnoreCase(group.getLogicalOperator());
-        for (Object clauseObj : group.getClauses()) {
-            Map<String, Object> clauseMap = (Map<String, Object>) clauseObj;
-            boolean clauseMet;
-            if (clauseMap.containsKey("logicalOperator")) {
-                clauseMet = evaluateConditionGroup(ruleObjectMapper.convertValue(clauseMap, ConditionGroupDefinition.class), context, ruleIdForLogging);
-            } else {
-                clauseMet = evaluateClause(ruleObjectMapper.convertValue(clauseMap, ConditionClauseDefinition.class), context, ruleIdForLogging);
-            }
-            if (isAnd && !clauseMet) return false;
-            if (!isAnd && clauseMet) return true;
-        }
-        return isAnd;
+    @Override
+    public RuleNetwork getRuleNetwork() {
+        return ruleNetwork;
+    }
+
+    @Override
+    public RuleNetwork compileRules(List<RuleDefinition> rules) {
+        return RuleNetwork.compile(rules, ruleObjectMapper, this.domainConfig.getRuleEngine(), this::evaluateClause, this::applyAction);
     }
 
     private boolean evaluateClause(ConditionClauseDefinition clause, TransactionRuleContext context, String ruleIdForLogging) {
@@ -186,13 +232,24 @@ public class ECommerceDomainHandler implements IDomainHandler {
                 case "IN_LIST":
                     if (!(ruleValue instanceof List)) return false;
                     return ((List<?>) ruleValue).stream().anyMatch(item -> Objects.equals(String.valueOf(item), String.valueOf(actualValue)));
+                case "IN_NAMED_LIST":
+                case "NOT_IN_NAMED_LIST":
+                    Boolean member = context.isInNamedList(String.valueOf(ruleValue), actualValue);
+                    if (member == null) {
+                        if (missingNamedListsReported.add(String.valueOf(ruleValue))) {
+                            logger.warn("Rule '{}': Named list '{}' is not loaded; clauses on it are not met. Logged once per list.",
+                                    ruleIdForLogging, ruleValue);
+                        }
+                        return false;
+                    }
+                    return clause.getOperator().equalsIgnoreCase("IN_NAMED_LIST") ? member : !member;
                 default:
                     logger.warn("Rule '{}': Unsupported operator '{}'.", ruleIdForLogging, clause.getOperator());
                     return false;
             }
         } catch (Exception e) {
-            logger.error("Rule '{}': CRITICAL ERROR evaluating clause for field '{}'.", ruleIdForLogging, clause.getField(), e);
-            return false;
+            // The rule network counts the error against the rule and treats the clause as not met.
+            throw new IllegalStateException(String.format("Cannot evaluate %s on field '%s'.", clause.getOperator(), clause.getField()), e);
         }
     }
 
@@ -228,5 +285,8 @@ public class ECommerceDomainHandler implements IDomainHandler {
             this.session.close();
             this.session = null;
         }
+        if (this.tensorCache != null) {
+            this.tensorCache.close();
+        }
     }
 }
\ No newline at end of file
@@ -5,11 +5,16 @@ import ai.onnxruntime.OrtException;
 import ai.onnxruntime.OrtSession;
 import ai.onnxruntime.OnnxTensor;
 import org.example.definition.DomainConfig;
+import org.example.definition.DomainInput;
 import org.example.definition.RuleDefinition; // Import RuleDefinition
+import org.example.features.FeatureBatch;
 import org.example.rules.FinalRuleOutput;
+import org.example.rules.RuleNetwork;
 import org.example.rules.TransactionRuleContext;
 
 import java.io.File;
+import java.nio.FloatBuffer;
+import java.util.HashMap;
 import java.util.List; // Import List
 import java.util.Map;
 
@@ -22,7 +27,79 @@ public interface IDomainHandler {
     Class<?> getExpectedInputPojoType();
     Map<String, Object> preprocess(Object rawInputData, DomainConfig domainConfig);
     Map<String, OnnxTensor> createOnnxTensors(Map<String, Object> preprocessedFeatures, OrtEnvironment env) throws OrtException;
+
+    /** Releases the tensors built by {@link #createOnnxTensors} once the model has run; handlers keep any they share between calls. */
+    default void releaseOnnxTensors(Map<String, OnnxTensor> tensors) {
+        tensors.values().forEach(OnnxTensor::close);
+    }
+
+    /**
+     * Preprocesses a batch into columns. Handlers override this with a columnar implementation;
+     * the default runs {@link #preprocess} per transaction and copies each row in.
+     */
+    default FeatureBatch preprocessBatch(List<? extends DomainInput> inputs, DomainConfig domainConfig) {
+        FeatureBatch batch = new FeatureBatch(inputs.size());
+        for (int i = 0; i < inputs.size(); i++) {
+            int row = i;
+            preprocess(inputs.get(i), domainConfig).forEach((name, value) -> batch.set(row, name, value));
+        }
+        return batch;
+    }
+
+    /**
+     * Builds one {@code [N, 1]} tensor per model input from a batch's columns (looked up by the
+     * input name, then its lowercase form). Booleans are fed as 0/1 floats, as in the row path.
+     * The caller closes the returned tensors after the run.
+     */
+    default Map<String, OnnxTensor> createOnnxTensors(FeatureBatch batch, OrtEnvironment env) throws OrtException {
+        Map<String, OnnxTensor> onnxInputs = new HashMap<>();
+        long[] shape = {batch.size(), 1};
+        try {
+            for (String inputName : getSession().getInputNames()) {
+                String column = batch.hasColumn(inputName) ? inputName : inputName.toLowerCase();
+                float[] floats = batch.getFloatColumn(column);
+                boolean[] booleans = batch.getBooleanColumn(column);
+                String[] strings = batch.getStringColumn(column);
+                if (floats != null) {
+                    onnxInputs.put(inputName, OnnxTensor.createTensor(env, FloatBuffer.wrap(floats), shape));
+                } else if (booleans != null) {
+                    float[] values = new float[booleans.length];
+                    for (int i = 0; i < booleans.length; i++) {
+                        values[i] = booleans[i] ? 1.0f : 0.0f;
+                    }
+                    onnxInputs.put(inputName, OnnxTensor.createTensor(env, FloatBuffer.wrap(values), shape));
+                } else if (strings != null) {
+                    for (String value : strings) {
+                        if (value == null) {
+                            throw new OrtException("Feature '" + inputName + "' is missing for some transactions in the batch.");
+                        }
+                    }
+                    onnxInputs.put(inputName, OnnxTensor.createTensor(env, strings, shape));
+                } else {
+                    throw new OrtException("Feature '" + inputName + "' required by ONNX model not found in the batch.");
+                }
+            }
+        } catch (OrtException | RuntimeException e) {
+            onnxInputs.values().forEach(OnnxTensor::close);
+            throw e;
+        }
+        return onnxInputs;
+    }
+
     FinalRuleOutput executeRules(TransactionRuleContext context);
+    /** {@link #executeRules} for many transactions at once, evaluated as bitmaps over the batch. */
+    default List<FinalRuleOutput> executeRulesBatch(List<TransactionRuleContext> contexts) {
+        return getRuleNetwork().executeBatch(contexts);
+    }
+    /** {@link #executeRules} without touching rule profiles, adaptive ordering or the kill switch, for replays. */
+    default FinalRuleOutput executeRulesUnprofiled(TransactionRuleContext context) {
+        return getRuleNetwork().executeUnprofiled(context);
+    }
+
+    /** The compiled rules {@link #executeRules} runs, for inspection and for evaluating other rule sets the same way. */
+    RuleNetwork getRuleNetwork();
+    /** Compiles another rule set with this domain's clause and action semantics, without installing it. */
+    RuleNetwork compileRules(List<RuleDefinition> rules);
     OrtSession getSession();
     void close() throws Exception;
 }
\ No newline at end of file
@@ -6,7 +6,10 @@ import ai.onnxruntime.OrtException;
 import ai.onnxruntime.OrtSession;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.definition.*;
+import org.example.features.ColumnKernels;
+import org.example.features.FeatureBatch;
 import org.example.rules.FinalRuleOutput;
+import org.example.rules.RuleNetwork;
 import org.example.rules.TransactionRuleContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,32 +18,44 @@ import java.io.File;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class MobileMoneyDomainHandler implements IDomainHandler {
     private static final Logger logger = LoggerFactory.getLogger(MobileMoneyDomainHandler.class);
 
     private OrtSession session;
+    private CategoricalTensorCache tensorCache;
     private DomainConfig domainConfig;
-    private List<RuleDefinition> parsedRules;
+    private RuleNetwork ruleNetwork;
     private final ObjectMapper ruleObjectMapper = new ObjectMapper();
+    private final Set<String> missingNamedListsReported = ConcurrentHashMap.newKeySet();
     private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final List<String> INFLOW_TYPES = Arrays.asList("cash_in", "receive_money");
 
     public MobileMoneyDomainHandler() {
-        this.parsedRules = Collections.emptyList();
+        this.ruleNetwork = RuleNetwork.compile(Collections.emptyList(), ruleObjectMapper, null, this::evaluateClause, this::applyAction);
     }
 
     // ... initialize, initializeRuleEngine, getExpectedInputPojoType methods remain the same ...
     @Override
     public void initialize(DomainConfig domainConfig, OrtEnvironment env, File onnxModelFile) throws OrtException {
         this.domainConfig = domainConfig;
-        this.session = env.createSession(onnxModelFile.getAbsolutePath(), new OrtSession.SessionOptions());
+        OrtSession.SessionOptions sessionOptions = new OrtSession.SessionOptions();
+        if (domainConfig.getOnnxIntraOpThreads() > 0) {
+            sessionOptions.setIntraOpNumThreads(domainConfig.getOnnxIntraOpThreads());
+        }
+        this.session = env.createSession(onnxModelFile.getAbsolutePath(), sessionOptions);
+        this.tensorCache = new CategoricalTensorCache(domainConfig.getCategoricalTensorCacheSize());
         logger.info("MobileMoneyDomainHandler: ONNX session created. Inputs: {}", this.session.getInputNames());
     }
 
     @Override
     public void initializeRuleEngine(List<RuleDefinition> rules) {
-        this.parsedRules = (rules != null) ? rules : Collections.emptyList();
-        logger.info("Domain [{}]: Successfully loaded {} rules.", this.domainConfig.getDomainName(), this.parsedRules.size());
+        RuleNetwork network = compileRules(rules);
+        logger.info("Domain [{}]: Successfully loaded {} rules ({} clauses, {} distinct, {} shared groups; {} rules indexed on {} fields).",
+                this.domainConfig.getDomainName(), network.getRuleCount(), network.getClauseReferenceCount(), network.getDistinctClauseCount(),
+                network.getGroupCount(), network.getIndexedRuleCount(), network.getIndexedFieldCount());
+        this.ruleNetwork = network;
     }
 
     @Override
@@ -69,8 +84,7 @@ public class MobileMoneyDomainHandler implements IDomainHandler {
         features.put("avg_txn_amt_for_user", (float) context.getAvgTxnAmtForUser());
 
         // 2. Calculated features based only on current transaction data
-        List<String> inflowTypes = Arrays.asList("cash_in", "receive_money");
-        float balanceAfter = inflowTypes.contains(raw.getTransactionType()) ?
+        float balanceAfter = INFLOW_TYPES.contains(raw.getTransactionType()) ?
                 (float) (raw.getBalanceBefore() + raw.getTransactionAmount()) :
                 (float) (raw.getBalanceBefore() - raw.getTransactionAmount());
         features.put("balance_after", balanceAfter);
@@ -84,13 +98,7 @@ public class MobileMoneyDomainHandler implements IDomainHandler {
         features.put("amount_vs_user_avg_ratio", (float) (raw.getTransactionAmount() / (userAvgAmount + 1e-6)));
 
         // 4. Time-based feature
-        boolean isNight = false;
-        try {
-            LocalDateTime dateTime = LocalDateTime.parse(raw.getTimestamp(), TIMESTAMP_FORMATTER);
-            isNight = dateTime.getHour() < 6 || dateTime.getHour() > 22;
-        } catch (Exception e) {
-            logger.warn("Could not parse timestamp '{}'. Defaulting 'is_night' to false.", raw.getTimestamp());
-        }
+        boolean isNight = isNight(raw.getTimestamp());
 
         // 5. Boolean fields for the model and rule engine
         features.put("is_night", isNight);
@@ -101,6 +109,65 @@ public class MobileMoneyDomainHandler implements IDomainHandler {
         return features;
     }
 
+    /**
+     * Columnar version of {@link #preprocess}: gathers the numeric fields into primitive columns
+     * in one pass, then computes the derived ratios and balances with {@link ColumnKernels}.
+     */
+    @Override
+    public FeatureBatch preprocessBatch(List<? extends DomainInput> inputs, DomainConfig config) {
+        int n = inputs.size();
+        FeatureBatch batch = new FeatureBatch(n);
+        double[] amount = new double[n];
+        double[] balance = new double[n];
+        double[] userAvg = new double[n];
+        boolean[] inflow = new boolean[n];
+        float[] velocity = batch.floatColumn("velocity_txn_count_1h");
+        float[] timeSinceLast = batch.floatColumn("time_since_last_txn_seconds");
+        String[] transactionType = batch.stringColumn("transaction_type");
+        String[] currency = batch.stringColumn("currency");
+        String[] country = batch.stringColumn("country");
+        boolean[] night = batch.booleanColumn("is_night");
+        boolean[] newDevice = batch.booleanColumn("is_new_device");
+        boolean[] foreignLocation = batch.booleanColumn("is_foreign_location");
+
+        for (int i = 0; i < n; i++) {
+            MobileMoneyTransactionInput raw = (MobileMoneyTransactionInput) inputs.get(i);
+            MobileMoneyTransactionInput.ClientContext context = raw.getClientContext();
+            amount[i] = raw.getTransactionAmount();
+            balance[i] = raw.getBalanceBefore();
+            userAvg[i] = context.getAvgTxnAmtForUser();
+            inflow[i] = INFLOW_TYPES.contains(raw.getTransactionType());
+            velocity[i] = (float) context.getVelocityTxnCount1h();
+            timeSinceLast[i] = (float) context.getTimeSinceLastTxnSeconds();
+            transactionType[i] = raw.getTransactionType();
+            currency[i] = context.getCurrency();
+            country[i] = context.getCountry();
+            night[i] = isNight(raw.getTimestamp());
+            newDevice[i] = context.isNewDevice();
+            foreignLocation[i] = context.isForeignLocation();
+        }
+
+        ColumnKernels kernels = ColumnKernels.get();
+        kernels.toFloat(amount, batch.floatColumn("transaction_amount"), n);
+        kernels.toFloat(balance, batch.floatColumn("balance_before"), n);
+        kernels.toFloat(userAvg, batch.floatColumn("avg_txn_amt_for_user"), n);
+        kernels.addOrSubtract(balance, amount, inflow, batch.floatColumn("balance_after"), n);
+        kernels.divide(amount, balance, 1e-6, batch.floatColumn("amount_to_balance_ratio"),
+                batch.booleanColumn("is_account_drain"), 0.9, n);
+        kernels.divide(amount, userAvg, 1e-6, batch.floatColumn("amount_vs_user_avg_ratio"), null, 0.0, n);
+        return batch;
+    }
+
+    private static boolean isNight(String timestamp) {
+        try {
+            LocalDateTime dateTime = LocalDateTime.parse(timestamp, TIMESTAMP_FORMATTER);
+            return dateTime.getHour() < 6 || dateTime.getHour() > 22;
+        } catch (Exception e) {
+            logger.warn("Could not parse timestamp '{}'. Defaulting 'is_night' to false.", timestamp);
+            return false;
+        }
+    }
+
     // ... The rest of the file (createOnnxTensors, executeRules, etc.) remains exactly the same ...
     @Override
     public Map<String, OnnxTensor> createOnnxTensors(Map<String, Object> preprocessedFeatures, OrtEnvironment env) throws OrtException {
@@ -118,7 +185,7 @@ public class MobileMoneyDomainHandler implements IDomainHandler {
             if (featureValue instanceof Float) {
                 onnxInputs.put(inputName, OnnxTensor.createTensor(env, new float[][]{{(Float) featureValue}}));
             } else if (featureValue instanceof String) {
-                onnxInputs.put(inputName, OnnxTensor.createTensor(env, new String[][]{{(String) featureValue}}));
+                onnxInputs.put(inputName, tensorCache.tensorFor(env, inputName, (String) featureValue));
             } else {
                 throw new OrtException("Unsupported feature type for ONNX tensor: " + featureValue.getClass().getName());
             }
@@ -126,49 +193,24 @@ public class MobileMoneyDomainHandler implements IDomainHandler {
         return onnxInputs;
     }
 
+    @Override
+    public void releaseOnnxTensors(Map<String, OnnxTensor> tensors) {
+        tensorCache.release(tensors);
+    }
+
     @Override
     public FinalRuleOutput executeRules(TransactionRuleContext context) {
-        // ... no changes needed here
-        FinalRuleOutput output = new FinalRuleOutput();
-        output.setOriginalMlScore(context.getMlScore());
-        if (this.parsedRules.isEmpty()) {
-            output.setDecision("ALLOW");
-            output.addReasonCode("DEFAULT_ALLOW_NO_RULES");
-            return output;
-        }
-        List<RuleDefinition> sortedRules = new ArrayList<>(this.parsedRules);
-        sortedRules.sort(Comparator.comparingInt(RuleDefinition::getPriority));
-        for (RuleDefinition rule : sortedRules) {
-            if (rule.isEnabled() && evaluateConditionGroup(rule.getConditions(), context, rule.getRuleId())) {
-                output.addTriggeredRuleId(rule.getRuleId());
-                if (rule.getActions() != null) {
-                    rule.getActions().forEach(action -> applyAction(action, output, rule.getRuleId()));
-                }
-            }
-        }
-        if (output.getDecision() == null) {
-            output.setDecision("ALLOW");
-            output.addReasonCode("DEFAULT_ALLOW_NO_DECISIVE_RULES");
-        }
-        return output;
+        return ruleNetwork.execute(context);
     }
 
-    private boolean evaluateConditionGroup(ConditionGroupDefinition group, TransactionRuleContext context, String ruleIdForLogging) {
-        // ... no changes needed here
-        if (group == null || group.getClauses() == null || group.getClauses().isEmpty()) { return true; }
-        boolean isAnd = "AND".equalsIgnoreCase(group.getLogicalOperator());
-        for (Object clauseObj : group.getClauses()) {
-            Map<String, Object> clauseMap = (Map<String, Object>) clauseObj;
-            boolean clauseMet;
-            if (clauseMap.containsKey("logicalOperator")) {
-                clauseMet = evaluateConditionGroup(ruleObjectMapper.convertValue(clauseMap, ConditionGroupDefinition.class), context, ruleIdForLogging);
-            } else {
-                clauseMet = evaluateClause(ruleObjectMapper.convertValue(clauseMap, ConditionClauseDefinition.class), context, ruleIdForLogging);
-            }
-            if (isAnd && !clauseMet) return false;
-            if (!isAnd && clauseMet) return true;
-        }
-        return isAnd;
+    @Override
+    public RuleNetwork getRuleNetwork() {
+        return ruleNetwork;
+    }
+
+    @Override
+    public RuleNetwork compileRules(List<RuleDefinition> rules) {
+        return RuleNetwork.compile(rules, ruleObjectMapper, this.domainConfig.getRuleEngine(), this::evaluateClause, this::applyAction);
     }
 
     private boolean evaluateClause(ConditionClauseDefinition clause, TransactionRuleContext context, String ruleIdForLogging) {
@@ -193,13 +235,24 @@ public class MobileMoneyDomainHandler implements IDomainHandler {
                 case "IN_LIST":
                     if (!(ruleValue instanceof List)) return false;
                     return ((List<?>) ruleValue).stream().anyMatch(item -> Objects.equals(String.valueOf(item), String.valueOf(actualValue)));
+                case "IN_NAMED_LIST":
+                case "NOT_IN_NAMED_LIST":
+                    Boolean member = context.isInNamedList(String.valueOf(ruleValue), actualValue);
+                    if (member == null) {
+                        if (missingNamedListsReported.add(String.valueOf(ruleValue))) {
+                            logger.warn("Rule '{}': Named list '{}' is not loaded; clauses on it are not met. Logged once per list.",
+                                    ruleIdForLogging, ruleValue);
+                        }
+                        return false;
+                    }
+                    return clause.getOperator().equalsIgnoreCase("IN_NAMED_LIST") ? member : !member;
                 default:
                     logger.warn("Rule '{}': Unsupported operator '{}'.", ruleIdForLogging, clause.getOperator());
                     return false;
             }
         } catch (Exception e) {
-            logger.error("Rule '{}': CRITICAL ERROR evaluating clause for field '{}'.", ruleIdForLogging, clause.getField(), e);
-            return false;
+            // The rule network counts the error against the rule and treats the clause as not met.
+            throw new IllegalStateException(String.format("Cannot evaluate %s on field '%s'.", clause.getOperator(), clause.getField()), e);
         }
     }
 
@@ -236,5 +289,8 @@ public class MobileMoneyDomainHandler implements IDomainHandler {
             this.session.close();
             this.session = null;
         }
+        if (this.tensorCache != null) {
+            this.tensorCache.close();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package org.example.rules;
+
+import org.example.definition.ActionDefinition;
+
+/** A domain's semantics for applying one action of a matched rule to the output. */
+@FunctionalInterface
+public interface ActionApplier {
+    void apply(ActionDefinition action, FinalRuleOutput output, String ruleId);
+}
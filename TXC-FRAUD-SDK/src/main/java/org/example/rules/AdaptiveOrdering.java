@@ -0,0 +1,118 @@
+package org.example.rules;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Reorders the children of a {@link RuleNetwork}'s AND/OR groups from what is observed at
+ * runtime. One transaction in {@code sampleRate} is timed node by node; every
+ * {@code reorderInterval} sampled transactions each group's children are sorted so that the
+ * ones that are cheap and most likely to decide the group run first: by
+ * {@code cost / P(false)} under an AND and {@code cost / P(true)} under an OR.
+ * <p>
+ * Clauses have no side effects, so the order never changes a group's result, only how many
+ * children are evaluated to get it. Counters are halved after each reordering so the order
+ * follows drifting traffic.
+ */
+final class AdaptiveOrdering {
+    /** Fresh evaluations a child needs before its statistics are trusted. */
+    private static final long MIN_EVALUATIONS = 32;
+
+    private final int sampleRate;
+    private final long reorderInterval;
+    private final AtomicLongArray evaluations;
+    private final AtomicLongArray passes;
+    private final AtomicLongArray nanos;
+    private final AtomicLong sampledTransactions = new AtomicLong();
+    private final AtomicLong reorderings = new AtomicLong();
+    private final AtomicBoolean reordering = new AtomicBoolean();
+
+    AdaptiveOrdering(int nodeCount, int sampleRate, long reorderInterval) {
+        this.sampleRate = sampleRate;
+        this.reorderInterval = Math.max(1, reorderInterval);
+        this.evaluations = new AtomicLongArray(nodeCount);
+        this.passes = new AtomicLongArray(nodeCount);
+        this.nanos = new AtomicLongArray(nodeCount);
+    }
+
+    /** Whether to time this transaction. */
+    boolean sample() {
+        return sampleRate <= 1 || ThreadLocalRandom.current().nextInt(sampleRate) == 0;
+    }
+
+    void record(int nodeId, boolean met, long elapsedNanos) {
+        evaluations.incrementAndGet(nodeId);
+        if (met) {
+            passes.incrementAndGet(nodeId);
+        }
+        nanos.addAndGet(nodeId, elapsedNanos);
+    }
+
+    /** Called once per sampled transaction; reorders on every {@code reorderInterval}-th. */
+    void sampled(RuleNetwork.Node[] nodes) {
+        if (sampledTransactions.incrementAndGet() % reorderInterval != 0 || !reordering.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            for (RuleNetwork.Node node : nodes) {
+                if (node.clause == null) {
+                    reorder(node);
+                }
+            }
+            for (int i = 0; i < evaluations.length(); i++) {
+                evaluations.set(i, evaluations.get(i) / 2);
+                passes.set(i, passes.get(i) / 2);
+                nanos.set(i, nanos.get(i) / 2);
+            }
+            reorderings.incrementAndGet();
+        } finally {
+            reordering.set(false);
+        }
+    }
+
+    private void reorder(RuleNetwork.Node group) {
+        int[] children = group.children;
+        double[] ranks = new double[children.length];
+        for (int i = 0; i < children.length; i++) {
+            long evaluated = evaluations.get(children[i]);
+            if (evaluated < MIN_EVALUATIONS) {
+                return; // not enough data on this group yet; keep its order
+            }
+            double cost = (double) nanos.get(children[i]) / evaluated;
+            double passRate = (double) passes.get(children[i]) / evaluated;
+            double decisive = group.and ? 1.0 - passRate : passRate;
+            ranks[i] = (decisive > 0.0) ? cost / decisive : Double.POSITIVE_INFINITY;
+        }
+
+        Integer[] order = new Integer[children.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(ranks[a], ranks[b]));
+        int[] reordered = new int[children.length];
+        for (int i = 0; i < order.length; i++) {
+            reordered[i] = children[order[i]];
+        }
+        if (!Arrays.equals(reordered, children)) {
+            group.children = reordered;
+        }
+    }
+
+    /** Share of fresh evaluations that passed, or {@code -1} if never evaluated. */
+    double passRate(int nodeId) {
+        long evaluated = evaluations.get(nodeId);
+        return (evaluated > 0) ? (double) passes.get(nodeId) / evaluated : -1.0;
+    }
+
+    /** Mean cost of a fresh evaluation, or {@code -1} if never evaluated. */
+    long meanNanos(int nodeId) {
+        long evaluated = evaluations.get(nodeId);
+        return (evaluated > 0) ? nanos.get(nodeId) / evaluated : -1L;
+    }
+
+    long getSampledTransactions() { return sampledTransactions.get(); }
+    long getReorderings() { return reorderings.get(); }
+}
@@ -0,0 +1,188 @@
+package org.example.rules;
+
+import org.example.definition.ActionDefinition;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Evaluates a {@link RuleNetwork} over many transactions at once, node by node instead of
+ * transaction by transaction. Each node's result is a bitmap with one bit per transaction
+ * ({@code long[]} words), AND/OR groups are combined with bitwise operations, and each rule's
+ * actions are applied to the rows set in its bitmap.
+ * <p>
+ * Short-circuiting is kept per row: a node is asked for a mask of rows, and a group only asks
+ * its next child for the rows it has not decided yet. Results are remembered per node along
+ * with the rows they cover, so across all rules a clause is evaluated at most once per
+ * transaction, exactly as in {@link RuleNetwork#execute}, and the outputs are identical.
+ * Rule profiles are not updated: backtests replay history through the live network, and
+ * their rows must not count as live traffic.
+ */
+final class BatchRuleEvaluator {
+    private final RuleNetwork network;
+    private final List<TransactionRuleContext> contexts;
+    private final int words;
+    private final long[][] known;   // per node: rows already evaluated
+    private final long[][] values;  // per node: rows evaluated to true
+
+    BatchRuleEvaluator(RuleNetwork network, List<TransactionRuleContext> contexts) {
+        this.network = network;
+        this.contexts = contexts;
+        this.words = (contexts.size() + 63) >>> 6;
+        this.known = new long[network.nodes().length][];
+        this.values = new long[network.nodes().length][];
+    }
+
+    List<FinalRuleOutput> execute() {
+        List<FinalRuleOutput> outputs = new ArrayList<>(contexts.size());
+        for (TransactionRuleContext context : contexts) {
+            FinalRuleOutput output = new FinalRuleOutput();
+            output.setOriginalMlScore(context.getMlScore());
+            outputs.add(output);
+        }
+
+        long[] active = new long[words];
+        for (int row = 0; row < contexts.size(); row++) {
+            active[row >>> 6] |= 1L << row;
+        }
+        RuleNetwork.CompiledRule[] rules = network.rules();
+        RuleIndex index = network.index();
+        BitSet[] candidates = (index != null) ? new BitSet[contexts.size()] : null;
+        for (int position = 0; position < rules.length; position++) {
+            RuleNetwork.CompiledRule rule = rules[position];
+            if (!rule.definition.isEnabled()) {
+                continue;
+            }
+            if (rule.isAutoDisabled()) {
+                // Reported, as in execute, only on rows the index selects the rule for.
+                for (int row = nextSetBit(active, 0); row >= 0; row = nextSetBit(active, row + 1)) {
+                    if (candidates != null) {
+                        if (candidates[row] == null) {
+                            candidates[row] = index.candidates(contexts.get(row));
+                        }
+                        if (!candidates[row].get(position)) {
+                            continue;
+                        }
+                    }
+                    outputs.get(row).addReasonCode(RuleNetwork.AUTO_DISABLED_REASON + rule.ruleId);
+                }
+                continue;
+            }
+            long[] matched = (rule.root == RuleNetwork.ALWAYS_TRUE) ? active.clone() : and(evaluate(rule.root, active, rule), active);
+            for (int row = nextSetBit(matched, 0); row >= 0; row = nextSetBit(matched, row + 1)) {
+                FinalRuleOutput output = outputs.get(row);
+                output.addTriggeredRuleId(rule.ruleId);
+                if (rule.actions != null) {
+                    for (ActionDefinition action : rule.actions) {
+                        network.actionApplier().apply(action, output, rule.ruleId);
+                    }
+                }
+                if (network.isFinal(rule, output)) {
+                    active[row >>> 6] &= ~(1L << row);
+                }
+            }
+            if (isEmpty(active)) {
+                break;
+            }
+        }
+
+        for (FinalRuleOutput output : outputs) {
+            if (output.getDecision() == null) {
+                output.setDecision("ALLOW");
+                output.addReasonCode("DEFAULT_ALLOW_NO_DECISIVE_RULES");
+            }
+        }
+        return outputs;
+    }
+
+    /**
+     * Makes sure the node is evaluated for every row in {@code mask}.
+     * @return The node's result bitmap; only bits inside {@code mask} are meaningful.
+     */
+    private long[] evaluate(int nodeId, long[] mask, RuleNetwork.CompiledRule rule) {
+        if (known[nodeId] == null) {
+            known[nodeId] = new long[words];
+            values[nodeId] = new long[words];
+        }
+        long[] need = new long[words];
+        boolean any = false;
+        for (int w = 0; w < words; w++) {
+            need[w] = mask[w] & ~known[nodeId][w];
+            any |= need[w] != 0;
+        }
+        if (!any) {
+            return values[nodeId];
+        }
+
+        RuleNetwork.Node node = network.nodes()[nodeId];
+        long[] result = values[nodeId];
+        if (node.clause != null) {
+            for (int row = nextSetBit(need, 0); row >= 0; row = nextSetBit(need, row + 1)) {
+                if (network.evaluateClause(node, contexts.get(row), rule, false)) {
+                    result[row >>> 6] |= 1L << row;
+                }
+            }
+        } else if (node.and) {
+            // pending: rows no child has made false yet
+            long[] pending = need.clone();
+            for (int child : node.children) {
+                long[] childValues = evaluate(child, pending, rule);
+                for (int w = 0; w < words; w++) {
+                    pending[w] &= childValues[w];
+                }
+                if (isEmpty(pending)) break;
+            }
+            for (int w = 0; w < words; w++) {
+                result[w] |= pending[w];
+            }
+        } else {
+            // pending: rows no child has made true yet
+            long[] pending = need.clone();
+            for (int child : node.children) {
+                long[] childValues = evaluate(child, pending, rule);
+                for (int w = 0; w < words; w++) {
+                    result[w] |= pending[w] & childValues[w];
+                    pending[w] &= ~childValues[w];
+                }
+                if (isEmpty(pending)) break;
+            }
+        }
+        for (int w = 0; w < words; w++) {
+            known[nodeId][w] |= need[w];
+        }
+        return result;
+    }
+
+    private static long[] and(long[] a, long[] b) {
+        long[] out = new long[b.length];
+        for (int w = 0; w < b.length; w++) {
+            out[w] = a[w] & b[w];
+        }
+        return out;
+    }
+
+    private static boolean isEmpty(long[] bits) {
+        for (long word : bits) {
+            if (word != 0) return false;
+        }
+        return true;
+    }
+
+    private static int nextSetBit(long[] bits, int from) {
+        int w = from >>> 6;
+        if (w >= bits.length) {
+            return -1;
+        }
+        long word = bits[w] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++w == bits.length) {
+                return -1;
+            }
+            word = bits[w];
+        }
+    }
+}
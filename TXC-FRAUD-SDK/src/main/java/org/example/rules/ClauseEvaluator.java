@@ -0,0 +1,9 @@
+package org.example.rules;
+
+import org.example.definition.ConditionClauseDefinition;
+
+/** A domain's semantics for a single condition clause, e.g. which operators it supports. */
+@FunctionalInterface
+public interface ClauseEvaluator {
+    boolean evaluate(ConditionClauseDefinition clause, TransactionRuleContext context, String ruleIdForLogging);
+}
@@ -10,11 +10,13 @@ public class FinalRuleOutput {
     private List<String> reasonCodes;
     private List<String> flags;
     private List<String> triggeredRuleIds; // Good for audit/logging
+    private String executionMode; // "FULL", or "RULES_ONLY"/"SHED" when the SDK was overloaded
 
     public FinalRuleOutput() {
         this.reasonCodes = new ArrayList<>();
         this.flags = new ArrayList<>();
         this.triggeredRuleIds = new ArrayList<>();
+        this.executionMode = "FULL";
         // Initialize scores to indicate they might not have been set/adjusted yet
         this.originalMlScore = -1.0; // Or NaN
         this.finalAdjustedScore = -1.0; // Or NaN
@@ -82,6 +84,14 @@ public class FinalRuleOutput {
         this.triggeredRuleIds.add(ruleId);
     }
 
+    public String getExecutionMode() {
+        return executionMode;
+    }
+
+    public void setExecutionMode(String executionMode) {
+        this.executionMode = executionMode;
+    }
+
     @Override
     public String toString() {
         return "FinalRuleOutput{" +
@@ -91,6 +101,7 @@ public class FinalRuleOutput {
                 ", reasonCodes=" + reasonCodes +
                 ", flags=" + flags +
                 ", triggeredRuleIds=" + triggeredRuleIds +
+                ", executionMode='" + executionMode + '\'' +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,227 @@
+package org.example.rules;
+
+import org.example.definition.ConditionClauseDefinition;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Narrows a {@link RuleNetwork} to the rules a transaction can possibly match. Each rule whose
+ * conditions are an AND (or a single clause) is filed under one of its top-level clauses, its
+ * guard: {@code EQUALS} and {@code IN_LIST} guards go into a hash index from value to rules,
+ * {@code GREATER_THAN}/{@code LESS_THAN} guards on a number into sorted threshold arrays. A rule
+ * whose guard fails cannot match, so per transaction only the hit buckets, the thresholds the
+ * value passes, and the rules without a usable guard are candidates.
+ * <p>
+ * The index only has to return a superset of the matching rules: guards are still evaluated
+ * with the domain's own clause semantics. It relies on {@code EQUALS}/{@code IN_LIST} matching
+ * only when the string forms are equal, and on the comparisons matching only numeric values,
+ * which holds for every domain handler.
+ */
+final class RuleIndex {
+    private final FieldIndex[] fields;
+    private final BitSet unguarded;
+    private final int indexedRuleCount;
+
+    private RuleIndex(FieldIndex[] fields, BitSet unguarded, int indexedRuleCount) {
+        this.fields = fields;
+        this.unguarded = unguarded;
+        this.indexedRuleCount = indexedRuleCount;
+    }
+
+    /** @return the index, or {@code null} if no rule has a usable guard */
+    static RuleIndex build(RuleNetwork.Node[] nodes, RuleNetwork.CompiledRule[] rules) {
+        Map<String, FieldIndex.Builder> builders = new LinkedHashMap<>();
+        BitSet unguarded = new BitSet(rules.length);
+        int indexed = 0;
+
+        for (int position = 0; position < rules.length; position++) {
+            ConditionClauseDefinition guard = chooseGuard(nodes, rules[position].root);
+            if (guard == null) {
+                unguarded.set(position);
+                continue;
+            }
+            builders.computeIfAbsent(guard.getField(), FieldIndex.Builder::new).add(guard, position);
+            indexed++;
+        }
+        if (indexed == 0) {
+            return null;
+        }
+
+        FieldIndex[] fields = builders.values().stream().map(FieldIndex.Builder::build).toArray(FieldIndex[]::new);
+        return new RuleIndex(fields, unguarded, indexed);
+    }
+
+    /** Positions (in priority order) of the rules worth evaluating for this transaction. */
+    BitSet candidates(TransactionRuleContext context) {
+        BitSet candidates = (BitSet) unguarded.clone();
+        for (FieldIndex field : fields) {
+            field.addCandidates(context.getValue(field.field), candidates);
+        }
+        return candidates;
+    }
+
+    int getIndexedRuleCount() { return indexedRuleCount; }
+    int getIndexedFieldCount() { return fields.length; }
+
+    /** Prefers an equality guard, which usually leaves far fewer candidates than a threshold. */
+    private static ConditionClauseDefinition chooseGuard(RuleNetwork.Node[] nodes, int root) {
+        if (root == RuleNetwork.ALWAYS_TRUE) {
+            return null;
+        }
+        RuleNetwork.Node rootNode = nodes[root];
+        int[] conjuncts = (rootNode.clause != null) ? new int[]{root} : (rootNode.and ? rootNode.children : new int[0]);
+
+        ConditionClauseDefinition numericGuard = null;
+        for (int conjunct : conjuncts) {
+            ConditionClauseDefinition clause = nodes[conjunct].clause;
+            if (clause == null || clause.getField() == null || clause.getOperator() == null) {
+                continue;
+            }
+            if (hashKeys(clause) != null) {
+                return clause;
+            }
+            if (numericGuard == null && isThreshold(clause)) {
+                numericGuard = clause;
+            }
+        }
+        return numericGuard;
+    }
+
+    /** The string forms the field must take for the clause to match, or {@code null} if it is not an equality guard. */
+    private static List<String> hashKeys(ConditionClauseDefinition clause) {
+        Object value = clause.getValue();
+        switch (clause.getOperator().toUpperCase(Locale.ROOT)) {
+            case "EQUALS":
+                return List.of(String.valueOf(value));
+            case "IN_LIST":
+                List<String> keys = new ArrayList<>();
+                if (value instanceof String) {
+                    for (String item : ((String) value).split(",")) {
+                        keys.add(item.trim());
+                    }
+                    return keys;
+                }
+                if (value instanceof List) {
+                    for (Object item : (List<?>) value) {
+                        keys.add(String.valueOf(item));
+                    }
+                    return keys;
+                }
+                return null;
+            default:
+                return null;
+        }
+    }
+
+    private static boolean isThreshold(ConditionClauseDefinition clause) {
+        String operator = clause.getOperator().toUpperCase(Locale.ROOT);
+        return ("GREATER_THAN".equals(operator) || "LESS_THAN".equals(operator))
+                && clause.getValue() instanceof Number && !Double.isNaN(((Number) clause.getValue()).doubleValue());
+    }
+
+    /** All guards on one field, so the field is read once per transaction. */
+    private static final class FieldIndex {
+        final String field;
+        final Map<String, BitSet> rulesByValue;
+        final double[] greaterThan;      // ascending thresholds
+        final int[] greaterThanRules;
+        final double[] lessThan;         // ascending thresholds
+        final int[] lessThanRules;
+
+        FieldIndex(String field, Map<String, BitSet> rulesByValue, double[] greaterThan, int[] greaterThanRules,
+                   double[] lessThan, int[] lessThanRules) {
+            this.field = field;
+            this.rulesByValue = rulesByValue;
+            this.greaterThan = greaterThan;
+            this.greaterThanRules = greaterThanRules;
+            this.lessThan = lessThan;
+            this.lessThanRules = lessThanRules;
+        }
+
+        void addCandidates(Object actualValue, BitSet candidates) {
+            if (actualValue == null) {
+                return; // a null field only ever matches IS_NULL, which is never a guard
+            }
+            if (!rulesByValue.isEmpty()) {
+                BitSet matching = rulesByValue.get(String.valueOf(actualValue));
+                if (matching != null) {
+                    candidates.or(matching);
+                }
+            }
+            if (!(actualValue instanceof Number)) {
+                return;
+            }
+            double value = ((Number) actualValue).doubleValue();
+            if (Double.isNaN(value)) {
+                return;
+            }
+            // value > threshold for every threshold below the first one that is >= value
+            for (int i = 0, end = firstIndex(greaterThan, value, false); i < end; i++) {
+                candidates.set(greaterThanRules[i]);
+            }
+            // value < threshold from the first threshold that is > value onwards
+            for (int i = firstIndex(lessThan, value, true); i < lessThan.length; i++) {
+                candidates.set(lessThanRules[i]);
+            }
+        }
+
+        /** The first index whose threshold is {@code >= value}, or {@code > value} when {@code strict}. */
+        private static int firstIndex(double[] thresholds, double value, boolean strict) {
+            int low = 0;
+            int high = thresholds.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                boolean before = strict ? thresholds[mid] <= value : thresholds[mid] < value;
+                if (before) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private static final class Builder {
+            private final String field;
+            private final Map<String, BitSet> rulesByValue = new HashMap<>();
+            private final List<double[]> greaterThan = new ArrayList<>();
+            private final List<double[]> lessThan = new ArrayList<>();
+
+            Builder(String field) {
+                this.field = field;
+            }
+
+            void add(ConditionClauseDefinition guard, int position) {
+                List<String> keys = hashKeys(guard);
+                if (keys != null) {
+                    for (String key : keys) {
+                        rulesByValue.computeIfAbsent(key, k -> new BitSet()).set(position);
+                    }
+                    return;
+                }
+                double[] entry = {((Number) guard.getValue()).doubleValue(), position};
+                if ("GREATER_THAN".equalsIgnoreCase(guard.getOperator())) {
+                    greaterThan.add(entry);
+                } else {
+                    lessThan.add(entry);
+                }
+            }
+
+            FieldIndex build() {
+                greaterThan.sort((a, b) -> Double.compare(a[0], b[0]));
+                lessThan.sort((a, b) -> Double.compare(a[0], b[0]));
+                return new FieldIndex(field, rulesByValue,
+                        greaterThan.stream().mapToDouble(e -> e[0]).toArray(),
+                        greaterThan.stream().mapToInt(e -> (int) e[1]).toArray(),
+                        lessThan.stream().mapToDouble(e -> e[0]).toArray(),
+                        lessThan.stream().mapToInt(e -> (int) e[1]).toArray());
+            }
+        }
+    }
+}
@@ -0,0 +1,586 @@
+package org.example.rules;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.definition.ActionDefinition;
+import org.example.definition.ConditionClauseDefinition;
+import org.example.definition.ConditionGroupDefinition;
+import org.example.definition.RuleDefinition;
+import org.example.definition.RuleEngineConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A domain's rules compiled into a shared evaluation network. Identical clauses (same field,
+ * operator and value) and identical groups (same operator over the same children) are merged
+ * into one node across all rules, and each node's result is remembered for the duration of a
+ * transaction, so a clause repeated in a hundred rules is evaluated at most once.
+ * <p>
+ * Evaluation keeps the semantics of walking each rule's {@link ConditionGroupDefinition} tree:
+ * rules run in priority order, AND/OR groups short-circuit in authored order, and a group
+ * with no clauses always matches. The network is immutable and safe to share between threads;
+ * the per-transaction results live in a scratch array owned by each {@link #execute} call.
+ * <p>
+ * With indexing enabled, a {@link RuleIndex} first narrows the rules to those whose guard
+ * clause can pass for the transaction, so rules for other transaction types, currencies or
+ * amount bands cost nothing. With adaptive ordering enabled, {@link AdaptiveOrdering} samples
+ * clause pass rates and costs and reorders group children so decisive clauses run first;
+ * {@link #describePlan()} shows the current order.
+ * <p>
+ * The evaluation strategy decides when a decision is final: by default every rule runs, but
+ * under {@code FIRST_MATCH} or {@code TERMINAL_ON_DENY}, or after a rule marked
+ * {@link RuleDefinition#isTerminal() terminal}, evaluation stops early. Flags and score
+ * adjustments of the rules that already ran are kept.
+ * <p>
+ * For very large rule books, conditions can be evaluated in parallel on the common fork-join
+ * pool once the candidate count reaches {@code parallelRuleThreshold}. Only matching is
+ * parallel: actions are then applied on the calling thread in priority order, with the same
+ * early exits, so the output is identical to sequential evaluation.
+ * <p>
+ * With profiling enabled, each rule keeps a {@link RuleProfile}: evaluations, matches, clause
+ * errors and condition time, available from {@link #getRuleProfiles()}. A clause that throws is
+ * counted against the rule and treated as not met. With the kill switch on, a rule that keeps
+ * exceeding its time budget or throwing stops being evaluated; every transaction it would have
+ * been evaluated for carries an {@code RULE_AUTO_DISABLED:<ruleId>} reason code.
+ */
+public final class RuleNetwork {
+    private static final Logger logger = LoggerFactory.getLogger(RuleNetwork.class);
+
+    /** Reason code prefix for a rule skipped because the kill switch disabled it. */
+    public static final String AUTO_DISABLED_REASON = "RULE_AUTO_DISABLED:";
+
+    /** Node id for "no conditions": the rule always matches. */
+    static final int ALWAYS_TRUE = -1;
+
+    private static final byte UNKNOWN = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 2;
+
+    private final Node[] nodes;
+    private final CompiledRule[] rules;
+    private final RuleIndex index;
+    private final AdaptiveOrdering ordering;
+    private final boolean stopOnFirstDecision;
+    private final boolean stopOnDeny;
+    private final int parallelRuleThreshold;
+    private final int parallelChunkSize;
+    private final int loadedRuleCount;              // rules handed to compile, including skipped ones
+    private final int clauseReferenceCount;
+    private final int distinctClauseCount;
+    private final ClauseEvaluator clauseEvaluator;
+    private final ActionApplier actionApplier;
+
+    private RuleNetwork(Node[] nodes, CompiledRule[] rules, RuleIndex index, AdaptiveOrdering ordering, RuleEngineConfig settings,
+                        int loadedRuleCount, int clauseReferenceCount, int distinctClauseCount,
+                        ClauseEvaluator clauseEvaluator, ActionApplier actionApplier) {
+        this.nodes = nodes;
+        this.rules = rules;
+        this.index = index;
+        this.ordering = ordering;
+        this.parallelRuleThreshold = settings.getParallelRuleThreshold();
+        this.parallelChunkSize = Math.max(1, settings.getParallelChunkSize());
+        String strategy = settings.getEvaluationStrategy();
+        this.stopOnFirstDecision = "FIRST_MATCH".equalsIgnoreCase(strategy);
+        this.stopOnDeny = "TERMINAL_ON_DENY".equalsIgnoreCase(strategy);
+        if (strategy != null && !stopOnFirstDecision && !stopOnDeny && !"COLLECT_ALL".equalsIgnoreCase(strategy)) {
+            logger.warn("Unknown rule evaluation strategy '{}'. Falling back to COLLECT_ALL.", strategy);
+        }
+        this.loadedRuleCount = loadedRuleCount;
+        this.clauseReferenceCount = clauseReferenceCount;
+        this.distinctClauseCount = distinctClauseCount;
+        this.clauseEvaluator = clauseEvaluator;
+        this.actionApplier = actionApplier;
+    }
+
+    /**
+     * Compiles {@code rules} once, at rule load. Clause maps are converted with {@code mapper}
+     * here rather than on every transaction. Disabled rules are not compiled, and a rule whose
+     * conditions cannot be parsed is logged and left out, so one bad rule never takes down the
+     * rest of the set.
+     */
+    public static RuleNetwork compile(List<RuleDefinition> rules, ObjectMapper mapper, RuleEngineConfig config,
+                                      ClauseEvaluator clauseEvaluator, ActionApplier actionApplier) {
+        List<RuleDefinition> sortedRules = new ArrayList<>((rules != null) ? rules : Collections.emptyList());
+        RuleEngineConfig settings = (config != null) ? config : new RuleEngineConfig();
+        sortedRules.sort(Comparator.comparingInt(RuleDefinition::getPriority));
+
+        Compiler compiler = new Compiler(mapper);
+        List<CompiledRule> compiled = new ArrayList<>(sortedRules.size());
+        for (RuleDefinition rule : sortedRules) {
+            if (!rule.isEnabled()) {
+                continue;
+            }
+            int root;
+            try {
+                root = compiler.group(rule.getConditions());
+            } catch (IllegalArgumentException | ClassCastException e) {
+                logger.error("Rule '{}': Malformed conditions ({}). The rule is not loaded.", rule.getRuleId(), e.getMessage());
+                continue;
+            }
+            compiled.add(new CompiledRule(rule, root, settings.isProfilingEnabled()
+                    ? new RuleProfile(settings.getRuleBudgetMicros() * 1_000, settings.isAutoDisableEnabled(),
+                            settings.getMaxRuleViolations(), settings.getRuleViolationWindow())
+                    : null));
+        }
+        CompiledRule[] compiledRules = compiled.toArray(new CompiledRule[0]);
+        Node[] nodes = compiler.nodes.toArray(new Node[0]);
+        RuleIndex index = settings.isIndexingEnabled() ? RuleIndex.build(nodes, compiledRules) : null;
+        AdaptiveOrdering ordering = (settings.isAdaptiveOrderingEnabled() && nodes.length > compiler.distinctClauses)
+                ? new AdaptiveOrdering(nodes.length, settings.getOrderingSampleRate(), settings.getReorderIntervalSamples())
+                : null;
+        return new RuleNetwork(nodes, compiledRules, index, ordering, settings, sortedRules.size(),
+                compiler.clauseReferences, compiler.distinctClauses, clauseEvaluator, actionApplier);
+    }
+
+    /** Runs every enabled rule against one transaction, applying the actions of those that match. */
+    public FinalRuleOutput execute(TransactionRuleContext context) {
+        return execute(context, true);
+    }
+
+    /**
+     * Like {@link #execute}, but leaves the live statistics alone: nothing is recorded in rule
+     * profiles, adaptive ordering or the kill switch. For replays of traffic already scored
+     * live, such as a challenger model's score, which would otherwise count twice.
+     */
+    public FinalRuleOutput executeUnprofiled(TransactionRuleContext context) {
+        return execute(context, false);
+    }
+
+    private FinalRuleOutput execute(TransactionRuleContext context, boolean profiled) {
+        FinalRuleOutput output = new FinalRuleOutput();
+        output.setOriginalMlScore(context.getMlScore());
+
+        if (loadedRuleCount == 0) {
+            output.setDecision("ALLOW");
+            output.addReasonCode("DEFAULT_ALLOW_NO_RULES");
+            return output;
+        }
+
+        byte[] results = new byte[nodes.length];
+        BitSet candidates = (index != null) ? index.candidates(context) : null;
+        boolean timed = profiled && ordering != null && ordering.sample();
+        int candidateCount = (candidates != null) ? candidates.cardinality() : rules.length;
+        boolean[] matched = (parallelRuleThreshold > 0 && candidateCount >= parallelRuleThreshold)
+                ? matchInParallel(candidates, candidateCount, context, results, profiled, timed)
+                : null;
+        for (int position = next(candidates, 0); position < rules.length; position = next(candidates, position + 1)) {
+            CompiledRule rule = rules[position];
+            if (!rule.definition.isEnabled()) {
+                continue;
+            }
+            if (rule.isAutoDisabled()) {
+                output.addReasonCode(AUTO_DISABLED_REASON + rule.ruleId);
+                continue;
+            }
+            boolean met = (matched != null) ? matched[position] : evaluate(rule, context, results, profiled, timed);
+            if (met) {
+                output.addTriggeredRuleId(rule.ruleId);
+                if (rule.actions != null) {
+                    for (ActionDefinition action : rule.actions) {
+                        actionApplier.apply(action, output, rule.ruleId);
+                    }
+                }
+                if (isFinal(rule, output)) {
+                    break;
+                }
+            }
+        }
+        if (timed) {
+            ordering.sampled(nodes);
+        }
+
+        if (output.getDecision() == null) {
+            output.setDecision("ALLOW");
+            output.addReasonCode("DEFAULT_ALLOW_NO_DECISIVE_RULES");
+        }
+        return output;
+    }
+
+    /**
+     * Matches every candidate rule on the fork-join pool. The tasks share {@code results}:
+     * node results are deterministic and byte writes are atomic, so a race only means two
+     * tasks evaluate the same node, never that one reads a wrong result.
+     */
+    private boolean[] matchInParallel(BitSet candidates, int candidateCount, TransactionRuleContext context,
+                                      byte[] results, boolean profiled, boolean timed) {
+        int[] positions = new int[candidateCount];
+        for (int i = 0, position = next(candidates, 0); i < candidateCount; i++, position = next(candidates, position + 1)) {
+            positions[i] = position;
+        }
+        boolean[] matched = new boolean[rules.length];
+        ForkJoinPool.commonPool().invoke(new MatchTask(positions, 0, positions.length, context, results, profiled, timed, matched));
+        return matched;
+    }
+
+    private final class MatchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int[] positions;
+        private final int from;
+        private final int to;
+        private final TransactionRuleContext context;
+        private final byte[] results;
+        private final boolean profiled;
+        private final boolean timed;
+        private final boolean[] matched;
+
+        MatchTask(int[] positions, int from, int to, TransactionRuleContext context, byte[] results,
+                  boolean profiled, boolean timed, boolean[] matched) {
+            this.positions = positions;
+            this.from = from;
+            this.to = to;
+            this.context = context;
+            this.results = results;
+            this.profiled = profiled;
+            this.timed = timed;
+            this.matched = matched;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > parallelChunkSize) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new MatchTask(positions, from, middle, context, results, profiled, timed, matched),
+                        new MatchTask(positions, middle, to, context, results, profiled, timed, matched));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                CompiledRule rule = rules[positions[i]];
+                matched[positions[i]] = rule.definition.isEnabled() && !rule.isAutoDisabled()
+                        && evaluate(rule, context, results, profiled, timed);
+            }
+        }
+    }
+
+    /**
+     * Runs the rules over a batch of transactions with {@link BatchRuleEvaluator}: each distinct
+     * node is evaluated as a bitmap over the batch. Produces the same outputs as calling
+     * {@link #execute} per transaction, much faster for backtests and bulk re-scoring.
+     */
+    public List<FinalRuleOutput> executeBatch(List<TransactionRuleContext> contexts) {
+        if (loadedRuleCount == 0) {
+            List<FinalRuleOutput> outputs = new ArrayList<>(contexts.size());
+            contexts.forEach(context -> outputs.add(execute(context)));
+            return outputs;
+        }
+        return new BatchRuleEvaluator(this, contexts).execute();
+    }
+
+    Node[] nodes() { return nodes; }
+    CompiledRule[] rules() { return rules; }
+    RuleIndex index() { return index; }
+    ActionApplier actionApplier() { return actionApplier; }
+
+    /** Whether the matched {@code rule} ends evaluation under this network's strategy. */
+    boolean isFinal(CompiledRule rule, FinalRuleOutput output) {
+        if (rule.terminal) {
+            return true;
+        }
+        if (!rule.setsDecision || output.getDecision() == null) {
+            return false;
+        }
+        return stopOnFirstDecision || (stopOnDeny && "DENY".equalsIgnoreCase(output.getDecision()));
+    }
+
+    /** The next rule position to evaluate; {@code rules.length} when there is none. */
+    private int next(BitSet candidates, int from) {
+        if (candidates == null) {
+            return from;
+        }
+        int position = candidates.nextSetBit(from);
+        return (position < 0) ? rules.length : position;
+    }
+
+    /** Resolves a rule's conditions, recording the evaluation in its profile when {@code profiled}. */
+    private boolean evaluate(CompiledRule rule, TransactionRuleContext context, byte[] results, boolean profiled, boolean timed) {
+        if (!profiled || rule.profile == null) {
+            return matches(rule.root, context, results, rule, profiled, timed);
+        }
+        long start = System.nanoTime();
+        boolean met = matches(rule.root, context, results, rule, true, timed);
+        if (rule.profile.record(met, System.nanoTime() - start)) {
+            logger.warn("Rule '{}': Disabled by the kill switch ({}). It stays off until rules are reloaded.",
+                    rule.ruleId, rule.profile.getDisabledReason());
+        }
+        return met;
+    }
+
+    /**
+     * Evaluates one clause on behalf of {@code rule}. A clause that throws is not met; the error
+     * is logged once per rule and, when {@code profiled}, counted in the rule's profile.
+     */
+    boolean evaluateClause(Node node, TransactionRuleContext context, CompiledRule rule, boolean profiled) {
+        try {
+            return clauseEvaluator.evaluate(node.clause, context, rule.ruleId);
+        } catch (RuntimeException e) {
+            if (rule.errorLogged.compareAndSet(false, true)) {
+                logger.error("Rule '{}': Error evaluating clause for field '{}'; treated as not met. Further errors are only counted.",
+                        rule.ruleId, node.clause.getField(), e);
+            } else {
+                logger.debug("Rule '{}': Error evaluating clause for field '{}'.", rule.ruleId, node.clause.getField(), e);
+            }
+            if (profiled && rule.profile != null && rule.profile.recordError()) {
+                logger.warn("Rule '{}': Disabled by the kill switch ({}). It stays off until rules are reloaded.",
+                        rule.ruleId, rule.profile.getDisabledReason());
+            }
+            return false;
+        }
+    }
+
+    private boolean matches(int nodeId, TransactionRuleContext context, byte[] results, CompiledRule rule,
+                            boolean profiled, boolean timed) {
+        if (nodeId == ALWAYS_TRUE) {
+            return true;
+        }
+        byte known = results[nodeId];
+        if (known != UNKNOWN) {
+            return known == TRUE;
+        }
+
+        Node node = nodes[nodeId];
+        long start = timed ? System.nanoTime() : 0L;
+        boolean met;
+        if (node.clause != null) {
+            met = evaluateClause(node, context, rule, profiled);
+        } else {
+            met = node.and;
+            for (int child : node.children) {
+                boolean childMet = matches(child, context, results, rule, profiled, timed);
+                if (node.and != childMet) {
+                    met = childMet;
+                    break;
+                }
+            }
+        }
+        results[nodeId] = met ? TRUE : FALSE;
+        if (timed) {
+            ordering.record(nodeId, met, System.nanoTime() - start);
+        }
+        return met;
+    }
+
+    /**
+     * The conditions of every rule, in evaluation order, as currently arranged: for example
+     * {@code AND(mlScore GREATER_THAN 0.8 [pass 12%, 95ns], ...)}. Pass rates and costs are
+     * shown once adaptive ordering has sampled the clause.
+     * @return One entry per rule, keyed by rule ID, in priority order.
+     */
+    public Map<String, String> describePlan() {
+        Map<String, String> plan = new LinkedHashMap<>();
+        for (CompiledRule rule : rules) {
+            StringBuilder description = new StringBuilder();
+            describe(rule.root, description);
+            plan.put(rule.ruleId, description.toString());
+        }
+        return plan;
+    }
+
+    private void describe(int nodeId, StringBuilder out) {
+        if (nodeId == ALWAYS_TRUE) {
+            out.append("TRUE");
+            return;
+        }
+        Node node = nodes[nodeId];
+        if (node.clause != null) {
+            out.append(node.clause.getField()).append(' ').append(node.clause.getOperator()).append(' ').append(node.clause.getValue());
+        } else {
+            out.append(node.and ? "AND(" : "OR(");
+            int[] children = node.children;
+            for (int i = 0; i < children.length; i++) {
+                if (i > 0) out.append(", ");
+                describe(children[i], out);
+            }
+            out.append(')');
+        }
+        if (ordering != null && ordering.meanNanos(nodeId) >= 0) {
+            out.append(String.format(Locale.ROOT, " [pass %.0f%%, %dns]", ordering.passRate(nodeId) * 100, ordering.meanNanos(nodeId)));
+        }
+    }
+
+    /** Rules that are evaluated: enabled, with conditions that compiled. */
+    public int getRuleCount() { return rules.length; }
+    /** IDs of all evaluated rules, in evaluation (priority) order. */
+    public List<String> getRuleIds() {
+        List<String> ruleIds = new ArrayList<>(rules.length);
+        for (CompiledRule rule : rules) {
+            ruleIds.add(rule.ruleId);
+        }
+        return ruleIds;
+    }
+    /** Clauses as authored, summed over all rules. */
+    public int getClauseReferenceCount() { return clauseReferenceCount; }
+    /** Clauses actually evaluated per transaction, at most. */
+    public int getDistinctClauseCount() { return distinctClauseCount; }
+    public int getGroupCount() { return nodes.length - distinctClauseCount; }
+    /** Rules filed under a guard clause; the rest are evaluated for every transaction. */
+    public int getIndexedRuleCount() { return (index != null) ? index.getIndexedRuleCount() : 0; }
+    public int getIndexedFieldCount() { return (index != null) ? index.getIndexedFieldCount() : 0; }
+    /** How many times adaptive ordering has re-sorted the groups; 0 when it is disabled. */
+    public long getReorderingCount() { return (ordering != null) ? ordering.getReorderings() : 0; }
+
+    /**
+     * Per-rule evaluation counts, hit rates, errors and condition time since the rules were loaded.
+     * @return One snapshot per rule, in priority order; empty when profiling is disabled.
+     */
+    public List<RuleProfileSnapshot> getRuleProfiles() {
+        List<RuleProfileSnapshot> profiles = new ArrayList<>(rules.length);
+        for (CompiledRule rule : rules) {
+            if (rule.profile != null) {
+                profiles.add(rule.profile.snapshot(rule.ruleId));
+            }
+        }
+        return profiles;
+    }
+
+    /** IDs of the rules the kill switch has disabled, in priority order. */
+    public List<String> getAutoDisabledRuleIds() {
+        List<String> ruleIds = new ArrayList<>();
+        for (CompiledRule rule : rules) {
+            if (rule.isAutoDisabled()) {
+                ruleIds.add(rule.ruleId);
+            }
+        }
+        return ruleIds;
+    }
+
+    /** One shared node: either a clause or an AND/OR over other nodes. */
+    static final class Node {
+        final ConditionClauseDefinition clause;
+        final boolean and;
+        volatile int[] children;   // replaced, never mutated, by AdaptiveOrdering
+
+        Node(ConditionClauseDefinition clause) {
+            this.clause = clause;
+            this.and = false;
+            this.children = null;
+        }
+
+        Node(boolean and, int[] children) {
+            this.clause = null;
+            this.and = and;
+            this.children = children;
+        }
+    }
+
+    static final class CompiledRule {
+        final RuleDefinition definition;
+        final String ruleId;
+        final List<ActionDefinition> actions;
+        final int root;
+        final boolean terminal;
+        final boolean setsDecision;
+        final RuleProfile profile;  // null when profiling is disabled
+        final AtomicBoolean errorLogged = new AtomicBoolean();
+
+        CompiledRule(RuleDefinition definition, int root, RuleProfile profile) {
+            this.definition = definition;
+            this.ruleId = definition.getRuleId();
+            this.actions = definition.getActions();
+            this.root = root;
+            this.terminal = definition.isTerminal();
+            this.setsDecision = actions != null
+                    && actions.stream().anyMatch(action -> "SET_DECISION".equalsIgnoreCase(action.getType()));
+            this.profile = profile;
+        }
+
+        boolean isAutoDisabled() {
+            return profile != null && profile.isDisabled();
+        }
+    }
+
+    /** Builds the node table, handing out the existing id whenever a clause or group was seen before. */
+    private static final class Compiler {
+        private final ObjectMapper mapper;
+        private final List<Node> nodes = new ArrayList<>();
+        private final Map<String, Integer> nodeIds = new HashMap<>();
+        private int clauseReferences;
+        private int distinctClauses;
+
+        Compiler(ObjectMapper mapper) {
+            this.mapper = mapper;
+        }
+
+        int group(ConditionGroupDefinition group) {
+            if (group == null || group.getClauses() == null || group.getClauses().isEmpty()) {
+                return ALWAYS_TRUE;
+            }
+            boolean and = "AND".equalsIgnoreCase(group.getLogicalOperator());
+            List<Integer> children = new ArrayList<>();
+            for (Object clauseObj : group.getClauses()) {
+                int child = child(clauseObj);
+                if (child == ALWAYS_TRUE) {
+                    // "true" decides an OR and is a no-op in an AND.
+                    if (!and) return ALWAYS_TRUE;
+                    continue;
+                }
+                children.add(child);
+            }
+            if (children.isEmpty()) {
+                return ALWAYS_TRUE;
+            }
+            if (children.size() == 1) {
+                return children.get(0);
+            }
+
+            String key = (and ? "AND" : "OR") + children;
+            Integer existing = nodeIds.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            return add(key, new Node(and, children.stream().mapToInt(Integer::intValue).toArray()));
+        }
+
+        @SuppressWarnings("unchecked")
+        private int child(Object clauseObj) {
+            if (clauseObj instanceof ConditionGroupDefinition) {
+                return group((ConditionGroupDefinition) clauseObj);
+            }
+            if (clauseObj instanceof ConditionClauseDefinition) {
+                return clause((ConditionClauseDefinition) clauseObj);
+            }
+            Map<String, Object> clauseMap = (Map<String, Object>) clauseObj;
+            if (clauseMap.containsKey("logicalOperator")) {
+                return group(mapper.convertValue(clauseMap, ConditionGroupDefinition.class));
+            }
+            return clause(mapper.convertValue(clauseMap, ConditionClauseDefinition.class));
+        }
+
+        private int clause(ConditionClauseDefinition clause) {
+            clauseReferences++;
+            String operator = (clause.getOperator() != null) ? clause.getOperator().toUpperCase(Locale.ROOT) : null;
+            String value;
+            try {
+                // JSON keeps the value's type: "true" and true, or 1 and 1.0, are different clauses.
+                value = mapper.writeValueAsString(clause.getValue());
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Clause value for field '" + clause.getField() + "' is not serializable.", e);
+            }
+            String key = clause.getField() + '\u0000' + operator + '\u0000' + value;
+            Integer existing = nodeIds.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            distinctClauses++;
+            return add(key, new Node(clause));
+        }
+
+        private int add(String key, Node node) {
+            int id = nodes.size();
+            nodes.add(node);
+            nodeIds.put(key, id);
+            return id;
+        }
+    }
+}
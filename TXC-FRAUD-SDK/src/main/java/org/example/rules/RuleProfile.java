@@ -0,0 +1,92 @@
+package org.example.rules;
+
+import org.example.metrics.LatencyHistogram;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live counters for one rule of a {@link RuleNetwork}: how often its conditions were
+ * evaluated and matched, how long that took, and how often a clause threw.
+ * <p>
+ * The time of a rule is the time spent resolving its conditions. Clauses it shares with a
+ * rule evaluated earlier for the same transaction are already known and cost it nothing, so
+ * a shared expensive clause is charged to the first rule that needs it.
+ * <p>
+ * With the kill switch on, each evaluation over {@code budgetNanos} (when positive) and each
+ * clause error is a violation; {@code maxViolations} of them within one window of {@code window} evaluations
+ * disable the rule for the lifetime of the network, i.e. until rules are next loaded.
+ */
+final class RuleProfile {
+    private final long budgetNanos;
+    private final boolean autoDisable;
+    private final int maxViolations;
+    private final long window;
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder matches = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder budgetOverruns = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong windowEvaluations = new AtomicLong();
+    private final AtomicInteger windowViolations = new AtomicInteger();
+    private volatile String disabledReason;
+
+    RuleProfile(long budgetNanos, boolean autoDisable, int maxViolations, long window) {
+        this.budgetNanos = budgetNanos;
+        this.autoDisable = autoDisable;
+        this.maxViolations = Math.max(1, maxViolations);
+        this.window = Math.max(1, window);
+    }
+
+    /** @return Whether this evaluation disabled the rule. */
+    boolean record(boolean met, long elapsedNanos) {
+        evaluations.increment();
+        if (met) {
+            matches.increment();
+        }
+        latency.recordNanos(elapsedNanos);
+        boolean violation = elapsedNanos > budgetNanos && budgetNanos > 0;
+        if (violation) {
+            budgetOverruns.increment();
+        }
+        if (windowEvaluations.incrementAndGet() % window == 0) {
+            windowViolations.set(0);
+        }
+        return violation && violation("exceeded its " + (budgetNanos / 1_000) + "us budget");
+    }
+
+    /**
+     * Counts a clause that threw while evaluating this rule.
+     * @return Whether this error disabled the rule.
+     */
+    boolean recordError() {
+        errors.increment();
+        return violation("clause errors");
+    }
+
+    private boolean violation(String cause) {
+        if (!autoDisable || disabledReason != null) {
+            return false;
+        }
+        if (windowViolations.incrementAndGet() < maxViolations) {
+            return false;
+        }
+        synchronized (this) {
+            if (disabledReason != null) {
+                return false;
+            }
+            disabledReason = maxViolations + " violations within " + window + " evaluations, last: " + cause;
+            return true;
+        }
+    }
+
+    boolean isDisabled() { return disabledReason != null; }
+    String getDisabledReason() { return disabledReason; }
+
+    RuleProfileSnapshot snapshot(String ruleId) {
+        return new RuleProfileSnapshot(ruleId, evaluations.sum(), matches.sum(), errors.sum(), budgetOverruns.sum(),
+                latency.getTotalNanos(), latency.getPercentileNanos(50), latency.getPercentileNanos(99),
+                latency.getMaxNanos(), disabledReason);
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.rules;
+
+/**
+ * Point-in-time profile of one rule since its rule set was loaded. Times cover the rule's
+ * conditions only. Plain getters only so it can be serialized as-is for dashboards.
+ */
+public class RuleProfileSnapshot {
+    private final String ruleId;
+    private final long evaluations;
+    private final long matches;
+    private final long errors;
+    private final long budgetOverruns;
+    private final long totalNanos;
+    private final long p50Nanos;
+    private final long p99Nanos;
+    private final long maxNanos;
+    private final String disabledReason;
+
+    public RuleProfileSnapshot(String ruleId, long evaluations, long matches, long errors, long budgetOverruns,
+                               long totalNanos, long p50Nanos, long p99Nanos, long maxNanos, String disabledReason) {
+        this.ruleId = ruleId;
+        this.evaluations = evaluations;
+        this.matches = matches;
+        this.errors = errors;
+        this.budgetOverruns = budgetOverruns;
+        this.totalNanos = totalNanos;
+        this.p50Nanos = p50Nanos;
+        this.p99Nanos = p99Nanos;
+        this.maxNanos = maxNanos;
+        this.disabledReason = disabledReason;
+    }
+
+    public String getRuleId() { return ruleId; }
+    public long getEvaluations() { return evaluations; }
+    public long getMatches() { return matches; }
+    public double getHitRate() { return evaluations == 0 ? 0.0 : (double) matches / evaluations; }
+    /** Clauses of this rule that threw; each counted as not met. */
+    public long getErrors() { return errors; }
+    /** Evaluations that took longer than the configured rule budget. */
+    public long getBudgetOverruns() { return budgetOverruns; }
+    public double getTotalMillis() { return totalNanos / 1_000_000.0; }
+    public double getMeanMicros() { return evaluations == 0 ? 0.0 : totalNanos / 1_000.0 / evaluations; }
+    public double getP50Micros() { return p50Nanos / 1_000.0; }
+    public double getP99Micros() { return p99Nanos / 1_000.0; }
+    public double getMaxMicros() { return maxNanos / 1_000.0; }
+    public boolean isAutoDisabled() { return disabledReason != null; }
+    /** Why the kill switch disabled the rule, or {@code null} while it is active. */
+    public String getDisabledReason() { return disabledReason; }
+}
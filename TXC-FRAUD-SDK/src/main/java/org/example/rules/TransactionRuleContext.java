@@ -1,6 +1,7 @@
 package org.example.rules;
 
 import org.example.definition.DomainInput;
+import org.example.entity.EntityStoreRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.lang.reflect.Method;
@@ -19,20 +20,35 @@ public class TransactionRuleContext {
     private final DomainInput rawInput;
     private final double mlScore;
     private final Map<String, Object> preprocessedFeatures;
+    private final EntityStoreRegistry entityStores;
 
     public TransactionRuleContext(DomainInput rawInput,
                                   double mlScore,
                                   Map<String, Object> clientSuppliedContext,
                                   Map<String, Object> preprocessedFeatures) {
+        this(rawInput, mlScore, clientSuppliedContext, preprocessedFeatures, null);
+    }
+
+    public TransactionRuleContext(DomainInput rawInput,
+                                  double mlScore,
+                                  Map<String, Object> clientSuppliedContext,
+                                  Map<String, Object> preprocessedFeatures,
+                                  EntityStoreRegistry entityStores) {
         this.rawInput = rawInput;
         this.mlScore = mlScore;
         this.preprocessedFeatures = (preprocessedFeatures != null) ? preprocessedFeatures : Collections.emptyMap();
+        this.entityStores = entityStores;
     }
 
     public double getMlScore() {
         return mlScore;
     }
 
+    /** The same transaction and features as seen with a different ML score, e.g. a challenger model's. */
+    public TransactionRuleContext withMlScore(double otherMlScore) {
+        return new TransactionRuleContext(rawInput, otherMlScore, null, preprocessedFeatures, entityStores);
+    }
+
     /**
      * The core of the rule engine's data access. This version directly parses dot-notation paths.
      */
@@ -50,6 +66,11 @@ public class TransactionRuleContext {
             return preprocessedFeatures.get(featureName);
         }
 
+        // "entity.<store>.<attribute>": looked up in the store using the transaction's key field.
+        if (fieldPath.startsWith("entity.")) {
+            return getEntityValue(fieldPath);
+        }
+
         Object currentObject = this.rawInput;
         String[] pathParts = fieldPath.split("\\.");
 
@@ -71,6 +92,33 @@ public class TransactionRuleContext {
         return currentObject;
     }
 
+    /**
+     * Membership test against a named list, for the {@code IN_NAMED_LIST} operators.
+     * @return {@code null} if no such list is loaded, so callers can tell "not a member" from "unknown list".
+     */
+    public Boolean isInNamedList(String listName, Object value) {
+        if (entityStores == null || listName == null || !entityStores.hasNamedList(listName)) {
+            return null;
+        }
+        return entityStores.isInNamedList(listName, String.valueOf(value));
+    }
+
+    private Object getEntityValue(String fieldPath) {
+        int storeEnd = fieldPath.indexOf('.', "entity.".length());
+        if (entityStores == null || storeEnd < 0) {
+            logger.warn("Entity path '{}' cannot be resolved: no entity stores configured or no attribute given.", fieldPath);
+            return null;
+        }
+        String storeName = fieldPath.substring("entity.".length(), storeEnd);
+        String keyField = entityStores.getKeyField(storeName);
+        if (keyField == null) {
+            logger.warn("Entity path '{}' refers to unknown entity store '{}'.", fieldPath, storeName);
+            return null;
+        }
+        Object key = getValue(keyField);
+        return (key != null) ? entityStores.lookup(storeName, key.toString(), fieldPath.substring(storeEnd + 1)) : null;
+    }
+
     private Object getReflectedValue(Object target, String fieldName) {
         if (target == null || fieldName == null) {
             return null;
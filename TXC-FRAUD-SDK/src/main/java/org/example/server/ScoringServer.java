@@ -0,0 +1,328 @@
+package org.example.server;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.example.definition.DomainInput;
+import org.example.definition.FraudDetectionSDK;
+import org.example.execution.BulkheadRejectedException;
+import org.example.execution.ScoringPipeline;
+import org.example.rules.FinalRuleOutput;
+import org.example.rules.RuleProfileSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves one warmed {@link FraudDetectionSDK} over HTTP so every service on a host can share
+ * its models, ONNX sessions and rule sets instead of embedding its own copy.
+ * <ul>
+ *   <li>{@code POST /v1/score/{domain}}: one transaction as JSON, returns the decision.</li>
+ *   <li>{@code POST /v1/score/{domain}/batch}: NDJSON in, NDJSON out. Lines are parsed as they
+ *       arrive and decisions are streamed back in request order.</li>
+ *   <li>{@code GET /health} and {@code GET /metrics} (per-domain bulkhead snapshots).</li>
+ *   <li>{@code GET /rules/plan}: each domain's rule conditions in their current evaluation order.</li>
+ *   <li>{@code GET /rules/profile}: per-rule hit rates, errors and evaluation time, slowest first.</li>
+ * </ul>
+ * Connections are kept alive by the JDK server. Requests run on a bounded worker pool; when
+ * it is full the accepting thread runs the request itself, which stops it accepting new
+ * connections until a worker frees up, so overload backs up into the TCP backlog rather
+ * than into memory.
+ */
+public class ScoringServer implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ScoringServer.class);
+    private static final String SCORE_PREFIX = "/v1/score/";
+
+    private final FraudDetectionSDK sdk;
+    private final ScoringServerOptions options;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ObjectWriter jsonWriter = mapper.writer();
+    private final Map<String, ObjectReader> inputReaders = new ConcurrentHashMap<>();
+    private final Map<String, ScoringPipeline> batchPipelines = new ConcurrentHashMap<>();
+    private final HttpServer httpServer;
+    private final ThreadPoolExecutor workers;
+
+    public ScoringServer(FraudDetectionSDK sdk, ScoringServerOptions options) throws IOException {
+        this.sdk = sdk;
+        this.options = (options != null) ? options : new ScoringServerOptions();
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(
+                this.options.getWorkerThreads(), this.options.getWorkerThreads(),
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(this.options.getWorkerQueueCapacity()),
+                r -> {
+                    Thread t = new Thread(r, "fraud-sdk-server-" + threadIndex.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        this.httpServer = HttpServer.create(new InetSocketAddress(this.options.getHost(), this.options.getPort()), this.options.getBacklog());
+        this.httpServer.setExecutor(workers);
+        this.httpServer.createContext(SCORE_PREFIX, this::handleScore);
+        this.httpServer.createContext("/health", this::handleHealth);
+        this.httpServer.createContext("/metrics", this::handleMetrics);
+        this.httpServer.createContext("/rules/plan", this::handleRulePlans);
+        this.httpServer.createContext("/rules/profile", this::handleRuleProfiles);
+    }
+
+    public void start() {
+        httpServer.start();
+        logger.info("Scoring server listening on {}:{} for domains {} ({} workers).",
+                options.getHost(), getPort(), sdk.getDomainConfigurations().keySet(), options.getWorkerThreads());
+    }
+
+    /** The bound port; useful when the server was configured with port 0. */
+    public int getPort() {
+        return httpServer.getAddress().getPort();
+    }
+
+    private void handleScore(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+                sendError(exchange, 405, "Use POST.");
+                return;
+            }
+            String path = exchange.getRequestURI().getPath().substring(SCORE_PREFIX.length());
+            boolean batch = path.endsWith("/batch");
+            String domainName = batch ? path.substring(0, path.length() - "/batch".length()) : path;
+            if (!sdk.getDomainConfigurations().containsKey(domainName)) {
+                sendError(exchange, 404, "Unknown domain: " + domainName);
+                return;
+            }
+            if (batch) {
+                scoreBatch(exchange, domainName);
+            } else {
+                scoreSingle(exchange, domainName);
+            }
+        } catch (Exception e) {
+            logger.error("Scoring server: unhandled error for {}", exchange.getRequestURI(), e);
+            if (exchange.getResponseCode() == -1) {
+                sendError(exchange, 500, "Internal error.");
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void scoreSingle(HttpExchange exchange, String domainName) throws Exception {
+        byte[] body = readBounded(exchange.getRequestBody(), options.getMaxSingleRequestBytes());
+        if (body == null) {
+            exchange.getResponseHeaders().set("Connection", "close");
+            sendError(exchange, 413, "Request body exceeds " + options.getMaxSingleRequestBytes() + " bytes; use the /batch endpoint.");
+            return;
+        }
+        DomainInput input;
+        try {
+            input = inputReader(domainName).readValue(body);
+        } catch (JsonProcessingException e) {
+            sendError(exchange, 400, "Invalid " + domainName + " transaction: " + e.getOriginalMessage());
+            return;
+        }
+        try {
+            sendJson(exchange, 200, sdk.scoreAndEvaluateRules(domainName, input, null));
+        } catch (BulkheadRejectedException e) {
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            sendError(exchange, 503, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        }
+    }
+
+    private void scoreBatch(HttpExchange exchange, String domainName) throws IOException, InterruptedException {
+        ScoringPipeline pipeline = batchPipelines.computeIfAbsent(domainName,
+                d -> sdk.openPipeline(d, options.getBatchPipelineOptions()));
+        ObjectReader reader = inputReader(domainName);
+        int maxInFlight = Math.max(1, options.getBatchMaxInFlight());
+        ArrayDeque<CompletableFuture<FinalRuleOutput>> window = new ArrayDeque<>(maxInFlight);
+
+        exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+        exchange.sendResponseHeaders(200, 0); // chunked: decisions are streamed as they complete
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8), 1 << 16);
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), 1 << 16)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.trim().isEmpty()) continue;
+                if (window.size() >= maxInFlight) {
+                    writeDecision(out, window.poll());
+                }
+                window.add(submitLine(pipeline, reader, line));
+                // Nothing more to read right now: push out what is already done instead of holding it.
+                while (!window.isEmpty() && window.peek().isDone() && !in.ready()) {
+                    writeDecision(out, window.poll());
+                }
+            }
+            while (!window.isEmpty()) {
+                writeDecision(out, window.poll());
+            }
+        }
+    }
+
+    private CompletableFuture<FinalRuleOutput> submitLine(ScoringPipeline pipeline, ObjectReader reader, String line)
+            throws InterruptedException {
+        DomainInput input;
+        try {
+            input = reader.readValue(line);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.completedFuture(errorOutput("INVALID_INPUT"));
+        }
+        try {
+            return pipeline.submit(input, null);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void writeDecision(BufferedWriter out, CompletableFuture<FinalRuleOutput> result) throws IOException, InterruptedException {
+        FinalRuleOutput output;
+        try {
+            output = result.get();
+        } catch (ExecutionException e) {
+            logger.debug("Scoring server: batch line failed to score.", e.getCause());
+            output = errorOutput("SCORING_FAILED");
+        }
+        out.write(jsonWriter.writeValueAsString(output));
+        out.write('\n');
+    }
+
+    private void handleHealth(HttpExchange exchange) throws IOException {
+        try {
+            Map<String, Object> health = new LinkedHashMap<>();
+            health.put("status", "UP");
+            health.put("domains", new ArrayList<>(sdk.getDomainConfigurations().keySet()));
+            health.put("activeWorkers", workers.getActiveCount());
+            health.put("queuedRequests", workers.getQueue().size());
+            sendJson(exchange, 200, health);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        try {
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metrics.put("bulkheads", sdk.getBulkheadMetrics());
+            metrics.put("decisionCaches", sdk.getDecisionCacheStats());
+            metrics.put("shadowRules", sdk.getShadowRuleStats());
+            metrics.put("challengers", sdk.getChallengerStats());
+            metrics.put("autoDisabledRules", sdk.getAutoDisabledRules());
+            Map<String, Object> batchQueues = new LinkedHashMap<>();
+            batchPipelines.forEach((domain, pipeline) -> batchQueues.put(domain, pipeline.getStageQueueDepths()));
+            metrics.put("batchPipelines", batchQueues);
+            sendJson(exchange, 200, metrics);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleRulePlans(HttpExchange exchange) throws IOException {
+        try {
+            sendJson(exchange, 200, sdk.getRuleEvaluationPlans());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleRuleProfiles(HttpExchange exchange) throws IOException {
+        try {
+            Map<String, List<RuleProfileSnapshot>> profiles = sdk.getRuleProfiles();
+            profiles.values().forEach(rules -> rules.sort(
+                    Comparator.comparingDouble(RuleProfileSnapshot::getTotalMillis).reversed()));
+            sendJson(exchange, 200, profiles);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private ObjectReader inputReader(String domainName) {
+        return inputReaders.computeIfAbsent(domainName, d -> mapper.readerFor(sdk.getDomainInputClass(d))
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES));
+    }
+
+    /** @return the body, or {@code null} if it is longer than {@code limit}. */
+    private static byte[] readBounded(InputStream in, long limit) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        long total = 0;
+        int read;
+        while ((read = in.read(chunk)) != -1) {
+            total += read;
+            if (total > limit) return null;
+            buffer.write(chunk, 0, read);
+        }
+        return buffer.toByteArray();
+    }
+
+    private void sendJson(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = jsonWriter.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", status);
+        body.put("error", message);
+        sendJson(exchange, status, body);
+    }
+
+    private static FinalRuleOutput errorOutput(String reasonCode) {
+        FinalRuleOutput output = new FinalRuleOutput();
+        output.setDecision("ERROR");
+        output.addReasonCode(reasonCode);
+        return output;
+    }
+
+    /** Stops accepting requests, gives in-flight ones up to {@code graceSeconds}, then closes the batch pipelines. */
+    public void stop(int graceSeconds) {
+        httpServer.stop(Math.max(0, graceSeconds));
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(Math.max(1, graceSeconds), TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        batchPipelines.values().forEach(ScoringPipeline::close);
+        batchPipelines.clear();
+        logger.info("Scoring server stopped.");
+    }
+
+    @Override
+    public void close() {
+        stop(5);
+    }
+}
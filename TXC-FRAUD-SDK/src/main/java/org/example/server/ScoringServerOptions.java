@@ -0,0 +1,41 @@
+package org.example.server;
+
+import org.example.execution.PipelineOptions;
+
+/**
+ * Settings for the embedded {@link ScoringServer}. It binds to loopback by default: the
+ * server is meant as a same-host sidecar, not a public endpoint.
+ */
+public class ScoringServerOptions {
+    private String host = "127.0.0.1";
+    private int port = 8095;
+    private int backlog = 512;
+    private int workerThreads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    private int workerQueueCapacity = 1024;
+    private int batchMaxInFlight = 1024;
+    private long maxSingleRequestBytes = 1L << 20;
+    private PipelineOptions batchPipelineOptions = new PipelineOptions();
+
+    public ScoringServerOptions() {
+    }
+
+    // Getters
+    public String getHost() { return host; }
+    public int getPort() { return port; }
+    public int getBacklog() { return backlog; }
+    public int getWorkerThreads() { return workerThreads; }
+    public int getWorkerQueueCapacity() { return workerQueueCapacity; }
+    public int getBatchMaxInFlight() { return batchMaxInFlight; }
+    public long getMaxSingleRequestBytes() { return maxSingleRequestBytes; }
+    public PipelineOptions getBatchPipelineOptions() { return batchPipelineOptions; }
+
+    // Setters
+    public void setHost(String host) { this.host = host; }
+    public void setPort(int port) { this.port = port; }
+    public void setBacklog(int backlog) { this.backlog = backlog; }
+    public void setWorkerThreads(int workerThreads) { this.workerThreads = workerThreads; }
+    public void setWorkerQueueCapacity(int workerQueueCapacity) { this.workerQueueCapacity = workerQueueCapacity; }
+    public void setBatchMaxInFlight(int batchMaxInFlight) { this.batchMaxInFlight = batchMaxInFlight; }
+    public void setMaxSingleRequestBytes(long maxSingleRequestBytes) { this.maxSingleRequestBytes = maxSingleRequestBytes; }
+    public void setBatchPipelineOptions(PipelineOptions batchPipelineOptions) { this.batchPipelineOptions = batchPipelineOptions; }
+}
@@ -216,11 +216,18 @@ def get_sdk_runtime_configuration(current_app: models.Application = Depends(get_
     domain_config_blueprint = blueprints["domainDetails"][app_domain]
     domain_config_blueprint["domainName"] = app_domain
 
+    # Candidate rules evaluated next to the live ones (global.shadowRules, keyed by domain)
+    shadow_rules = (blueprints["global"].get("shadowRules") or {}).get(app_domain)
+
     runtime_config = {
         "mlflowTrackingUri": blueprints["global"]["mlflowTrackingUri"],
         "kongGatewayBaseUrl": blueprints["global"]["kongGatewayBaseUrl"],
         "domainConfigurations": { app_domain: domain_config_blueprint },
-        "rules": { app_domain: current_app.rules_json or [] }
+        "rules": { app_domain: current_app.rules_json or [] },
+        "shadowRules": { app_domain: shadow_rules } if shadow_rules else None,
+        "overloadPolicy": blueprints["global"].get("overloadPolicy"),
+        "entityStores": blueprints["global"].get("entityStores"),
+        "namedLists": blueprints["global"].get("namedLists")
     }
     return runtime_config
 
@@ -1,5 +1,5 @@
 from pydantic import BaseModel
-from typing import List, Dict, Any
+from typing import List, Dict, Any, Optional
 
 class ApplicationCreate(BaseModel):
     client_name: str
@@ -19,11 +19,19 @@ class SdkDomainConfig(BaseModel):
     onnxFileSubPathWithinModelDir: str
     scorerApiEndpointPath: str
 
+    class Config:
+        # Optional SDK tuning keys in domain_blueprints.json (bulkhead sizes, etc.) are passed through as-is.
+        extra = "allow"
+
 class SdkRuntimeConfig(BaseModel):
     mlflowTrackingUri: str
     kongGatewayBaseUrl: str
     domainConfigurations: Dict[str, SdkDomainConfig]
     rules: Dict[str, List[Dict[str, Any]]]
+    shadowRules: Optional[Dict[str, List[Dict[str, Any]]]] = None
+    overloadPolicy: Optional[Dict[str, Any]] = None
+    entityStores: Optional[List[Dict[str, Any]]] = None
+    namedLists: Optional[List[Dict[str, Any]]] = None
 
 class Token(BaseModel):
     access_token: str